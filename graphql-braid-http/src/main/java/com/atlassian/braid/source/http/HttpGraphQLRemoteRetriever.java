@@ -0,0 +1,289 @@
+package com.atlassian.braid.source.http;
+
+import com.atlassian.braid.source.GraphQLRemoteRetriever;
+import com.atlassian.braid.source.GraphQLStreamingRemoteRetriever;
+import com.atlassian.braid.source.Query;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Retrieves GraphQL responses over HTTP, posting queries as JSON to an endpoint whose URL and headers may depend on the
+ * context of the execution, e.g. to forward the authentication of the user. Configured per schema source, so each
+ * namespace has its own endpoint and headers.
+ * <p>Queries are sent with the non-blocking {@link HttpClient} of the JDK, no thread waits for their responses, so
+ * the number of queries in flight isn't bounded by a pool. Responses are buffered then handed to the
+ * {@link com.atlassian.braid.source.GraphQLResponseParser} of the schema source, see
+ * {@link com.atlassian.braid.source.QueryExecutorSchemaSource.Builder#streamingRemoteRetriever(GraphQLStreamingRemoteRetriever, com.atlassian.braid.source.GraphQLResponseParser)}.
+ * Use {@link #asRemoteRetriever()} where a {@link GraphQLRemoteRetriever} is expected.
+ * <p>Connections are pooled and reused between queries to the same host by the client. Responses are requested
+ * gzipped, and requests may be gzipped too for endpoints that accept it.
+ */
+public final class HttpGraphQLRemoteRetriever<C> implements GraphQLStreamingRemoteRetriever<C> {
+
+    private static final String JSON = "application/json";
+    private static final String GZIP = "gzip";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Function<C, URL> url;
+    private final Map<String, String> headers;
+    private final Function<C, Map<String, String>> contextHeaders;
+    private final boolean gzipRequests;
+    private final Duration readTimeout;
+
+    private HttpGraphQLRemoteRetriever(Builder<C> builder) {
+        this.httpClient = builder.httpClient;
+        this.objectMapper = builder.objectMapper;
+        this.url = requireNonNull(builder.url, "url");
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.contextHeaders = builder.contextHeaders;
+        this.gzipRequests = builder.gzipRequests;
+        this.readTimeout = builder.readTimeout;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public CompletableFuture<InputStream> queryGraphQL(Query query, C context) {
+        final HttpRequest request;
+        try {
+            request = newRequest(query, context);
+        } catch (IOException e) {
+            final CompletableFuture<InputStream> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        return responseBody(response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @return a retriever of the responses of this retriever as maps, for use where a {@link GraphQLRemoteRetriever} is
+     * expected, e.g. with {@link com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceFactory}
+     */
+    public GraphQLRemoteRetriever<C> asRemoteRetriever() {
+        return (query, context) -> queryGraphQL(query, context).thenApply(body -> {
+            try (InputStream in = body) {
+                @SuppressWarnings("unchecked") final Map<String, Object> response = objectMapper.readValue(in, Map.class);
+                return response;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private HttpRequest newRequest(Query query, C context) throws IOException {
+        final HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(toUri(requireNonNull(url.apply(context), "url")))
+                .header("Accept", JSON)
+                .header("Accept-Encoding", GZIP)
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody(query)));
+        if (gzipRequests) {
+            request.header("Content-Encoding", GZIP);
+        }
+        if (readTimeout != null) {
+            request.timeout(readTimeout);
+        }
+        headers.forEach(request::setHeader);
+        if (contextHeaders != null) {
+            final Map<String, String> requestHeaders = contextHeaders.apply(context);
+            if (requestHeaders != null) {
+                requestHeaders.forEach(request::setHeader);
+            }
+        }
+        return request.build();
+    }
+
+    private byte[] requestBody(Query query) throws IOException {
+        final Map<String, Object> request = new LinkedHashMap<>();
+        request.put("query", query.getPrintedQuery());
+        if (query.getOperationName() != null) {
+            request.put("operationName", query.getOperationName());
+        }
+        request.put("variables", query.getVariables() == null ? Collections.emptyMap() : query.getVariables());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        if (gzipRequests) {
+            try (OutputStream out = new GZIPOutputStream(bytes)) {
+                objectMapper.writeValue(out, request);
+            }
+        } else {
+            objectMapper.writeValue(bytes, request);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the body of the response, ungzipped if needed, when successful or when a GraphQL response with errors,
+     * as endpoints may answer with an error status, their errors being then surfaced as those of successful responses
+     * @throws IOException if the response isn't successful and has no GraphQL errors
+     */
+    private InputStream responseBody(HttpResponse<byte[]> response) throws IOException {
+        final int status = response.statusCode();
+        if ((status < 200 || status >= 300) && !hasErrors(response)) {
+            throw new IOException("Failed to query " + response.uri() + ", HTTP status: " + status);
+        }
+        return body(response);
+    }
+
+    private boolean hasErrors(HttpResponse<byte[]> response) {
+        try (InputStream in = body(response)) {
+            final JsonNode body = objectMapper.readTree(in);
+            return body != null && body.isObject() && body.path("errors").isArray();
+        } catch (IOException e) {
+            return false; // not JSON
+        }
+    }
+
+    private static InputStream body(HttpResponse<byte[]> response) throws IOException {
+        final InputStream in = new ByteArrayInputStream(response.body());
+        final boolean gzipped = response.headers().firstValue("Content-Encoding").filter(GZIP::equalsIgnoreCase)
+                .isPresent();
+        return gzipped ? new GZIPInputStream(in) : in;
+    }
+
+    private static URI toUri(URL url) throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid URL: " + url, e);
+        }
+    }
+
+    public static final class Builder<C> {
+        private HttpClient httpClient;
+        private ObjectMapper objectMapper = new ObjectMapper();
+        private Function<C, URL> url;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private Function<C, Map<String, String>> contextHeaders;
+        private boolean gzipRequests = false;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+
+        private Builder() {
+        }
+
+        /**
+         * @param url the URL of the GraphQL endpoint
+         * @return this builder
+         */
+        public Builder<C> url(URL url) {
+            requireNonNull(url);
+            return url(__ -> url);
+        }
+
+        /**
+         * @param url the URL of the GraphQL endpoint for the context of an execution, e.g. for a tenant
+         * @return this builder
+         */
+        public Builder<C> url(Function<C, URL> url) {
+            this.url = requireNonNull(url);
+            return this;
+        }
+
+        /**
+         * @param name  the name of a header sent with every query
+         * @param value the value of the header
+         * @return this builder
+         */
+        public Builder<C> header(String name, String value) {
+            this.headers.put(requireNonNull(name), requireNonNull(value));
+            return this;
+        }
+
+        /**
+         * @param contextHeaders the headers sent with the queries of the context of an execution, e.g. to forward
+         *                       its authentication, overriding the headers set with {@link #header(String, String)}
+         * @return this builder
+         */
+        public Builder<C> headers(Function<C, Map<String, String>> contextHeaders) {
+            this.contextHeaders = requireNonNull(contextHeaders);
+            return this;
+        }
+
+        /**
+         * @param gzipRequests whether to gzip the requests, {@code false} by default as not all servers accept them
+         * @return this builder
+         */
+        public Builder<C> gzipRequests(boolean gzipRequests) {
+            this.gzipRequests = gzipRequests;
+            return this;
+        }
+
+        /**
+         * @param connectTimeout the connect timeout of the client built by this builder, ignored when given a client
+         * @return this builder
+         */
+        public Builder<C> connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = requireNonNull(connectTimeout);
+            return this;
+        }
+
+        /**
+         * @param readTimeout the time to wait for the response of a query
+         * @return this builder
+         */
+        public Builder<C> readTimeout(Duration readTimeout) {
+            this.readTimeout = requireNonNull(readTimeout);
+            return this;
+        }
+
+        /**
+         * @param httpClient the client sending the queries, e.g. to share its connections or configure its proxy,
+         *                   SSL context or executor, a new client per retriever by default
+         * @return this builder
+         */
+        public Builder<C> httpClient(HttpClient httpClient) {
+            this.httpClient = requireNonNull(httpClient);
+            return this;
+        }
+
+        public Builder<C> objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = requireNonNull(objectMapper);
+            return this;
+        }
+
+        public HttpGraphQLRemoteRetriever<C> build() {
+            if (httpClient == null) {
+                final HttpClient.Builder client = HttpClient.newBuilder();
+                if (connectTimeout != null) {
+                    client.connectTimeout(connectTimeout);
+                }
+                httpClient = client.build();
+            }
+            return new HttpGraphQLRemoteRetriever<>(this);
+        }
+    }
+}
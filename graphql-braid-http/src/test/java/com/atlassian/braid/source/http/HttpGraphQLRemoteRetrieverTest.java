@@ -0,0 +1,151 @@
+package com.atlassian.braid.source.http;
+
+import com.atlassian.braid.source.Query;
+import com.atlassian.braid.source.jackson.JacksonGraphQLResponseParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.DataFetcherResult;
+import graphql.parser.Parser;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpGraphQLRemoteRetrieverTest {
+
+    private static final String RESPONSE = "{\"data\":{\"foo\":{\"name\":\"Foo\"}}}";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void postsQueriesToTheUrlAndWithTheHeadersOfTheContext() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final HttpGraphQLRemoteRetriever<String> retriever = HttpGraphQLRemoteRetriever.<String>builder()
+                .url(tenant -> server.url("/" + tenant + "/graphql").url())
+                .header("X-Client", "braid")
+                .headers(tenant -> singletonMap("X-Tenant", tenant))
+                .build();
+
+        final DataFetcherResult<Map<String, Object>> result = parse(retriever.queryGraphQL(query(), "acme").join());
+        assertEquals(singletonMap("foo", singletonMap("name", "Foo")), result.getData());
+
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/acme/graphql", request.getPath());
+        assertEquals("braid", request.getHeader("X-Client"));
+        assertEquals("acme", request.getHeader("X-Tenant"));
+        assertEquals("gzip", request.getHeader("Accept-Encoding"));
+
+        final Map<?, ?> body = objectMapper.readValue(request.getBody().readUtf8(), Map.class);
+        assertEquals("query Foo($id:String){foo(id:$id){name}}", body.get("query"));
+        assertEquals("Foo", body.get("operationName"));
+        assertEquals(singletonMap("id", "fooid"), body.get("variables"));
+    }
+
+    @Test
+    public void reusesConnectionsBetweenQueries() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+
+        final HttpGraphQLRemoteRetriever<Object> retriever = newRetriever().build();
+        parse(retriever.queryGraphQL(query(), null).join());
+        parse(retriever.queryGraphQL(query(), null).join());
+
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    public void gzipsRequestsAndReadsGzippedResponses() throws Exception {
+        final Buffer gzipped = new Buffer();
+        try (okio.BufferedSink sink = okio.Okio.buffer(new okio.GzipSink(gzipped))) {
+            sink.writeUtf8(RESPONSE);
+        }
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(gzipped));
+
+        final HttpGraphQLRemoteRetriever<Object> retriever = newRetriever().gzipRequests(true).build();
+        final Map<String, Object> response = retriever.asRemoteRetriever().queryGraphQL(query(), null).join();
+        assertEquals(singletonMap("foo", singletonMap("name", "Foo")), response.get("data"));
+
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("gzip", request.getHeader("Content-Encoding"));
+        try (InputStream in = new GZIPInputStream(request.getBody().inputStream())) {
+            assertEquals("Foo", objectMapper.readValue(in, Map.class).get("operationName"));
+        }
+    }
+
+    @Test
+    public void failsOnErrorStatus() {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("unavailable"));
+
+        try {
+            newRetriever().build().queryGraphQL(query(), null).join();
+            fail("Expected the query to fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause().getMessage().contains("HTTP status: 503"));
+        }
+    }
+
+    @Test
+    public void surfacesTheErrorsOfClientErrorResponses() throws Exception {
+        assertErrorsOfErrorResponseAreSurfaced(400);
+    }
+
+    @Test
+    public void surfacesTheErrorsOfServerErrorResponses() throws Exception {
+        assertErrorsOfErrorResponseAreSurfaced(500);
+    }
+
+    private void assertErrorsOfErrorResponseAreSurfaced(int status) throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(status)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"data\":null,\"errors\":[{\"message\":\"Validation error\"}]}"));
+
+        final DataFetcherResult<Map<String, Object>> result =
+                parse(newRetriever().build().queryGraphQL(query(), null).join());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("Validation error", result.getErrors().get(0).getMessage());
+    }
+
+    private HttpGraphQLRemoteRetriever.Builder<Object> newRetriever() {
+        return HttpGraphQLRemoteRetriever.builder().url(server.url("/graphql").url());
+    }
+
+    private static DataFetcherResult<Map<String, Object>> parse(InputStream body) throws Exception {
+        try (InputStream in = body) {
+            return new JacksonGraphQLResponseParser().parse(in);
+        }
+    }
+
+    private static Query query() {
+        return Query.newQuery()
+                .query(new Parser().parseDocument("query Foo($id: String) { foo(id: $id) { name } }"))
+                .operationName("Foo")
+                .variables(singletonMap("id", "fooid"))
+                .build();
+    }
+}
@@ -10,4 +10,14 @@ public interface BatchLoaderEnvironment {
      * The function to apply to query executor to split query execution based on partition
      * */
     QueryPartitionFunction getQueryPartitionFunction();
+
+    /**
+     * The function to apply to query executor of the given schema source to split query execution based on partition,
+     * defaults to {@link #getQueryPartitionFunction()}
+     *
+     * @param namespace the namespace of the schema source
+     */
+    default QueryPartitionFunction getQueryPartitionFunction(SchemaNamespace namespace) {
+        return getQueryPartitionFunction();
+    }
 }
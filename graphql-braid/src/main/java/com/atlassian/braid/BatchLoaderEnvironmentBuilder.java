@@ -2,31 +2,59 @@ package com.atlassian.braid;
 
 import com.atlassian.braid.source.QueryPartitionFunction;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
 /**
  * Builder to create BatchLoaderEnvironment
  */
 public class BatchLoaderEnvironmentBuilder {
     private QueryPartitionFunction queryPartitionFunc;
+    private final Map<SchemaNamespace, QueryPartitionFunction> queryPartitionFuncsByNamespace = new HashMap<>();
 
     public BatchLoaderEnvironmentBuilder queryPartitionFunction(QueryPartitionFunction queryPartitionFunc) {
         this.queryPartitionFunc = queryPartitionFunc;
         return this;
     }
 
+    /**
+     * Sets the function splitting the queries of the given schema source, in place of the one set with
+     * {@link #queryPartitionFunction(QueryPartitionFunction)}, e.g. so that each schema source has its own
+     * {@link com.atlassian.braid.source.QueryPartitioner#withMaxConcurrency(int) concurrency limit}.
+     */
+    public BatchLoaderEnvironmentBuilder queryPartitionFunction(SchemaNamespace namespace, QueryPartitionFunction queryPartitionFunc) {
+        this.queryPartitionFuncsByNamespace.put(requireNonNull(namespace), requireNonNull(queryPartitionFunc));
+        return this;
+    }
+
     public BatchLoaderEnvironment build() {
-        return new BatchLoaderEnvironmentImpl(queryPartitionFunc);
+        return new BatchLoaderEnvironmentImpl(queryPartitionFunc, new HashMap<>(queryPartitionFuncsByNamespace));
     }
 }
 
 class BatchLoaderEnvironmentImpl implements BatchLoaderEnvironment {
     private QueryPartitionFunction queryPartitionFunc;
+    private final Map<SchemaNamespace, QueryPartitionFunction> queryPartitionFuncsByNamespace;
 
     public BatchLoaderEnvironmentImpl(QueryPartitionFunction queryPartitionFunc) {
+        this(queryPartitionFunc, new HashMap<>());
+    }
+
+    BatchLoaderEnvironmentImpl(QueryPartitionFunction queryPartitionFunc,
+                               Map<SchemaNamespace, QueryPartitionFunction> queryPartitionFuncsByNamespace) {
         this.queryPartitionFunc = queryPartitionFunc;
+        this.queryPartitionFuncsByNamespace = requireNonNull(queryPartitionFuncsByNamespace);
     }
 
     @Override
     public QueryPartitionFunction getQueryPartitionFunction() {
         return queryPartitionFunc;
     }
+
+    @Override
+    public QueryPartitionFunction getQueryPartitionFunction(SchemaNamespace namespace) {
+        return queryPartitionFuncsByNamespace.getOrDefault(namespace, queryPartitionFunc);
+    }
 }
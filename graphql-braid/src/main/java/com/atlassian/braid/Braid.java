@@ -1,5 +1,10 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.cache.InMemoryPersistedQueryStore;
+import com.atlassian.braid.cache.LruCache;
+import com.atlassian.braid.cache.PersistedQueryStore;
+import com.atlassian.braid.cache.PreparsedDocumentCache;
+import com.atlassian.braid.source.QueryCoalescer;
 import com.atlassian.braid.transformation.SchemaTransformation;
 import graphql.GraphQL;
 import graphql.execution.AsyncExecutionStrategy;
@@ -16,6 +21,7 @@ import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import org.dataloader.BatchLoader;
 import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
 import org.dataloader.DataLoaderRegistry;
 
 import javax.annotation.Nonnull;
@@ -29,12 +35,13 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.atlassian.braid.java.util.BraidLists.concat;
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
 import static graphql.schema.idl.RuntimeWiring.newRuntimeWiring;
 import static java.util.Objects.requireNonNull;
 
 /**
  * This is the entry class for Braid to {@link #builder() build} a new {@link Braid} instance and to {@link #newGraphQL() get a new BraidGraphQL}
- * instance to execute queries.
+ * instance to execute queries, or to {@link #getGraphQL() get the shared BraidGraphQL} instance.
  */
 @SuppressWarnings("WeakerAccess")
 public final class Braid {
@@ -44,14 +51,19 @@ public final class Braid {
     private final Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory;
     private final Supplier<Instrumentation> dataLoaderInstrumentationFactory;
 
+    private final BraidGraphQL sharedGraphQL;
+    private final LruCache<Object, SchemaVariant> schemaVariants; // nullable, if variants aren't cached
 
     private Braid(BraidSchema braidSchema, BraidRuntime braidRuntime,
                   Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory,
-                   Supplier<Instrumentation> dataLoaderInstrumentationFactory) {
+                   Supplier<Instrumentation> dataLoaderInstrumentationFactory,
+                  int schemaVariantCacheSize) {
         this.braidSchema = requireNonNull(braidSchema);
         this.braidRuntime = requireNonNull(braidRuntime);
         this.dataLoaderRegistryFactory = requireNonNull(dataLoaderRegistryFactory);
         this.dataLoaderInstrumentationFactory = requireNonNull(dataLoaderInstrumentationFactory);
+        this.sharedGraphQL = newReusableGraphQL(Function.identity(), braidRuntime.preparsedDocumentProvider);
+        this.schemaVariants = schemaVariantCacheSize > 0 ? LruCache.ofSize(schemaVariantCacheSize) : null;
     }
 
     public static BraidBuilder builder() {
@@ -62,33 +74,135 @@ public final class Braid {
         return braidSchema.getSchema();
     }
 
+    /**
+     * @return the document cache used by this Braid, if it was configured with
+     * {@link BraidBuilder#preparsedDocumentCache(int, long)} or a {@link PreparsedDocumentCache}
+     */
+    public Optional<PreparsedDocumentCache> getPreparsedDocumentCache() {
+        return braidRuntime.preparsedDocumentProvider instanceof PreparsedDocumentCache
+                ? Optional.of((PreparsedDocumentCache) braidRuntime.preparsedDocumentProvider)
+                : Optional.empty();
+    }
+
+    /**
+     * @return the statistics of the link targets fetched and de-duplicated by this Braid, if it was configured with
+     * {@link BraidBuilder#deduplicateLinkTargets()}
+     */
+    public Optional<LinkTargetStats> getLinkTargetStats() {
+        return Optional.ofNullable(braidRuntime.linkTargetStats);
+    }
+
+    /**
+     * Gets the GraphQL instance held by this Braid. The underlying {@link GraphQL} is built once, only the
+     * {@link DataLoaderRegistry} and the Braid context are created for each query, so this instance is thread safe
+     * and should be preferred to {@link #newGraphQL()} when executing many queries.
+     * <p>Note that the instrumentation created by the
+     * {@link BraidBuilder#dataLoaderInstrumentationFactory(Supplier) data loader instrumentation factory} is then shared
+     * by all queries and should keep its per query state in its {@code InstrumentationState}.
+     *
+     * @return the shared {@link BraidGraphQL} instance
+     */
+    @Nonnull
+    public BraidGraphQL getGraphQL() {
+        return sharedGraphQL;
+    }
+
+    /**
+     * Gets the shared GraphQL instance for a variant of the schema, such as a schema hiding some fields for a given
+     * tenant or role. The schema transformer is only applied the first time a variant is requested, once even for
+     * concurrent requests, the transformed schema and its GraphQL instance are then cached (see
+     * {@link BraidBuilder#schemaVariantCacheSize(int)}) and thread safe, as per {@link #getGraphQL()}.
+     * <p>The schema of a Braid never changes, cached variants are only dropped when evicted or by
+     * {@link #invalidateSchemaVariants()}, e.g. when the transformation of a variant key changes.
+     *
+     * @param variantKey           identifies the variant, the same key must always map to the same transformation
+     * @param gqlSchemaTransformer the function to transform the schema, called when the variant isn't cached
+     *
+     * @return the shared {@link BraidGraphQL} instance for that variant
+     */
+    @Nonnull
+    public BraidGraphQL getGraphQL(Object variantKey, Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer) {
+        requireNonNull(variantKey);
+        requireNonNull(gqlSchemaTransformer);
+        if (schemaVariants == null) {
+            return newSchemaVariant(variantKey, gqlSchemaTransformer);
+        }
+        SchemaVariant variant = schemaVariants.getIfPresent(variantKey);
+        if (variant == null) {
+            final SchemaVariant newVariant = new SchemaVariant();
+            variant = Optional.ofNullable(schemaVariants.putIfAbsent(variantKey, newVariant)).orElse(newVariant);
+        }
+        return variant.get(() -> newSchemaVariant(variantKey, gqlSchemaTransformer));
+    }
+
+    private BraidGraphQL newSchemaVariant(Object variantKey, Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer) {
+        final PreparsedDocumentProvider variantDocumentProvider = getPreparsedDocumentCache()
+                .map(cache -> cache.scoped(variantKey))
+                .orElse(braidRuntime.preparsedDocumentProvider);
+        return newReusableGraphQL(gqlSchemaTransformer, variantDocumentProvider);
+    }
+
+    /**
+     * Drops all the cached schema variants, this is the only way to invalidate them
+     *
+     * @see #getGraphQL(Object, Function)
+     */
+    public void invalidateSchemaVariants() {
+        if (schemaVariants != null) {
+            schemaVariants.invalidateAll();
+        }
+    }
+
     /**
      * Builds a new GraphQL instance to run queries. Note that a new instance should be created for each new query.
      *
      * @return a new {@link BraidGraphQL} instance
+     * @see #getGraphQL()
      */
     @Nonnull
     public BraidGraphQL newGraphQL() {
-        return newGraphQL(Function.identity());
+        return newGraphQL(Function.identity(), braidRuntime.preparsedDocumentProvider);
     }
 
     /**
      * Builds a new GraphQL instance to run queries. Note that a new instance should be created for each new query.
+     * <p>The transformed schema isn't cached, a {@link PreparsedDocumentCache} is therefore not used for such
+     * instances, prefer {@link #getGraphQL(Object, Function)}.
      *
      * @param gqlSchemaTransformer the function to transform the schema
      *
      * @return a new {@link BraidGraphQL} instance
      */
     public BraidGraphQL newGraphQL(Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer) {
+        final PreparsedDocumentProvider preparsedDocumentProvider = getPreparsedDocumentCache().isPresent()
+                ? new NoOpPreparsedDocumentProvider()
+                : braidRuntime.preparsedDocumentProvider;
+        return newGraphQL(gqlSchemaTransformer, preparsedDocumentProvider);
+    }
+
+    private BraidGraphQL newGraphQL(Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer,
+                                    PreparsedDocumentProvider preparsedDocumentProvider) {
         return new BraidGraphQL(
                 () -> dataLoaderRegistryFactory.apply(braidSchema),
-                () -> createGraphQl(gqlSchemaTransformer));
+                () -> createGraphQl(gqlSchemaTransformer, preparsedDocumentProvider),
+                braidRuntime.persistedQueries,
+                braidRuntime.linkTargetStats);
+    }
+
+    private BraidGraphQL newReusableGraphQL(Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer,
+                                            PreparsedDocumentProvider preparsedDocumentProvider) {
+        return BraidGraphQL.reusable(
+                () -> dataLoaderRegistryFactory.apply(braidSchema),
+                createGraphQl(gqlSchemaTransformer, preparsedDocumentProvider),
+                braidRuntime.persistedQueries,
+                braidRuntime.linkTargetStats);
     }
 
-    private GraphQL createGraphQl(Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer) {
+    private GraphQL createGraphQl(Function<GraphQLSchema, GraphQLSchema> gqlSchemaTransformer,
+                                  PreparsedDocumentProvider preparsedDocumentProvider) {
         GraphQLSchema inputGraphQLSchema = braidSchema.getSchema();
         GraphQLSchema graphQLSchema = requireNonNull(gqlSchemaTransformer.apply(inputGraphQLSchema));
-        return newGraphQL(braidRuntime, graphQLSchema, dataLoaderInstrumentationFactory.get());
+        return newGraphQL(braidRuntime, graphQLSchema, preparsedDocumentProvider, dataLoaderInstrumentationFactory.get());
     }
 
     public static final class BraidBuilder {
@@ -108,6 +222,10 @@ public final class Braid {
 
         private List<Instrumentation> instrumentations = new LinkedList<>();
         private PreparsedDocumentProvider preparsedDocumentProvider = new NoOpPreparsedDocumentProvider();
+        private PersistedQueryStore persistedQueryStore = null;
+        private boolean deduplicateLinkTargets = false;
+        private boolean coalesceQueries = false;
+        private int schemaVariantCacheSize = 100;
         private List<SchemaTransformation> customSchemaTransformations = new ArrayList<>();
         private Supplier<Instrumentation> dataLoaderInstrumentationFactory = DataLoaderDispatcherInstrumentation::new;
 
@@ -272,15 +390,117 @@ public final class Braid {
             return this;
         }
 
+        /**
+         * Uses a {@link PreparsedDocumentCache} with the default bounds as the preparsed document provider, so that
+         * queries are only parsed and validated once.
+         *
+         * @return {@code this} builder
+         *
+         * @see #preparsedDocumentCache(int, long)
+         */
+        public BraidBuilder preparsedDocumentCache() {
+            return preparsedDocumentCache(PreparsedDocumentCache.DEFAULT_MAXIMUM_SIZE,
+                    PreparsedDocumentCache.DEFAULT_MAXIMUM_WEIGHT);
+        }
+
+        /**
+         * Uses a new {@link PreparsedDocumentCache} as the preparsed document provider, so that queries are only parsed
+         * and validated once. Its statistics are available from {@link Braid#getPreparsedDocumentCache()}.
+         *
+         * @param maximumSize   the maximum number of documents to cache
+         * @param maximumWeight the maximum total length of the queries of the cached documents
+         *
+         * @return {@code this} builder
+         *
+         * @see PreparsedDocumentCache
+         */
+        public BraidBuilder preparsedDocumentCache(int maximumSize, long maximumWeight) {
+            return preparsedDocumentProvider(new PreparsedDocumentCache(maximumSize, maximumWeight));
+        }
+
+        /**
+         * Enables automatic persisted queries using an {@link InMemoryPersistedQueryStore} with the default bounds.
+         * <p>This is best used together with a {@link #preparsedDocumentCache() document cache}, so that persisted
+         * queries are not parsed again.
+         *
+         * @return {@code this} builder
+         *
+         * @see #persistedQueryStore(PersistedQueryStore)
+         */
+        public BraidBuilder persistedQueries() {
+            return persistedQueryStore(new InMemoryPersistedQueryStore());
+        }
+
+        /**
+         * Enables automatic persisted queries, see {@link BraidGraphQL#execute(graphql.ExecutionInput, java.util.Map)}
+         * <p>This is <strong>optional</strong> and persisted queries are not supported if not defined
+         *
+         * @param persistedQueryStore the store of persisted queries
+         *
+         * @return {@code this} builder
+         */
+        public BraidBuilder persistedQueryStore(PersistedQueryStore persistedQueryStore) {
+            this.persistedQueryStore = requireNonNull(persistedQueryStore);
+            return this;
+        }
+
+        /**
+         * Fetches identical link targets only once per request. Link targets are identical when they query the same
+         * top-level field of the same schema source, with the same arguments and the same selection. The first batch
+         * needing a target adds it to its query, other fields needing it, in the same batch or in a later one, reuse
+         * its result instead of adding the field to their own query again.
+         * <p>Only queries are de-duplicated, not mutations, nor links with a custom transformation.
+         * <p>This is <strong>optional</strong> and link targets are fetched for each field linking to them if not
+         * enabled. Statistics are available from {@link Braid#getLinkTargetStats()} when enabled.
+         *
+         * @return {@code this} builder
+         */
+        public BraidBuilder deduplicateLinkTargets() {
+            this.deduplicateLinkTargets = true;
+            return this;
+        }
+
+        /**
+         * Coalesces the queries of all the batch loaders targeting the same schema source during a single dispatch of
+         * the data loaders into one query, e.g. the batches of different top-level fields or of links to different
+         * types of the same schema source. The result of the coalesced query is then split back per batch.
+         * <p>Only queries are coalesced, not mutations.
+         * <p>This is <strong>optional</strong> and each batch loader executes its own query if not enabled.
+         *
+         * @return {@code this} builder
+         */
+        public BraidBuilder coalesceQueries() {
+            this.coalesceQueries = true;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of schema variants to cache, see {@link Braid#getGraphQL(Object, Function)}
+         * <p>This is <strong>optional</strong> and up to 100 variants are cached if not defined
+         *
+         * @param schemaVariantCacheSize the maximum number of cached variants, {@code 0} to transform the schema for
+         *                               each call
+         *
+         * @return {@code this} builder
+         */
+        public BraidBuilder schemaVariantCacheSize(int schemaVariantCacheSize) {
+            checkState(schemaVariantCacheSize >= 0, "schemaVariantCacheSize must not be negative, was %s", schemaVariantCacheSize);
+            this.schemaVariantCacheSize = schemaVariantCacheSize;
+            return this;
+        }
+
         /**
          * A factory to create an instrumentation that handles DataLoader
-         * <p>This is <strong>optional</strong> and a {@link DataLoaderDispatcherInstrumentation} will be used if not defined
+         * <p>This is <strong>optional</strong> and a {@link DataLoaderDispatcherInstrumentation} will be used if not defined,
+         * dispatching level by level. A {@link BraidDataLoaderDispatcherInstrumentation} dispatches as soon as no more
+         * keys can be loaded instead, which suits nested links better.
          *
          * @param factory the factory to create an DataLoader instrumentation
          *
          * @return {@code this} builder
          *
          * @see DataLoaderDispatcherInstrumentation
+         * @see BraidDataLoaderDispatcherInstrumentation
          */
         public BraidBuilder dataLoaderInstrumentationFactory(Supplier<Instrumentation> factory) {
             this.dataLoaderInstrumentationFactory = requireNonNull(factory);
@@ -313,8 +533,9 @@ public final class Braid {
             return new Braid(
                     braidSchema,
                     braidRuntime,
-                    dataLoaderRegistryFactory(),
-                     dataLoaderInstrumentationFactory);
+                    dataLoaderRegistryFactory(coalesceQueries),
+                     dataLoaderInstrumentationFactory,
+                    schemaVariantCacheSize);
         }
 
         private BraidRuntime newBraidRuntime() {
@@ -324,6 +545,8 @@ public final class Braid {
                     Optional.ofNullable(mutationExecutionStrategy).orElse(executionStrategy),
                     Optional.ofNullable(subscriptionExecutionStrategy).orElse(executionStrategy),
                     preparsedDocumentProvider,
+                    new PersistedQueries(persistedQueryStore),
+                    deduplicateLinkTargets ? new LinkTargetStats() : null,
                     instrumentations);
         }
 
@@ -345,14 +568,20 @@ public final class Braid {
         }
     }
 
-    private static GraphQL newGraphQL(BraidRuntime runtime, GraphQLSchema schema, Instrumentation dataLoaderInstrumentation) {
+    private static GraphQL newGraphQL(BraidRuntime runtime, GraphQLSchema schema,
+                                      PreparsedDocumentProvider preparsedDocumentProvider,
+                                      Instrumentation dataLoaderInstrumentation) {
         requireNonNull(schema);
         final GraphQL.Builder graphQlBuilder = new GraphQL.Builder(schema)
                 .executionIdProvider(runtime.executionIdProvider)
                 .queryExecutionStrategy(runtime.queryExecutionStrategy)
-                .preparsedDocumentProvider(runtime.preparsedDocumentProvider)
+                .preparsedDocumentProvider(preparsedDocumentProvider)
                 .instrumentation(chainInstrumentationAndAddDataLoaderDispatcher(runtime.instrumentations, dataLoaderInstrumentation));
 
+        if (dataLoaderInstrumentation instanceof BraidDataLoaderDispatcherInstrumentation) {
+            // graphql-java would otherwise add its own dispatcher, dispatching level by level too
+            graphQlBuilder.doNotAddDefaultInstrumentations();
+        }
         runtime.getMutationExecutionStrategy().ifPresent(graphQlBuilder::mutationExecutionStrategy);
         runtime.getSubscriptionExecutionStrategy().ifPresent(graphQlBuilder::subscriptionExecutionStrategy);
 
@@ -366,17 +595,15 @@ public final class Braid {
                 dataLoaderInstrumentation));
     }
 
-    private static Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory() {
-        return schema -> {
-            DataLoaderRegistry registry = new DataLoaderRegistry();
-            schema.getBatchLoaders().forEach((key, loader) -> registry.register(key, newDataLoader(loader)));
-            return registry;
-        };
+    private static Function<BraidSchema, DataLoaderRegistry> dataLoaderRegistryFactory(boolean coalesceQueries) {
+        return schema -> new LazyDataLoaderRegistry(schema.getBatchLoaders(),
+                (key, loader) -> newDataLoader(loader, schema.getDataLoaderOptions().get(key)),
+                coalesceQueries ? new QueryCoalescer() : null);
     }
 
     @SuppressWarnings("unchecked")
-    private static DataLoader newDataLoader(BatchLoader loader) {
-        return new DataLoader(loader);
+    private static DataLoader newDataLoader(BatchLoader loader, DataLoaderOptions options) {
+        return new DataLoader(loader, options != null ? options : DataLoaderOptions.newOptions());
     }
 
     private static final class BraidRuntime {
@@ -385,6 +612,8 @@ public final class Braid {
         private final ExecutionStrategy mutationExecutionStrategy;
         private final ExecutionStrategy subscriptionExecutionStrategy;
         private final PreparsedDocumentProvider preparsedDocumentProvider;
+        private final PersistedQueries persistedQueries;
+        private final LinkTargetStats linkTargetStats; // nullable
 
         private List<Instrumentation> instrumentations = new LinkedList<>();
 
@@ -393,12 +622,16 @@ public final class Braid {
                              ExecutionStrategy mutationExecutionStrategy, // nullable
                              ExecutionStrategy subscriptionExecutionStrategy, // nullable
                              PreparsedDocumentProvider preparsedDocumentProvider,
+                             PersistedQueries persistedQueries,
+                             LinkTargetStats linkTargetStats, // nullable
                              List<Instrumentation> instrumentations) {
             this.executionIdProvider = requireNonNull(executionIdProvider);
             this.queryExecutionStrategy = requireNonNull(queryExecutionStrategy);
             this.mutationExecutionStrategy = mutationExecutionStrategy;
             this.subscriptionExecutionStrategy = subscriptionExecutionStrategy;
             this.preparsedDocumentProvider = requireNonNull(preparsedDocumentProvider);
+            this.persistedQueries = requireNonNull(persistedQueries);
+            this.linkTargetStats = linkTargetStats;
             this.instrumentations = requireNonNull(instrumentations);
         }
 
@@ -411,4 +644,18 @@ public final class Braid {
         }
     }
 
+    /**
+     * A cached schema variant, created by the first of the concurrent requests for it, the others waiting for it
+     */
+    private static final class SchemaVariant {
+        private BraidGraphQL graphQL;
+
+        private synchronized BraidGraphQL get(Supplier<BraidGraphQL> factory) {
+            if (graphQL == null) {
+                graphQL = requireNonNull(factory.get());
+            }
+            return graphQL;
+        }
+    }
+
 }
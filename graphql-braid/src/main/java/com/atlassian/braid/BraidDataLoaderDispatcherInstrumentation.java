@@ -0,0 +1,275 @@
+package com.atlassian.braid;
+
+import graphql.ExecutionResult;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A data loader dispatcher that doesn't dispatch level by level, as the
+ * {@link graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation} does, but as soon as no
+ * more keys can be loaded, i.e. as soon as the execution is waiting for data loaders only. Fields of different levels,
+ * such as links nested at different depths, are then batched together and fields completing at different times don't
+ * wait for the slowest field of their level.
+ * <p>The execution is tracked per query: the execution of objects, the fetching of fields and the completion of their
+ * values are the only places where keys are loaded, the data loaders having keys to load are dispatched once none of
+ * them is running anymore. A batching window delays the dispatch so that fields completing in a short interval, e.g.
+ * with asynchronous remote retrievers, are batched together. Those dispatches are scheduled by a scheduler and run by
+ * a dispatch executor, so that batch loaders don't hold the scheduler thread, see {@link #builder()}.
+ * <p>Use with {@link Braid.BraidBuilder#dataLoaderInstrumentationFactory(java.util.function.Supplier)}, it is
+ * thread safe and may be shared by all queries.
+ */
+public class BraidDataLoaderDispatcherInstrumentation extends SimpleInstrumentation {
+
+    private final Duration batchingWindow;
+    private final ScheduledExecutorService scheduler; // null when dispatching without batching window
+    private final Executor dispatchExecutor;
+
+    /**
+     * Creates a dispatcher without batching window, dispatching as soon as no more keys can be loaded
+     */
+    public BraidDataLoaderDispatcherInstrumentation() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param batchingWindow the delay before dispatching once no more keys can be loaded, with the default scheduler
+     *                       and dispatch executor, see {@link #builder()}
+     */
+    public BraidDataLoaderDispatcherInstrumentation(Duration batchingWindow) {
+        this(builder().batchingWindow(batchingWindow));
+    }
+
+    private BraidDataLoaderDispatcherInstrumentation(Builder builder) {
+        if (builder.batchingWindow.isNegative()) {
+            throw new IllegalArgumentException("The batching window can't be negative: " + builder.batchingWindow);
+        }
+        this.batchingWindow = builder.batchingWindow;
+        this.scheduler = batchingWindow.isZero()
+                ? null
+                : Optional.ofNullable(builder.scheduler).orElseGet(() -> DefaultScheduler.INSTANCE);
+        this.dispatchExecutor = builder.dispatchExecutor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new DispatcherState(parameters.getExecutionInput().getDataLoaderRegistry());
+    }
+
+    @Override
+    public ExecutionStrategyInstrumentationContext beginExecutionStrategy(InstrumentationExecutionStrategyParameters parameters) {
+        final DispatcherState state = parameters.getInstrumentationState();
+        state.begin();
+        return new ExecutionStrategyInstrumentationContext() {
+            @Override
+            public void onDispatched(CompletableFuture<ExecutionResult> result) {
+                end(state);
+            }
+
+            @Override
+            public void onCompleted(ExecutionResult result, Throwable t) {
+            }
+
+            @Override
+            public void onFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList) {
+            }
+        };
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+        return begin(parameters.getInstrumentationState());
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginFieldComplete(InstrumentationFieldCompleteParameters parameters) {
+        return begin(parameters.getInstrumentationState());
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginFieldListComplete(InstrumentationFieldCompleteParameters parameters) {
+        return begin(parameters.getInstrumentationState());
+    }
+
+    private <T> InstrumentationContext<T> begin(DispatcherState state) {
+        state.begin();
+        return new InstrumentationContext<T>() {
+            @Override
+            public void onDispatched(CompletableFuture<T> result) {
+                end(state);
+            }
+
+            @Override
+            public void onCompleted(T result, Throwable t) {
+            }
+        };
+    }
+
+    private void end(DispatcherState state) {
+        if (state.end()) {
+            if (scheduler == null) {
+                state.dispatch();
+            } else if (state.schedule()) {
+                scheduler.schedule(() -> dispatchExecutor.execute(state::dispatchScheduled),
+                        batchingWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class DispatcherState implements InstrumentationState {
+        private final DataLoaderRegistry dataLoaderRegistry;
+
+        // the number of executions of objects, fetches and completions of fields currently running
+        private int running = 0;
+        private boolean scheduled = false;
+        private boolean dispatching = false;
+        private boolean dispatchAgain = false;
+
+        private DispatcherState(DataLoaderRegistry dataLoaderRegistry) {
+            this.dataLoaderRegistry = requireNonNull(dataLoaderRegistry);
+        }
+
+        private synchronized void begin() {
+            running++;
+        }
+
+        /**
+         * @return whether nothing is running anymore, i.e. no more keys can be loaded until data loaders are dispatched
+         */
+        private synchronized boolean end() {
+            return --running == 0;
+        }
+
+        private synchronized boolean schedule() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        private void dispatchScheduled() {
+            synchronized (this) {
+                scheduled = false;
+            }
+            dispatch();
+        }
+
+        /**
+         * Dispatches the data loaders until nothing is left to load. Loads happening while dispatching, as batch loaders
+         * complete synchronously, are dispatched by the same loop rather than by nested dispatches.
+         */
+        private void dispatch() {
+            synchronized (this) {
+                if (running > 0) {
+                    return;
+                }
+                if (dispatching) {
+                    dispatchAgain = true;
+                    return;
+                }
+                dispatching = true;
+            }
+            boolean again = true;
+            try {
+                while (again) {
+                    if (hasPendingLoads()) {
+                        dataLoaderRegistry.dispatchAll();
+                    }
+                    synchronized (this) {
+                        again = dispatchAgain && running == 0;
+                        dispatchAgain = false;
+                        if (!again) {
+                            dispatching = false;
+                        }
+                    }
+                }
+            } finally {
+                if (again) {
+                    synchronized (this) {
+                        dispatching = false;
+                    }
+                }
+            }
+        }
+
+        private boolean hasPendingLoads() {
+            for (DataLoader<?, ?> dataLoader : dataLoaderRegistry.getDataLoaders()) {
+                if (dataLoader.dispatchDepth() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static final class Builder {
+        private Duration batchingWindow = Duration.ZERO;
+        private ScheduledExecutorService scheduler; // the default scheduler if not set
+        private Executor dispatchExecutor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        /**
+         * @param batchingWindow the delay before dispatching once no more keys can be loaded, none by default
+         */
+        public Builder batchingWindow(Duration batchingWindow) {
+            this.batchingWindow = requireNonNull(batchingWindow);
+            return this;
+        }
+
+        /**
+         * @param scheduler the scheduler of the dispatches after the batching window, a shared daemon thread by default
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * @param dispatchExecutor runs the dispatches after the batching window, and so the batch loaders, the common
+         *                         fork-join pool by default
+         */
+        public Builder dispatchExecutor(Executor dispatchExecutor) {
+            this.dispatchExecutor = requireNonNull(dispatchExecutor);
+            return this;
+        }
+
+        public BraidDataLoaderDispatcherInstrumentation build() {
+            return new BraidDataLoaderDispatcherInstrumentation(this);
+        }
+    }
+
+    private static final class DefaultScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "braid-data-loader-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
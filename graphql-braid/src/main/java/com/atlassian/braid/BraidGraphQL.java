@@ -1,27 +1,65 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.PersistedQueries.PersistedQueryException;
+import com.atlassian.braid.source.QueryCoalescer;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
 import org.dataloader.DataLoaderRegistry;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
  * BraidGraphQL is the Braid execution engine. It is created by calling {@link Braid#newGraphQL()} or one of the
- * overloaded methods.
+ * overloaded methods, or shared by calling {@link Braid#getGraphQL()}.
  */
 public class BraidGraphQL {
-    private final DataLoaderRegistry dlr;
+    private final Supplier<DataLoaderRegistry> dataLoaderRegistryFactory;
     private final Supplier<GraphQL> graphQLFactory;
+    private final PersistedQueries persistedQueries;
 
-    BraidGraphQL(Supplier<DataLoaderRegistry> dlr, Supplier<GraphQL> graphQLFactory) {
-        this.dlr = requireNonNull(dlr.get());
+    @Nullable
+    private final LinkTargetStats linkTargetStats;
+
+    BraidGraphQL(Supplier<DataLoaderRegistry> dlr, Supplier<GraphQL> graphQLFactory, PersistedQueries persistedQueries,
+                 @Nullable LinkTargetStats linkTargetStats) {
+        final DataLoaderRegistry registry = requireNonNull(dlr.get());
+        this.dataLoaderRegistryFactory = () -> registry;
         this.graphQLFactory = requireNonNull(graphQLFactory);
+        this.persistedQueries = requireNonNull(persistedQueries);
+        this.linkTargetStats = linkTargetStats;
+    }
+
+    private BraidGraphQL(Supplier<DataLoaderRegistry> dataLoaderRegistryFactory, GraphQL graphQL,
+                         PersistedQueries persistedQueries, @Nullable LinkTargetStats linkTargetStats) {
+        requireNonNull(graphQL);
+        this.dataLoaderRegistryFactory = requireNonNull(dataLoaderRegistryFactory);
+        this.graphQLFactory = () -> graphQL;
+        this.persistedQueries = requireNonNull(persistedQueries);
+        this.linkTargetStats = linkTargetStats;
+    }
+
+    /**
+     * Creates a reusable instance, the {@link GraphQL} instance is shared by all executions and a new
+     * {@link DataLoaderRegistry} is created for each execution.
+     *
+     * @param dataLoaderRegistryFactory the factory called once per execution
+     * @param graphQL                   the pre-built GraphQL instance
+     * @param persistedQueries          the persisted queries support
+     * @param linkTargetStats           the statistics of link targets, {@code null} if they aren't de-duplicated
+     * @return a thread safe {@link BraidGraphQL}
+     */
+    static BraidGraphQL reusable(Supplier<DataLoaderRegistry> dataLoaderRegistryFactory, GraphQL graphQL,
+                                 PersistedQueries persistedQueries, @Nullable LinkTargetStats linkTargetStats) {
+        return new BraidGraphQL(dataLoaderRegistryFactory, graphQL, persistedQueries, linkTargetStats);
     }
 
     /**
@@ -35,11 +73,41 @@ public class BraidGraphQL {
     public CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput) {
         final GraphQL graphQL = this.graphQLFactory.get();
 
+        final DataLoaderRegistry dataLoaderRegistry = requireNonNull(dataLoaderRegistryFactory.get());
+        final QueryCoalescer queryCoalescer = dataLoaderRegistry instanceof LazyDataLoaderRegistry
+                ? ((LazyDataLoaderRegistry) dataLoaderRegistry).getQueryCoalescer().orElse(null)
+                : null;
+
         final ExecutionInput newInput = executionInput
                 .transform(builder -> builder
-                        .dataLoaderRegistry(dlr)
-                        .context(new MutableBraidContext<>(executionInput.getContext())));
+                        .dataLoaderRegistry(dataLoaderRegistry)
+                        .context(new MutableBraidContext<>(null, executionInput.getContext(),
+                                linkTargetStats != null ? new LinkTargets(linkTargetStats) : null,
+                                queryCoalescer)));
 
         return graphQL.executeAsync(newInput);
     }
-}
\ No newline at end of file
+
+    /**
+     * Executes a GraphQL query asynchronously from the {@link ExecutionInput} and the request extensions, supporting
+     * <a href="https://github.com/apollographql/apollo-link-persisted-queries">automatic persisted queries</a>.
+     * <p>When the extensions contain a {@code persistedQuery} with a {@code sha256Hash}, the query is looked up in
+     * the {@link Braid.BraidBuilder#persistedQueryStore(com.atlassian.braid.cache.PersistedQueryStore) persisted
+     * query store} if the input has no query, or registered in the store otherwise.
+     *
+     * @param executionInput {@link ExecutionInput}, its query may be empty for persisted queries
+     * @param extensions     the extensions of the request, may be {@code null}
+     *
+     * @return a promise to an {@link ExecutionResult} which can include errors, such as {@code PersistedQueryNotFound}
+     */
+    @Nonnull
+    public CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput, Map<String, Object> extensions) {
+        final ExecutionInput resolvedInput;
+        try {
+            resolvedInput = persistedQueries.resolve(executionInput, extensions);
+        } catch (PersistedQueryException e) {
+            return completedFuture(new ExecutionResultImpl(e.toGraphQLError()));
+        }
+        return execute(resolvedInput);
+    }
+}
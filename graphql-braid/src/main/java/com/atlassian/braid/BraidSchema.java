@@ -21,6 +21,7 @@ import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import org.dataloader.BatchLoader;
+import org.dataloader.DataLoaderOptions;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -56,6 +57,7 @@ final class BraidSchema {
 
     private final GraphQLSchema schema;
     private final Map<String, BatchLoader> batchLoaders;
+    private final Map<String, DataLoaderOptions> dataLoaderOptions;
 
     // order matters because TopLevelSchemaTransformation overwrites dataFetchers for the query fields which
     // have links
@@ -65,9 +67,11 @@ final class BraidSchema {
             new ExtensionSchemaTransformation()
     );
 
-    private BraidSchema(GraphQLSchema schema, Map<String, BatchLoader> batchLoaders) {
+    private BraidSchema(GraphQLSchema schema, Map<String, BatchLoader> batchLoaders,
+                        Map<String, DataLoaderOptions> dataLoaderOptions) {
         this.schema = requireNonNull(schema);
         this.batchLoaders = requireNonNull(batchLoaders);
+        this.dataLoaderOptions = requireNonNull(dataLoaderOptions);
     }
 
     static BraidSchema from(TypeDefinitionRegistry typeDefinitionRegistry,
@@ -111,11 +115,15 @@ final class BraidSchema {
                 findMutationType(typeDefinitionRegistry)
                         .orElseGet(TypeUtils::createDefaultMutationTypeDefinition);
 
+        final BraidingContext braidingContext = new BraidingContext(dataSourceTypes, typeDefinitionRegistry,
+                runtimeWiringBuilder, queryObjectTypeDefinition, mutationObjectTypeDefinition, batchLoaderEnvironment);
+
         // Collect the BatchLoaders. As a side effect, TypeDefinitions and FieldDefinitions are added to
-        // typeDefinitionRegistry, and DataFetchers are added to runtimeWiringBuilder.
+        // typeDefinitionRegistry, DataFetchers are added to runtimeWiringBuilder and DataLoaderOptions are
+        // registered in braidingContext.
         final Map<String, BatchLoader> batchLoaders =
-                addDataSources(dataSourceTypes, typeDefinitionRegistry, runtimeWiringBuilder, queryObjectTypeDefinition,
-                        mutationObjectTypeDefinition, customSchemaTransformations, batchLoaderEnvironment);
+                addDataSources(dataSourceTypes, typeDefinitionRegistry, runtimeWiringBuilder, braidingContext,
+                        customSchemaTransformations);
 
         if (!mutationObjectTypeDefinition.getFieldDefinitions().isEmpty()) {
             addMutationTypeToSchema(typeDefinitionRegistry, mutationObjectTypeDefinition);
@@ -125,7 +133,7 @@ final class BraidSchema {
         final GraphQLSchema graphQLSchema = new SchemaGenerator()
                 .makeExecutableSchema(typeDefinitionRegistry, runtimeWiringBuilder.build());
 
-        return new BraidSchema(graphQLSchema, batchLoaders);
+        return new BraidSchema(graphQLSchema, batchLoaders, braidingContext.getDataLoaderOptions());
     }
 
     private static void findSchemaDefinitionOrCreateOne(TypeDefinitionRegistry typeDefinitionRegistry) {
@@ -155,15 +163,10 @@ final class BraidSchema {
     private static Map<String, BatchLoader> addDataSources(Map<SchemaNamespace, BraidSchemaSource> dataSources,
                                                            TypeDefinitionRegistry registry,
                                                            RuntimeWiring.Builder runtimeWiringBuilder,
-                                                           ObjectTypeDefinition queryObjectTypeDefinition,
-                                                           ObjectTypeDefinition mutationObjectTypeDefinition,
-                                                           List<SchemaTransformation> customSchemaTransformations,
-                                                           BatchLoaderEnvironment batchLoaderEnvironment) {
+                                                           BraidingContext braidingContext,
+                                                           List<SchemaTransformation> customSchemaTransformations) {
         addAllNonOperationTypes(dataSources, registry, runtimeWiringBuilder);
 
-        BraidingContext braidingContext = new BraidingContext(dataSources, registry, runtimeWiringBuilder,
-                queryObjectTypeDefinition, mutationObjectTypeDefinition, batchLoaderEnvironment);
-
         return Stream.concat(schemaTransformations.stream(), customSchemaTransformations.stream())
                 .map(schemaTransformation -> schemaTransformation.transform(braidingContext))
                 .map(Map::entrySet)
@@ -175,6 +178,10 @@ final class BraidSchema {
         return Collections.unmodifiableMap(batchLoaders);
     }
 
+    Map<String, DataLoaderOptions> getDataLoaderOptions() {
+        return dataLoaderOptions;
+    }
+
     public GraphQLSchema getSchema() {
         return schema;
     }
@@ -252,7 +259,7 @@ final class BraidSchema {
 
     private static Map<SchemaNamespace, BraidSchemaSource> toBraidSchemaSourceMap(List<SchemaSource> schemaSources) {
         return schemaSources.stream()
-                .map(BraidSchemaSource::new)
+                .map(BraidSchemaSource::of)
                 .collect(groupingBy(BraidSchemaSource::getNamespace, singleton()));
     }
 }
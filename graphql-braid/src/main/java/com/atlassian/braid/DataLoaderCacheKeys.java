@@ -0,0 +1,83 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.java.util.BraidObjects;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.CacheKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.atlassian.braid.java.util.BraidObjects.cast;
+
+/**
+ * Value based {@link CacheKey}s for the data loaders of links, extensions and top-level fields, to be used with
+ * {@link org.dataloader.DataLoaderOptions#setCacheKeyFunction(CacheKey)}.
+ * <p>By default the key of a data loader is the {@link DataFetchingEnvironment} itself, so nothing is de-duplicated
+ * within a request. With these keys, environments resolving to the same values are loaded once per request and share
+ * the same result, including its errors.
+ */
+public final class DataLoaderCacheKeys {
+
+    private DataLoaderCacheKeys() {
+    }
+
+    /**
+     * Keys environments by their field in the query document, their arguments and the values of the given fields of
+     * their source object, typically the source fields of the {@link LinkArgument}s of a link.
+     * <p>Environments whose source is not yet resolved are not de-duplicated.
+     *
+     * @param sourceFields the names of the source object fields the loaded value depends on
+     * @return a cache key function
+     */
+    public static CacheKey<DataFetchingEnvironment> fieldArgumentsAndSourceFields(String... sourceFields) {
+        final List<String> fields = Arrays.asList(sourceFields);
+        return env -> {
+            final Object source = resolvedSource(env.getSource());
+            if (fields.isEmpty() || source instanceof Map) {
+                final List<Object> key = new ArrayList<>(fields.size() + 2);
+                // the field node is shared by all the environments of a selection, it is compared by identity
+                key.add(env.getField());
+                key.add(env.getArguments());
+                fields.forEach(field -> key.add(BraidObjects.<Map<String, Object>>cast(source).get(field)));
+                return key;
+            }
+            return env;
+        };
+    }
+
+    /**
+     * Keys environments by the values of the given fields of their source object only, typically the
+     * {@link Extension#getOn() field} of an extension, whose environments all select the same fields.
+     * <p>Environments whose source is not yet resolved are not de-duplicated.
+     *
+     * @param sourceFields the names of the source object fields the loaded value depends on
+     * @return a cache key function
+     */
+    public static CacheKey<DataFetchingEnvironment> sourceFields(String... sourceFields) {
+        final List<String> fields = Arrays.asList(sourceFields);
+        return env -> {
+            final Object source = resolvedSource(env.getSource());
+            if (source instanceof Map) {
+                final Map<String, Object> values = cast(source);
+                final List<Object> key = new ArrayList<>(fields.size());
+                fields.forEach(field -> key.add(values.get(field)));
+                return key;
+            }
+            return env;
+        };
+    }
+
+    private static Object resolvedSource(Object source) {
+        if (source instanceof CompletableFuture) {
+            final CompletableFuture<Object> future = cast(source);
+            return future.isDone() && !future.isCompletedExceptionally() ? resolvedSource(future.join()) : null;
+        } else if (source instanceof DataFetcherResult) {
+            return ((DataFetcherResult) source).getData();
+        }
+        return source;
+    }
+}
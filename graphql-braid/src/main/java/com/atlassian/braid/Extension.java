@@ -1,5 +1,9 @@
 package com.atlassian.braid;
 
+import org.dataloader.DataLoaderOptions;
+
+import java.util.Optional;
+
 public final class Extension {
     /**
      * The type being extended
@@ -17,10 +21,20 @@ public final class Extension {
      */
     private final By by;
 
+    /**
+     * The options of the data loader fetching the extension, {@code null} for the default ones
+     */
+    private final DataLoaderOptions dataLoaderOptions;
+
     public Extension(String type, String on, By by) {
+        this(type, on, by, null);
+    }
+
+    public Extension(String type, String on, By by, DataLoaderOptions dataLoaderOptions) {
         this.type = type;
         this.on = on;
         this.by = by;
+        this.dataLoaderOptions = dataLoaderOptions;
     }
 
     public String getType() {
@@ -35,6 +49,10 @@ public final class Extension {
         return on;
     }
 
+    public Optional<DataLoaderOptions> getDataLoaderOptions() {
+        return Optional.ofNullable(dataLoaderOptions);
+    }
+
     public static final class By {
         /**
          * the namespace of the schema where to find the extension type
@@ -1,6 +1,11 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.LinkTargets.Target;
+import com.atlassian.braid.source.QueryCoalescer;
 import com.atlassian.braid.source.QueryExecutorSchemaSource;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
 import graphql.language.Document;
 import graphql.language.Field;
 import graphql.language.OperationDefinition;
@@ -10,7 +15,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static graphql.language.OperationDefinition.Operation.QUERY;
+import static java.util.Collections.singletonList;
 
 
 /**
@@ -26,9 +39,35 @@ public class FieldTransformationContext {
     private final QueryExecutorSchemaSource schemaSource;
     private final OperationDefinition queryOp;
     private final List<Field> missingFields = new ArrayList<>();
+    private final Map<Object, Object> fieldGroups = new HashMap<>();
+    private final List<UnaryOperator<DataFetcherResult<Map<FieldKey, Object>>>> resultTransformers = new ArrayList<>();
+
+    // null when link targets aren't de-duplicated
+    private final LinkTargets linkTargets;
+    private final List<Target> fetchedLinkTargets = new ArrayList<>();
+    private final Map<FieldKey, Target> reusedLinkTargets = new HashMap<>();
+
+    // null when queries aren't coalesced
+    private final QueryCoalescer queryCoalescer;
 
     public FieldTransformationContext(QueryExecutorSchemaSource schemaSource, OperationDefinition queryOp) {
+        this(schemaSource, queryOp, null);
+    }
+
+    /**
+     * @param schemaSource the schema source the batch is for
+     * @param queryOp      the operation of the batch
+     * @param braidContext the context of the request, used to de-duplicate link targets and coalesce queries within
+     *                     the request
+     */
+    public FieldTransformationContext(QueryExecutorSchemaSource schemaSource, OperationDefinition queryOp,
+                                      BraidContext<?> braidContext) {
         this.schemaSource = schemaSource;
+        final MutableBraidContext<?> mutableBraidContext = braidContext instanceof MutableBraidContext
+                ? (MutableBraidContext<?>) braidContext
+                : null;
+        this.linkTargets = mutableBraidContext != null ? mutableBraidContext.getLinkTargets() : null;
+        this.queryCoalescer = mutableBraidContext != null ? mutableBraidContext.getQueryCoalescer() : null;
         this.queryOp = queryOp;
         document = Document.newDocument().build();
 
@@ -37,8 +76,11 @@ public class FieldTransformationContext {
         variables = new HashMap<>();
         clonedFields = new HashMap<>();
 
-        // start at 99 so that we can find variables already counter-namespaced via startsWith()
-        counter = new AtomicInteger(99);
+        // start at 99 so that we can find variables already counter-namespaced via startsWith(), shared by the batches
+        // of the request when their queries may be coalesced
+        counter = mutableBraidContext != null && mutableBraidContext.getCounter() != null
+                ? mutableBraidContext.getCounter()
+                : new AtomicInteger(99);
 
         // this is to gather data we don't need to fetch through batch loaders, e.g. when on the the variable used in
         // the query is fetched
@@ -65,6 +107,14 @@ public class FieldTransformationContext {
         return counter;
     }
 
+    /**
+     * @return the coalescer of the queries of the request, if queries are coalesced, see
+     * {@link Braid.BraidBuilder#coalesceQueries()}
+     */
+    public Optional<QueryCoalescer> getQueryCoalescer() {
+        return Optional.ofNullable(queryCoalescer);
+    }
+
     public QueryExecutorSchemaSource getSchemaSource() {
         return schemaSource;
     }
@@ -81,4 +131,106 @@ public class FieldTransformationContext {
         this.missingFields.clear();
         this.missingFields.addAll(missingFields);
     }
+
+    /**
+     * Gets or creates a group of fields of the batch, such as the fields sharing a single query field
+     *
+     * @param key     the key of the group
+     * @param factory creates the group the first time it is needed in the batch
+     * @param <T>     the type of the group
+     * @return the group
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getFieldGroup(Object key, Function<Object, T> factory) {
+        return (T) fieldGroups.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * Adds a transformer of the result of the batch query, applied before the result is split per field
+     *
+     * @param resultTransformer the transformer
+     */
+    public synchronized void addResultTransformer(UnaryOperator<DataFetcherResult<Map<FieldKey, Object>>> resultTransformer) {
+        resultTransformers.add(resultTransformer);
+    }
+
+    /**
+     * @param result the result of the batch query
+     * @return the result transformed by the {@link #addResultTransformer(UnaryOperator) result transformers}
+     */
+    public synchronized DataFetcherResult<Map<FieldKey, Object>> transformResult(DataFetcherResult<Map<FieldKey, Object>> result) {
+        DataFetcherResult<Map<FieldKey, Object>> transformed = result;
+        for (UnaryOperator<DataFetcherResult<Map<FieldKey, Object>>> resultTransformer : resultTransformers) {
+            transformed = resultTransformer.apply(transformed);
+        }
+        return transformed;
+    }
+
+    /**
+     * Looks up a link target already fetched within the request, when link target de-duplication is enabled.
+     *
+     * @param targetKey the key of the target, see {@link LinkTargets}
+     * @param fieldKey  the aliased field that would fetch the target
+     * @return the field to read the target from, if the target is already fetched by another field, in which case
+     * the field must not be added to the query
+     */
+    public Optional<FieldKey> deduplicateLinkTarget(Supplier<Object> targetKey, FieldKey fieldKey) {
+        if (linkTargets == null || queryOp.getOperation() != QUERY) {
+            return Optional.empty();
+        }
+        final Target target = linkTargets.claim(targetKey.get(), this, fieldKey);
+        if (target.isFetchedBy(this, fieldKey)) {
+            fetchedLinkTargets.add(target);
+            return Optional.empty();
+        } else if (target.isOwnedBy(this)) {
+            return Optional.of(target.getFieldKey());
+        } else {
+            reusedLinkTargets.put(fieldKey, target);
+            return Optional.of(fieldKey);
+        }
+    }
+
+    /**
+     * Completes the link targets fetched by this batch, so that other batches reusing them can complete
+     *
+     * @param result the result of the batch, {@code null} if it failed
+     * @param error  the error of the batch, {@code null} if it succeeded
+     */
+    public void completeLinkTargets(DataFetcherResult<Map<FieldKey, Object>> result, Throwable error) {
+        for (Target target : fetchedLinkTargets) {
+            if (error != null) {
+                target.fail(error);
+            } else {
+                target.complete(result);
+            }
+        }
+    }
+
+    /**
+     * @param result the result of the batch
+     * @return the result of the batch with the data and errors of the link targets it reused from other batches
+     */
+    public CompletableFuture<DataFetcherResult<Map<FieldKey, Object>>> withReusedLinkTargets(
+            DataFetcherResult<Map<FieldKey, Object>> result) {
+        if (reusedLinkTargets.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        final Map<FieldKey, Object> data = new HashMap<>(result.getData());
+        final List<GraphQLError> errors = new ArrayList<>(result.getErrors());
+        final CompletableFuture<?>[] futures = reusedLinkTargets.entrySet().stream()
+                .map(e -> e.getValue().getResult()
+                        .exceptionally(error -> new DataFetcherResult<>(null, singletonList(GraphqlErrorBuilder.newError()
+                                .message(String.valueOf(error.getMessage()))
+                                .path(singletonList(e.getKey().getValue()))
+                                .build())))
+                        .thenAccept(targetResult -> {
+                            synchronized (data) {
+                                data.put(e.getKey(), targetResult.getData());
+                                errors.addAll(LinkTargets.realiasErrors(targetResult.getErrors(), e.getKey()));
+                            }
+                        }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures)
+                .thenApply(__ -> new DataFetcherResult<>(data, errors));
+    }
 }
@@ -0,0 +1,85 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.source.QueryCoalescer;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link DataLoaderRegistry} that only creates the {@link DataLoader} for a known batch loader the first time it
+ * is asked for. As {@link #dispatchAll()} only dispatches registered loaders, loaders never used by a query are
+ * neither created nor dispatched.
+ * <p>When queries are coalesced, see {@link Braid.BraidBuilder#coalesceQueries()}, the registry is created per request
+ * and {@link #dispatchAll()} runs through its {@link QueryCoalescer}.
+ */
+final class LazyDataLoaderRegistry extends DataLoaderRegistry {
+    private final Map<String, BatchLoader> batchLoaders;
+    private final BiFunction<String, BatchLoader, DataLoader> dataLoaderFactory;
+
+    @Nullable
+    private final QueryCoalescer queryCoalescer;
+
+    LazyDataLoaderRegistry(Map<String, BatchLoader> batchLoaders,
+                           BiFunction<String, BatchLoader, DataLoader> dataLoaderFactory) {
+        this(batchLoaders, dataLoaderFactory, null);
+    }
+
+    LazyDataLoaderRegistry(Map<String, BatchLoader> batchLoaders,
+                           BiFunction<String, BatchLoader, DataLoader> dataLoaderFactory,
+                           @Nullable QueryCoalescer queryCoalescer) {
+        this.batchLoaders = requireNonNull(batchLoaders);
+        this.dataLoaderFactory = requireNonNull(dataLoaderFactory);
+        this.queryCoalescer = queryCoalescer;
+    }
+
+    @Override
+    public <K, V> DataLoader<K, V> getDataLoader(String key) {
+        final BatchLoader batchLoader = batchLoaders.get(key);
+        if (batchLoader == null) {
+            return super.getDataLoader(key);
+        }
+        return computeIfAbsent(key, k -> dataLoaderFactory.apply(k, batchLoader));
+    }
+
+    @Override
+    public void dispatchAll() {
+        if (queryCoalescer == null) {
+            super.dispatchAll();
+        } else {
+            queryCoalescer.dispatch(super::dispatchAll);
+        }
+    }
+
+    /**
+     * @return the keys of both the created and the not yet created data loaders
+     */
+    @Override
+    public Set<String> getKeys() {
+        final Set<String> keys = new HashSet<>(batchLoaders.keySet());
+        keys.addAll(super.getKeys());
+        return keys;
+    }
+
+    /**
+     * @return the number of data loaders actually created so far
+     */
+    int getCreatedCount() {
+        return getDataLoaders().size();
+    }
+
+    /**
+     * @return the coalescer of the queries of the request, if queries are coalesced
+     */
+    Optional<QueryCoalescer> getQueryCoalescer() {
+        return Optional.ofNullable(queryCoalescer);
+    }
+}
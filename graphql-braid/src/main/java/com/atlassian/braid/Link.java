@@ -2,6 +2,7 @@ package com.atlassian.braid;
 
 import graphql.execution.DataFetcherResult;
 import graphql.language.Field;
+import org.dataloader.DataLoaderOptions;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -37,6 +38,8 @@ public final class Link {
     private final ArgumentValueProvider argumentValueProvider;
 
     private final boolean noSchemaChangeNeeded;
+    private final DataLoaderOptions dataLoaderOptions;
+    private final boolean listArgument;
 
     public interface CustomTransformation {
         void createQuery(Field field, Object targetId);
@@ -57,6 +60,41 @@ public final class Link {
                 List<LinkArgument> linkArguments,
                 CustomTransformation customTransformation,
                 boolean isSimpleLink, ArgumentValueProvider argumentValueProvider) {
+        this(sourceNamespace, sourceType, targetNamespace, targetType, targetNonNullable, newFieldName,
+                topLevelQueryField, noSchemaChangeNeeded, linkArguments, customTransformation, isSimpleLink,
+                argumentValueProvider, null);
+    }
+
+    public Link(SchemaNamespace sourceNamespace,
+                String sourceType,
+                SchemaNamespace targetNamespace,
+                String targetType,
+                boolean targetNonNullable,
+                String newFieldName,
+                String topLevelQueryField,
+                boolean noSchemaChangeNeeded,
+                List<LinkArgument> linkArguments,
+                CustomTransformation customTransformation,
+                boolean isSimpleLink, ArgumentValueProvider argumentValueProvider,
+                DataLoaderOptions dataLoaderOptions) {
+        this(sourceNamespace, sourceType, targetNamespace, targetType, targetNonNullable, newFieldName,
+                topLevelQueryField, noSchemaChangeNeeded, linkArguments, customTransformation, isSimpleLink,
+                argumentValueProvider, dataLoaderOptions, false);
+    }
+
+    public Link(SchemaNamespace sourceNamespace,
+                String sourceType,
+                SchemaNamespace targetNamespace,
+                String targetType,
+                boolean targetNonNullable,
+                String newFieldName,
+                String topLevelQueryField,
+                boolean noSchemaChangeNeeded,
+                List<LinkArgument> linkArguments,
+                CustomTransformation customTransformation,
+                boolean isSimpleLink, ArgumentValueProvider argumentValueProvider,
+                DataLoaderOptions dataLoaderOptions,
+                boolean listArgument) {
         this.sourceNamespace = requireNonNull(sourceNamespace);
         this.sourceType = requireNonNull(sourceType);
         this.targetNamespace = requireNonNull(targetNamespace);
@@ -69,6 +107,8 @@ public final class Link {
         this.simpleLink = isSimpleLink;
         this.customTransformation = customTransformation;
         this.argumentValueProvider = argumentValueProvider == null ? DefaultArgumentValueProvider.INSTANCE : argumentValueProvider;
+        this.dataLoaderOptions = dataLoaderOptions;
+        this.listArgument = listArgument;
         queryFieldsMatchingArguments = this.linkArguments.stream()
                 .map(LinkArgument::getTargetFieldMatchingArgument)
                 .collect(Collectors.toSet());
@@ -85,6 +125,17 @@ public final class Link {
                 throw new IllegalArgumentException("Simple link requires argument sourced to be of type OBJECT FIELD");
             }
         }
+        if (this.listArgument) {
+            if (this.linkArguments.size() != 1) {
+                throw new IllegalArgumentException("List argument link requires exactly one LinkArgument.");
+            }
+            if (this.linkArguments.get(0).getTargetFieldMatchingArgument() == null) {
+                throw new IllegalArgumentException("List argument link requires the target field matching its argument.");
+            }
+            if (this.customTransformation != null) {
+                throw new IllegalArgumentException("List argument link can't have a custom transformation.");
+            }
+        }
     }
 
 
@@ -203,6 +254,25 @@ public final class Link {
         return customTransformation;
     }
 
+    /**
+     * @return the options of the data loader fetching this link, if not the default ones
+     */
+    public Optional<DataLoaderOptions> getDataLoaderOptions() {
+        return Optional.ofNullable(dataLoaderOptions);
+    }
+
+    /**
+     * List argument links query a 'by ids' {@link #getTopLevelQueryField() top level field}, whose single argument is
+     * a list. All the links of a batch then share a single query field, with the list of all their argument values,
+     * and each link gets the item of the result whose {@link LinkArgument#getTargetFieldMatchingArgument() matching
+     * field} is its argument value.
+     *
+     * @return true if the argument of the link is sent as a list for all the links of a batch
+     */
+    public boolean isListArgument() {
+        return listArgument;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -239,6 +309,7 @@ public final class Link {
                 ", topLevelQueryField='" + topLevelQueryField + '\'' +
                 ", linkArguments=" + linkArguments +
                 ", simpleLink=" + simpleLink +
+                ", listArgument=" + listArgument +
                 '}';
     }
 
@@ -287,6 +358,8 @@ public final class Link {
 
         protected boolean noSchemeChangeNeeded;
         protected CustomTransformation customTransformation;
+        protected DataLoaderOptions dataLoaderOptions;
+        protected boolean listArgument;
 
         public T sourceNamespace(SchemaNamespace sourceNamespace) {
             this.sourceNamespace = sourceNamespace;
@@ -339,6 +412,24 @@ public final class Link {
             return (T) this;
         }
 
+        /**
+         * @param dataLoaderOptions the options of the data loader fetching the link, such as the maximum batch size
+         *                          or a cache key function, see {@link DataLoaderCacheKeys}
+         */
+        public T dataLoaderOptions(DataLoaderOptions dataLoaderOptions) {
+            this.dataLoaderOptions = dataLoaderOptions;
+            return (T) this;
+        }
+
+        /**
+         * @param listArgument whether the argument of the link is sent as a list for all the links of a batch, see
+         *                     {@link Link#isListArgument()}
+         */
+        public T listArgument(boolean listArgument) {
+            this.listArgument = listArgument;
+            return (T) this;
+        }
+
         public abstract Link build();
     }
 
@@ -459,7 +550,9 @@ public final class Link {
                     Collections.singletonList(linkArgument),
                     customTransformation,
                     true,
-                    DefaultArgumentValueProvider.INSTANCE);
+                    DefaultArgumentValueProvider.INSTANCE,
+                    dataLoaderOptions,
+                    listArgument);
 
         }
     }
@@ -508,7 +601,9 @@ public final class Link {
                     arguments,
                     customTransformation,
                     false,
-                    argumentValueProvider
+                    argumentValueProvider,
+                    dataLoaderOptions,
+                    listArgument
             );
         }
     }
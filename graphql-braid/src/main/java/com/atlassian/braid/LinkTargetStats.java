@@ -0,0 +1,43 @@
+package com.atlassian.braid;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the link targets fetched and de-duplicated by a {@link Braid} configured with
+ * {@link Braid.BraidBuilder#deduplicateLinkTargets()}. This class is thread safe.
+ */
+public final class LinkTargetStats {
+    private final LongAdder fetchCount = new LongAdder();
+    private final LongAdder deduplicatedCount = new LongAdder();
+
+    /**
+     * @return the number of distinct link targets added to outbound queries
+     */
+    public long getFetchCount() {
+        return fetchCount.sum();
+    }
+
+    /**
+     * @return the number of link targets served from a target already fetched within the same request, i.e. the
+     * number of fetches saved
+     */
+    public long getDeduplicatedCount() {
+        return deduplicatedCount.sum();
+    }
+
+    void recordFetch() {
+        fetchCount.increment();
+    }
+
+    void recordDeduplicated() {
+        deduplicatedCount.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "LinkTargetStats{" +
+                "fetchCount=" + getFetchCount() +
+                ", deduplicatedCount=" + getDeduplicatedCount() +
+                '}';
+    }
+}
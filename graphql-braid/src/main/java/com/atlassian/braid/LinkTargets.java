@@ -0,0 +1,137 @@
+package com.atlassian.braid;
+
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import graphql.language.SourceLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The link targets fetched within a single request, keyed by target namespace, top-level query field, resolved
+ * arguments and selection. The first batch needing a target fetches it, any later need for the same target, in the
+ * same batch or any other one, reuses its result.
+ */
+final class LinkTargets {
+    private final LinkTargetStats stats;
+    private final ConcurrentMap<Object, Target> targets = new ConcurrentHashMap<>();
+
+    LinkTargets(LinkTargetStats stats) {
+        this.stats = requireNonNull(stats);
+    }
+
+    /**
+     * @param targetKey the key of the target
+     * @param owner     the batch needing the target
+     * @param fieldKey  the field that will fetch the target if it isn't fetched yet
+     * @return the target, owned by the given owner and field if it is new
+     */
+    Target claim(Object targetKey, Object owner, FieldKey fieldKey) {
+        final Target target = new Target(owner, fieldKey);
+        final Target existing = targets.putIfAbsent(targetKey, target);
+        if (existing == null) {
+            stats.recordFetch();
+            return target;
+        }
+        stats.recordDeduplicated();
+        return existing;
+    }
+
+    static final class Target {
+        private final Object owner;
+        private final FieldKey fieldKey;
+        private final CompletableFuture<DataFetcherResult<Object>> result = new CompletableFuture<>();
+
+        private Target(Object owner, FieldKey fieldKey) {
+            this.owner = requireNonNull(owner);
+            this.fieldKey = requireNonNull(fieldKey);
+        }
+
+        boolean isFetchedBy(Object owner, FieldKey fieldKey) {
+            return this.owner == owner && this.fieldKey.equals(fieldKey);
+        }
+
+        boolean isOwnedBy(Object owner) {
+            return this.owner == owner;
+        }
+
+        FieldKey getFieldKey() {
+            return fieldKey;
+        }
+
+        CompletableFuture<DataFetcherResult<Object>> getResult() {
+            return result;
+        }
+
+        /**
+         * Completes the target with the data of its field and the errors whose path starts with it
+         */
+        void complete(DataFetcherResult<Map<FieldKey, Object>> batchResult) {
+            final List<GraphQLError> errors = batchResult.getErrors().stream()
+                    .filter(e -> e.getPath() != null && !e.getPath().isEmpty()
+                            && fieldKey.getValue().equals(String.valueOf(e.getPath().get(0))))
+                    .collect(toList());
+            result.complete(new DataFetcherResult<>(batchResult.getData().get(fieldKey), errors));
+        }
+
+        void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Moves errors of the field that fetched a target to the field of another batch reusing the target
+     */
+    static List<GraphQLError> realiasErrors(List<GraphQLError> errors, FieldKey fieldKey) {
+        return errors.stream()
+                .map(error -> error.getPath() == null || error.getPath().isEmpty()
+                        ? error
+                        : new RealiasedGraphQLError(error, fieldKey))
+                .collect(toList());
+    }
+
+    private static final class RealiasedGraphQLError implements GraphQLError {
+        private final GraphQLError delegate;
+        private final FieldKey fieldKey;
+
+        private RealiasedGraphQLError(GraphQLError delegate, FieldKey fieldKey) {
+            this.delegate = requireNonNull(delegate);
+            this.fieldKey = requireNonNull(fieldKey);
+        }
+
+        @Override
+        public String getMessage() {
+            return delegate.getMessage();
+        }
+
+        @Override
+        public List<SourceLocation> getLocations() {
+            return delegate.getLocations();
+        }
+
+        @Override
+        public ErrorClassification getErrorType() {
+            return delegate.getErrorType();
+        }
+
+        @Override
+        public List<Object> getPath() {
+            final List<Object> path = new ArrayList<>(delegate.getPath());
+            path.set(0, fieldKey.getValue());
+            return path;
+        }
+
+        @Override
+        public Map<String, Object> getExtensions() {
+            return delegate.getExtensions();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.atlassian.braid.java.util.BraidFutures;
 import graphql.language.Argument;
 import graphql.language.FieldDefinition;
 import graphql.language.InputValueDefinition;
+import graphql.language.Type;
 import graphql.language.VariableDefinition;
 import graphql.schema.DataFetchingEnvironment;
 
@@ -14,6 +15,7 @@ import java.util.stream.Collectors;
 import static com.atlassian.braid.TypeUtils.findQueryFieldDefinitions;
 import static com.atlassian.braid.source.NamespacedVariableReference.namespacedVariableReference;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 
 public final class LinkUtils {
 
@@ -22,28 +24,21 @@ public final class LinkUtils {
                                                                                     DataFetchingEnvironment environment,
                                                                                     ArgumentValueProvider valueProvider,
                                                                                     int fieldCounter) {
-        FieldDefinition queryField = findTopLevelQueryField(link, schemaSource);
-        @SuppressWarnings("unchecked") CompletableFuture<ResolvedArgument>[] futures = link.getLinkArguments().stream()
-                .map(linkArgument -> createArgument(linkArgument, queryField, environment, valueProvider, fieldCounter))
-                .toArray(CompletableFuture[]::new);
-        return BraidFutures.all(Collectors.toList(), futures);
+        return compileLink(link, schemaSource).resolveArguments(environment, valueProvider, fieldCounter);
     }
 
-    private static CompletableFuture<ResolvedArgument> createArgument(LinkArgument linkArgument,
-                                                                      FieldDefinition queryField,
-                                                                      DataFetchingEnvironment environment,
-                                                                      ArgumentValueProvider valueProvider,
-                                                                      int fieldCounter) {
-        final String variableName = linkArgument.getQueryArgumentName() + fieldCounter;
-        InputValueDefinition inputValueDefinition = findInputValueDefinition(queryField, linkArgument);
-        VariableDefinition variableDefinition = new VariableDefinition(variableName, inputValueDefinition.getType());
-        Argument fieldArgument = new Argument(linkArgument.getQueryArgumentName(), namespacedVariableReference(variableName));
-        CompletableFuture<Object> futureValue = valueProvider.fetchValueForArgument(linkArgument, environment);
-        return futureValue.thenApply(value ->
-                new ResolvedArgument(fieldArgument, variableDefinition, value, linkArgument));
+    /**
+     * Compiles the link for its target schema source, finding the top-level query field and the types of its arguments
+     * once, so that resolving the arguments of the link only binds their values
+     *
+     * @param link         the link
+     * @param schemaSource the target schema source of the link
+     * @return the compiled link
+     */
+    public static CompiledLink compileLink(Link link, SchemaSource schemaSource) {
+        return new CompiledLink(link, schemaSource, findTopLevelQueryField(link, schemaSource));
     }
 
-
     private static FieldDefinition findTopLevelQueryField(Link link, SchemaSource schemaSource) {
         return findQueryFieldDefinitions(schemaSource.getPrivateSchema())
                 .orElseThrow(() -> new IllegalStateException("No query field definition in private schema of "
@@ -55,13 +50,69 @@ public final class LinkUtils {
                         link.getTopLevelQueryField(), schemaSource.getNamespace())));
     }
 
-    private static InputValueDefinition findInputValueDefinition(FieldDefinition definition, LinkArgument linkArgument) {
-        return definition.getInputValueDefinitions().stream()
-                .filter(iv -> iv.getName().equals(linkArgument.getQueryArgumentName()))
-                .findFirst()
-                .orElseThrow(() ->
-                        new IllegalStateException(format("Query field '%s' does not contain argument named '%s'",
-                                definition.getName(), linkArgument.getQueryArgumentName())));
+    /**
+     * A link compiled for a given target schema source, see {@link #compileLink(Link, SchemaSource)}
+     */
+    public static final class CompiledLink {
+        private final SchemaSource schemaSource;
+        private final List<CompiledArgument> arguments;
+
+        private CompiledLink(Link link, SchemaSource schemaSource, FieldDefinition queryField) {
+            this.schemaSource = requireNonNull(schemaSource);
+            this.arguments = link.getLinkArguments().stream()
+                    .map(linkArgument -> new CompiledArgument(linkArgument, queryField))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * @return whether this link is compiled for the given schema source
+         */
+        public boolean isFor(SchemaSource schemaSource) {
+            return this.schemaSource == schemaSource;
+        }
+
+        public CompletableFuture<List<ResolvedArgument>> resolveArguments(DataFetchingEnvironment environment,
+                                                                          ArgumentValueProvider valueProvider,
+                                                                          int fieldCounter) {
+            @SuppressWarnings("unchecked") CompletableFuture<ResolvedArgument>[] futures = new CompletableFuture[arguments.size()];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = arguments.get(i).resolve(environment, valueProvider, fieldCounter);
+            }
+            return BraidFutures.all(Collectors.toList(), futures);
+        }
+    }
+
+    private static final class CompiledArgument {
+        private final LinkArgument linkArgument;
+        private final String queryArgumentName;
+        private final Type type; // null when the query field has no such argument
+        private final String queryFieldName;
+
+        private CompiledArgument(LinkArgument linkArgument, FieldDefinition queryField) {
+            this.linkArgument = requireNonNull(linkArgument);
+            this.queryArgumentName = linkArgument.getQueryArgumentName();
+            this.type = queryField.getInputValueDefinitions().stream()
+                    .filter(iv -> iv.getName().equals(queryArgumentName))
+                    .findFirst()
+                    .map(InputValueDefinition::getType)
+                    .orElse(null);
+            this.queryFieldName = queryField.getName();
+        }
+
+        private CompletableFuture<ResolvedArgument> resolve(DataFetchingEnvironment environment,
+                                                            ArgumentValueProvider valueProvider,
+                                                            int fieldCounter) {
+            if (type == null) {
+                throw new IllegalStateException(format("Query field '%s' does not contain argument named '%s'",
+                        queryFieldName, queryArgumentName));
+            }
+            final String variableName = queryArgumentName + fieldCounter;
+            VariableDefinition variableDefinition = new VariableDefinition(variableName, type);
+            Argument fieldArgument = new Argument(queryArgumentName, namespacedVariableReference(variableName));
+            CompletableFuture<Object> futureValue = valueProvider.fetchValueForArgument(linkArgument, environment);
+            return futureValue.thenApply(value ->
+                    new ResolvedArgument(fieldArgument, variableDefinition, value, linkArgument));
+        }
     }
 
     public static class ResolvedArgument {
@@ -1,11 +1,13 @@
 package com.atlassian.braid;
 
+import com.atlassian.braid.source.QueryCoalescer;
 import graphql.language.Field;
 
 import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 final class MutableBraidContext<C> implements BraidContext<C> {
     private final Map<String, List<Field>> missingFieldsByType;
@@ -13,17 +15,45 @@ final class MutableBraidContext<C> implements BraidContext<C> {
     @Nullable
     private final C context;
 
+    @Nullable
+    private final LinkTargets linkTargets;
+
+    @Nullable
+    private final QueryCoalescer queryCoalescer;
+
+    // shared by all the batches of the request when queries are coalesced, null otherwise
+    @Nullable
+    private final AtomicInteger counter;
+
     MutableBraidContext(@Nullable C context) {
         this(null, context);
     }
 
     MutableBraidContext(@Nullable BraidContext braidContext, @Nullable C context) {
+        this(braidContext, context,
+                braidContext instanceof MutableBraidContext ? ((MutableBraidContext<?>) braidContext).linkTargets : null,
+                braidContext instanceof MutableBraidContext ? ((MutableBraidContext<?>) braidContext).queryCoalescer : null,
+                braidContext instanceof MutableBraidContext ? ((MutableBraidContext<?>) braidContext).counter : null);
+    }
+
+    MutableBraidContext(@Nullable BraidContext braidContext, @Nullable C context, @Nullable LinkTargets linkTargets,
+                        @Nullable QueryCoalescer queryCoalescer) {
+        // start at 99 so that we can find variables already counter-namespaced via startsWith()
+        this(braidContext, context, linkTargets, queryCoalescer, queryCoalescer != null ? new AtomicInteger(99) : null);
+    }
+
+    private MutableBraidContext(@Nullable BraidContext braidContext, @Nullable C context,
+                                @Nullable LinkTargets linkTargets, @Nullable QueryCoalescer queryCoalescer,
+                                @Nullable AtomicInteger counter) {
         HashMap<String, List<Field>> tmp = new HashMap<>();
         if (braidContext != null) {
             tmp.putAll(braidContext.getAllMissingFields());
         }
         this.missingFieldsByType = tmp;
         this.context = context;
+        this.linkTargets = linkTargets;
+        this.queryCoalescer = queryCoalescer;
+        this.counter = counter;
     }
 
     @Override
@@ -45,4 +75,28 @@ final class MutableBraidContext<C> implements BraidContext<C> {
     public C getContext() {
         return context;
     }
+
+    /**
+     * @return the link targets fetched within the request, {@code null} if link targets aren't de-duplicated
+     */
+    @Nullable
+    LinkTargets getLinkTargets() {
+        return linkTargets;
+    }
+
+    /**
+     * @return the coalescer of the queries of the request, {@code null} if queries aren't coalesced
+     */
+    @Nullable
+    QueryCoalescer getQueryCoalescer() {
+        return queryCoalescer;
+    }
+
+    /**
+     * @return the counter shared by all the batches of the request, {@code null} if queries aren't coalesced
+     */
+    @Nullable
+    AtomicInteger getCounter() {
+        return counter;
+    }
 }
@@ -0,0 +1,107 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.cache.PersistedQueryStore;
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Implements the automatic persisted queries protocol, resolving the query text of an {@link ExecutionInput} from
+ * the {@code persistedQuery} request extension.
+ */
+final class PersistedQueries {
+
+    static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final PersistedQueryStore store; // nullable, persisted queries are then not supported
+
+    PersistedQueries(PersistedQueryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @param executionInput the input as sent by the client, its query may be empty
+     * @param extensions     the request extensions
+     * @return the input with its query resolved
+     * @throws PersistedQueryException if the query can't be resolved
+     */
+    ExecutionInput resolve(ExecutionInput executionInput, Map<String, Object> extensions) {
+        final Object persistedQuery = extensions == null ? null : extensions.get(PERSISTED_QUERY_EXTENSION);
+        if (!(persistedQuery instanceof Map)) {
+            return executionInput;
+        }
+        if (store == null) {
+            throw notSupported();
+        }
+
+        final Map<?, ?> persistedQueryMap = (Map<?, ?>) persistedQuery;
+        final Object version = persistedQueryMap.get("version");
+        final Object hash = persistedQueryMap.get("sha256Hash");
+        if (!(hash instanceof String) || (version != null && !"1".equals(String.valueOf(version)))) {
+            throw notSupported();
+        }
+        // clients may send upper case hex digits, queries are stored and looked up by their lower case hash
+        final String sha256Hash = ((String) hash).toLowerCase(Locale.ROOT);
+
+        final String query = executionInput.getQuery();
+        if (query == null || query.isEmpty()) {
+            return store.getQuery(sha256Hash)
+                    .map(storedQuery -> executionInput.transform(builder -> builder.query(storedQuery)))
+                    .orElseThrow(() -> new PersistedQueryException("PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND"));
+        }
+
+        if (!sha256Hex(query).equals(sha256Hash)) {
+            throw new PersistedQueryException("provided sha does not match query", "BAD_REQUEST");
+        }
+        store.putQuery(sha256Hash, query);
+        return executionInput;
+    }
+
+    private static PersistedQueryException notSupported() {
+        return new PersistedQueryException("PersistedQueryNotSupported", "PERSISTED_QUERY_NOT_SUPPORTED");
+    }
+
+    static String sha256Hex(String query) {
+        final byte[] digest = sha256().digest(query.getBytes(StandardCharsets.UTF_8));
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class PersistedQueryException extends RuntimeException {
+        private final String code;
+
+        private PersistedQueryException(String message, String code) {
+            super(message);
+            this.code = code;
+        }
+
+        GraphQLError toGraphQLError() {
+            return GraphqlErrorBuilder.newError()
+                    .message(getMessage())
+                    .extensions(singletonMap("code", code))
+                    .build();
+        }
+    }
+}
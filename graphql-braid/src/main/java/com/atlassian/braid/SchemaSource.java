@@ -1,10 +1,13 @@
 package com.atlassian.braid;
 
 import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.DataLoaderOptions;
 
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 
 /**
  * A data source that contains a schema to be merged via {@link BraidSchema}
@@ -50,4 +53,12 @@ public interface SchemaSource extends BatchLoaderFactory {
     default List<FieldRename> getMutationFieldRenames() {
         return emptyList();
     }
+
+    /**
+     * @return the options of the data loaders fetching top-level query and mutation fields, by source field name.
+     * Fields not in this map use the default options.
+     */
+    default Map<String, DataLoaderOptions> getTopLevelDataLoaderOptions() {
+        return emptyMap();
+    }
 }
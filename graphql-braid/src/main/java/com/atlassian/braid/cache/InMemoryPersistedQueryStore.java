@@ -0,0 +1,46 @@
+package com.atlassian.braid.cache;
+
+import java.util.Optional;
+
+/**
+ * A {@link PersistedQueryStore} keeping queries in a {@link LruCache}, bounded by the number of queries and by their
+ * total length.
+ * <p>The same query {@link String} instance is returned for every hit, which makes look ups in a
+ * {@link PreparsedDocumentCache} cheap, so that persisted queries are only parsed and validated once.
+ */
+public final class InMemoryPersistedQueryStore implements PersistedQueryStore {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 10_000_000L;
+
+    private final LruCache<String, String> queries;
+
+    public InMemoryPersistedQueryStore() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * @param maximumSize   the maximum number of queries to keep
+     * @param maximumWeight the maximum total length of the queries to keep
+     */
+    public InMemoryPersistedQueryStore(int maximumSize, long maximumWeight) {
+        this.queries = new LruCache<>(maximumSize, maximumWeight, (hash, query) -> query.length());
+    }
+
+    @Override
+    public Optional<String> getQuery(String sha256Hash) {
+        return Optional.ofNullable(queries.getIfPresent(sha256Hash));
+    }
+
+    @Override
+    public void putQuery(String sha256Hash, String query) {
+        queries.put(sha256Hash, query);
+    }
+
+    /**
+     * @return the hit and miss statistics of this store
+     */
+    public CacheStats stats() {
+        return queries.stats();
+    }
+}
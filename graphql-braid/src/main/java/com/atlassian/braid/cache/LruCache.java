@@ -0,0 +1,173 @@
+package com.atlassian.braid.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A thread safe, least recently used cache bounded both by its number of entries and by the total weight of its
+ * entries.
+ * <p>Values are computed outside of the cache lock, so concurrent misses on the same key may compute the value more
+ * than once, the last computed value wins.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class LruCache<K, V> {
+
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final ToLongBiFunction<K, V> weigher;
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize   the maximum number of entries
+     * @param maximumWeight the maximum total weight of entries
+     * @param weigher       computes the weight of a single entry, must be stable for a given entry
+     */
+    public LruCache(int maximumSize, long maximumWeight, ToLongBiFunction<K, V> weigher) {
+        checkState(maximumSize > 0, "maximumSize must be positive, was %s", maximumSize);
+        checkState(maximumWeight > 0, "maximumWeight must be positive, was %s", maximumWeight);
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = requireNonNull(weigher);
+    }
+
+    /**
+     * Creates a cache bounded only by its number of entries
+     *
+     * @param maximumSize the maximum number of entries
+     * @param <K>         the type of keys
+     * @param <V>         the type of values
+     * @return a new cache
+     */
+    public static <K, V> LruCache<K, V> ofSize(int maximumSize) {
+        return new LruCache<>(maximumSize, Long.MAX_VALUE, (k, v) -> 1);
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the cached value or {@code null} if there is none
+     */
+    public V getIfPresent(K key) {
+        final V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        (value == null ? missCount : hitCount).increment();
+        return value;
+    }
+
+    /**
+     * Gets the cached value for the key or computes, caches and returns it
+     *
+     * @param key      the key to look up
+     * @param function computes the value when the key is not cached, the value is not cached if {@code null}
+     * @return the cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> function) {
+        final V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        final V computed = function.apply(key);
+        if (computed != null) {
+            put(key, computed);
+        }
+        return computed;
+    }
+
+    public void put(K key, V value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        final long entryWeight = weigher.applyAsLong(key, value);
+        if (entryWeight > maximumWeight) {
+            return; // would evict everything else and itself
+        }
+        synchronized (entries) {
+            final V previous = entries.put(key, value);
+            if (previous != null) {
+                weight -= weigher.applyAsLong(key, previous);
+            }
+            weight += entryWeight;
+            evict();
+        }
+    }
+
+    /**
+     * Caches the value unless a value is already cached for the key, atomically
+     *
+     * @param key   the key of the value
+     * @param value the value to cache
+     * @return the value already cached for the key, or {@code null} if there was none
+     */
+    public V putIfAbsent(K key, V value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        final long entryWeight = weigher.applyAsLong(key, value);
+        synchronized (entries) {
+            final V previous = entries.get(key);
+            if (previous != null || entryWeight > maximumWeight) {
+                return previous;
+            }
+            entries.put(key, value);
+            weight += entryWeight;
+            evict();
+        }
+        return null;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            final V previous = entries.remove(key);
+            if (previous != null) {
+                weight -= weigher.applyAsLong(key, previous);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maximumSize || weight > maximumWeight) && iterator.hasNext()) {
+            final Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.applyAsLong(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+}
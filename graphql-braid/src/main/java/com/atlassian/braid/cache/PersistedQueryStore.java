@@ -0,0 +1,27 @@
+package com.atlassian.braid.cache;
+
+import java.util.Optional;
+
+/**
+ * Stores the query texts of <a href="https://github.com/apollographql/apollo-link-persisted-queries">automatic
+ * persisted queries</a>, keyed by the hex encoded SHA-256 hash of the query text.
+ * <p>Implementations must be thread safe.
+ *
+ * @see InMemoryPersistedQueryStore
+ */
+public interface PersistedQueryStore {
+
+    /**
+     * @param sha256Hash the hex encoded SHA-256 hash of the query
+     * @return the query text if it has been registered
+     */
+    Optional<String> getQuery(String sha256Hash);
+
+    /**
+     * Registers a query, the hash has already been verified to match the query text
+     *
+     * @param sha256Hash the hex encoded SHA-256 hash of the query
+     * @param query      the query text
+     */
+    void putQuery(String sha256Hash, String query);
+}
@@ -0,0 +1,105 @@
+package com.atlassian.braid.cache;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link PreparsedDocumentProvider} that caches parsed and validated documents in a {@link LruCache}, keyed by the
+ * query text and operation name.
+ * <p>The weight of an entry is the length of its query text, so that the cache can be bounded by the total size of
+ * the queries it holds.
+ * <p>Note that validation results depend on the schema, GraphQL instances using a different schema should use a
+ * {@link #scoped(Object) scoped} view of the cache.
+ */
+public final class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 10_000_000L;
+
+    private final LruCache<DocumentKey, PreparsedDocumentEntry> cache;
+
+    public PreparsedDocumentCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * @param maximumSize   the maximum number of documents to cache
+     * @param maximumWeight the maximum total length of the query texts of the cached documents
+     */
+    public PreparsedDocumentCache(int maximumSize, long maximumWeight) {
+        this.cache = new LruCache<>(maximumSize, maximumWeight, (key, entry) -> key.query.length());
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> computeFunction) {
+        return getDocument(null, executionInput, computeFunction);
+    }
+
+    /**
+     * Gets a view of this cache whose documents are distinct from the ones of other scopes, while sharing the bounds
+     * and statistics of this cache.
+     *
+     * @param scope identifies the schema the documents are validated against
+     * @return a provider caching documents in this cache
+     */
+    public PreparsedDocumentProvider scoped(Object scope) {
+        requireNonNull(scope);
+        return (executionInput, computeFunction) -> getDocument(scope, executionInput, computeFunction);
+    }
+
+    private PreparsedDocumentEntry getDocument(Object scope,
+                                               ExecutionInput executionInput,
+                                               Function<ExecutionInput, PreparsedDocumentEntry> computeFunction) {
+        final DocumentKey key = new DocumentKey(scope, executionInput.getQuery(), executionInput.getOperationName());
+        return cache.get(key, __ -> computeFunction.apply(executionInput));
+    }
+
+    /**
+     * @return the hit and miss statistics of this cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class DocumentKey {
+        private final Object scope; // nullable
+        private final String query;
+        private final String operationName; // nullable
+
+        private DocumentKey(Object scope, String query, String operationName) {
+            this.scope = scope;
+            this.query = requireNonNull(query);
+            this.operationName = operationName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DocumentKey that = (DocumentKey) o;
+            return query.equals(that.query)
+                    && Objects.equals(operationName, that.operationName)
+                    && Objects.equals(scope, that.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, query, operationName);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Bounded caches used to avoid repeating per query work, such as parsing and validating documents.
+ *
+ * @see com.atlassian.braid.cache.LruCache
+ * @see com.atlassian.braid.cache.PreparsedDocumentCache
+ */
+package com.atlassian.braid.cache;
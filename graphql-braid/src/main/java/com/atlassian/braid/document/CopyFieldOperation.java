@@ -24,6 +24,9 @@ final class CopyFieldOperation<C, T, R> extends AbstractTypeOperation<Field> {
 
     private static final String ANY_NAME = "*";
 
+    // the transform of plain copies, which unlike other transforms doesn't depend on the custom context
+    private static final BiFunction<Object, Object, Object> RIGHT = BraidBiFunctions.right();
+
     private final Function<Field, String> target;
 
     private final BiFunction<C, T, R> transform;
@@ -33,7 +36,7 @@ final class CopyFieldOperation<C, T, R> extends AbstractTypeOperation<Field> {
     }
 
     CopyFieldOperation(String key, String target) {
-        this(copyPredicate(key), copyTarget(target), BraidBiFunctions.right());
+        this(copyPredicate(key), copyTarget(target), BraidObjects.cast(RIGHT));
     }
 
     CopyFieldOperation(String key, String target, BiFunction<C, T, R> transform) {
@@ -60,7 +63,16 @@ final class CopyFieldOperation<C, T, R> extends AbstractTypeOperation<Field> {
                 cloneFieldWithNewName(field, targetKey),
                 copy(mappingContext.getSpringPath(targetKey),
                         getFieldAliasOrName(field),
-                        t -> transform.apply(mappingContext.getCustomContext(), BraidObjects.cast(t))));
+                        transformValue(mappingContext)));
+    }
+
+    // the custom context is read now, while mapping, for plain copies not to make mappings context specific
+    private Function<Object, Object> transformValue(MappingContext<C> mappingContext) {
+        if (transform == RIGHT) {
+            return Function.identity();
+        }
+        final C customContext = mappingContext.getCustomContext();
+        return t -> transform.apply(customContext, BraidObjects.cast(t));
     }
 
     private static Optional<SelectionSet> getSelectionSet(Field field) {
@@ -16,10 +16,34 @@ public interface DocumentMapper<C> extends BiFunction<C, Document, DocumentMappe
     final class MappedDocument {
         private final Document document;
         private final Function<Map<String, Object>, Map<String, Object>> resultMapper;
+        private final boolean resultMapped;
 
         public MappedDocument(Document document, Function<Map<String, Object>, Map<String, Object>> resultMapper) {
+            this(document, resultMapper, true);
+        }
+
+        private MappedDocument(Document document,
+                               Function<Map<String, Object>, Map<String, Object>> resultMapper,
+                               boolean resultMapped) {
             this.document = requireNonNull(document);
             this.resultMapper = requireNonNull(resultMapper);
+            this.resultMapped = resultMapped;
+        }
+
+        /**
+         * @param document the document, as is
+         * @return the document not mapped, whose result is then not mapped either
+         */
+        public static MappedDocument unmapped(Document document) {
+            return new MappedDocument(document, Function.identity(), false);
+        }
+
+        /**
+         * @param document the new document, e.g. the mapped document rewritten
+         * @return the new document with the result mapper of this one
+         */
+        public MappedDocument withDocument(Document document) {
+            return new MappedDocument(document, resultMapper, resultMapped);
         }
 
         public Document getDocument() {
@@ -29,5 +53,13 @@ public interface DocumentMapper<C> extends BiFunction<C, Document, DocumentMappe
         public Function<Map<String, Object>, Map<String, Object>> getResultMapper() {
             return resultMapper;
         }
+
+        /**
+         * @return {@code false} if the document isn't mapped, see {@link #unmapped(Document)}, in which case the result
+         * doesn't need to go through the result mapper
+         */
+        public boolean isResultMapped() {
+            return resultMapped;
+        }
     }
 }
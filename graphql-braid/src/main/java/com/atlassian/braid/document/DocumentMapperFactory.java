@@ -18,4 +18,15 @@ public interface DocumentMapperFactory extends Function<TypeDefinitionRegistry,
      * @see TypeMappers
      */
     DocumentMapperFactory mapType(TypeMapper typeMapper);
+
+    /**
+     * Bounds the number of mapped documents cached by the document mappers of this factory, by document shape,
+     * {@code 0} disabling the cache. Factories whose mappers don't cache documents return themselves.
+     *
+     * @param maximumSize the maximum number of cached mapped documents per schema source
+     * @return a <em>new</em> {@link DocumentMapperFactory}
+     */
+    default DocumentMapperFactory mappedDocumentCacheSize(int maximumSize) {
+        return this;
+    }
 }
@@ -7,7 +7,6 @@ import graphql.schema.idl.TypeDefinitionRegistry;
 import java.io.Reader;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -23,7 +22,7 @@ public final class DocumentMappers {
     }
 
     public  static DocumentMapper noop() {
-        return  (__, doc) -> new DocumentMapper.MappedDocument((Document) doc, Function.identity());
+        return  (__, doc) -> DocumentMapper.MappedDocument.unmapped((Document) doc);
     }
 
     public static DocumentMapperFactory identity() {
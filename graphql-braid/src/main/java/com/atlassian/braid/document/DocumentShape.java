@@ -0,0 +1,317 @@
+package com.atlassian.braid.document;
+
+import com.atlassian.braid.document.DocumentMapper.MappedDocument;
+import com.atlassian.braid.graphql.language.NodeTransformer;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.Node;
+import graphql.language.NodeTraverser;
+import graphql.language.NodeVisitorStub;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The shape of a document, i.e. the document with the aliases of its top-level fields and the names of its variables
+ * replaced by canonical ones, in order of appearance. Braid numbers those aliases and variables per request, see
+ * {@link com.atlassian.braid.FieldTransformationContext#getCounter()}, so documents that only differ by those numbers
+ * have the same shape, and so the same mapped document and result mapper once {@link #restore(Template) restored}.
+ * <p>The values of the variables aren't part of documents, so aren't part of their shape either.
+ * <p>The shape is fingerprinted by printing the document with the canonical names, the canonical document itself is
+ * only built when it is to be mapped, i.e. when its shape isn't cached.
+ */
+final class DocumentShape {
+
+    private static final String ALIAS_PREFIX = "braid_alias_";
+    private static final String VARIABLE_PREFIX = "braid_var_";
+
+    private final Document document;
+    private final String fingerprint;
+    private final Names aliases;
+    private final Names variables;
+
+    private DocumentShape(Document document, String fingerprint, Names aliases, Names variables) {
+        this.document = document;
+        this.fingerprint = fingerprint;
+        this.aliases = aliases;
+        this.variables = variables;
+    }
+
+    static DocumentShape of(Document document) {
+        final Names aliases = new Names(ALIAS_PREFIX);
+        final Names variables = new Names(VARIABLE_PREFIX);
+        final String fingerprint = printCompactNode(requireNonNull(document), aliases::canonical, variables::canonical);
+        return new DocumentShape(document, fingerprint, aliases, variables);
+    }
+
+    /**
+     * @param mapped the mapped canonical document of a shape
+     * @return the template to {@link #restore(Template) restore} the mapped document from, for the documents of the
+     * same shape
+     */
+    static Template template(MappedDocument mapped) {
+        return new Template(mapped, findNodesWithVariables(mapped.getDocument()));
+    }
+
+    /**
+     * @return the document with canonical aliases and variable names, to be mapped in place of the actual document
+     */
+    Document getCanonicalDocument() {
+        return new Renamer(aliases.canonicalNames, variables.canonicalNames, null).document(document);
+    }
+
+    /**
+     * @return the text of the canonical document, equal for all the documents of the same shape
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param template the mapped canonical document, of this shape or of any document of the same shape
+     * @return the mapped document, with the actual aliases and variable names of the document of this shape, its
+     * result mapper taking and returning data keyed by the actual aliases
+     */
+    MappedDocument restore(Template template) {
+        final MappedDocument mapped = template.mapped;
+        if (aliases.isEmpty() && variables.isEmpty()) {
+            return mapped;
+        }
+        final Document document = new Renamer(aliases.names, variables.names, template.nodesWithVariables)
+                .document(mapped.getDocument());
+        if (aliases.isEmpty()) {
+            return mapped.withDocument(document);
+        }
+        final Function<Map<String, Object>, Map<String, Object>> resultMapper = mapped.getResultMapper();
+        return new MappedDocument(document, data -> restoreAliases(resultMapper.apply(new CanonicalAliasKeys(data))));
+    }
+
+    /**
+     * Renames the canonical aliases of the output of a result mapper of {@link TypedDocumentMapper}, always a new map,
+     * in place rather than copying it
+     */
+    private Map<String, Object> restoreAliases(Map<String, Object> output) {
+        final List<Map.Entry<String, Object>> restored = new ArrayList<>(aliases.names.size());
+        for (Map.Entry<String, String> alias : aliases.names.entrySet()) {
+            if (output.containsKey(alias.getKey())) {
+                restored.add(new AbstractMap.SimpleImmutableEntry<>(alias.getValue(), output.remove(alias.getKey())));
+            }
+        }
+        for (Map.Entry<String, Object> entry : restored) {
+            output.put(entry.getKey(), entry.getValue());
+        }
+        return output;
+    }
+
+    /**
+     * @return the nodes of the document that reference variables, or whose descendants do, by identity
+     */
+    private static Set<Node> findNodesWithVariables(Document document) {
+        final Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        new NodeTraverser().preOrder(new NodeVisitorStub() {
+            @Override
+            public TraversalControl visitVariableReference(VariableReference node, TraverserContext<Node> context) {
+                // stops at the first ancestor already found, whose own ancestors are found too
+                TraverserContext<Node> ancestor = context;
+                while (ancestor != null && ancestor.thisNode() != null && nodes.add(ancestor.thisNode())) {
+                    ancestor = ancestor.getParentContext();
+                }
+                return TraversalControl.CONTINUE;
+            }
+        }, document);
+        return nodes;
+    }
+
+    /**
+     * A mapped canonical document, along with what is needed to restore it for each document of its shape
+     */
+    static final class Template {
+        private final MappedDocument mapped;
+        private final Set<Node> nodesWithVariables;
+
+        private Template(MappedDocument mapped, Set<Node> nodesWithVariables) {
+            this.mapped = requireNonNull(mapped);
+            this.nodesWithVariables = requireNonNull(nodesWithVariables);
+        }
+    }
+
+    /**
+     * The canonical names given to names, in order of appearance
+     */
+    private static final class Names {
+        private final String prefix;
+        private final Map<String, String> canonicalNames = new HashMap<>(); // name -> canonical name
+        private final Map<String, String> names = new HashMap<>(); // canonical name -> name
+
+        private Names(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private String canonical(String name) {
+            return canonicalNames.computeIfAbsent(name, __ -> {
+                final String canonicalName = prefix + names.size();
+                names.put(canonicalName, name);
+                return canonicalName;
+            });
+        }
+
+        private boolean isEmpty() {
+            return names.isEmpty();
+        }
+    }
+
+    /**
+     * Renames the aliases of the top-level fields of operations and the variables, only rebuilding the nodes on the
+     * way to variables when they are known
+     */
+    private static final class Renamer extends NodeTransformer {
+        private final Map<String, String> aliases;
+        private final Map<String, String> variables;
+        private final Set<Node> nodesWithVariables; // null when not known, all nodes are then rebuilt
+
+        private Renamer(Map<String, String> aliases, Map<String, String> variables, Set<Node> nodesWithVariables) {
+            this.aliases = aliases;
+            this.variables = variables;
+            this.nodesWithVariables = nodesWithVariables;
+        }
+
+        @Override
+        protected Definition definition(Definition definition) {
+            return definition instanceof FragmentDefinition && !hasVariables(definition)
+                    ? definition
+                    : super.definition(definition);
+        }
+
+        @Override
+        public OperationDefinition operationDefinition(OperationDefinition node) {
+            final OperationDefinition operation = super.operationDefinition(node);
+            final SelectionSet selectionSet = operation.getSelectionSet();
+            if (selectionSet == null || aliases.isEmpty()) {
+                return operation;
+            }
+            final List<Selection> selections = new ArrayList<>(selectionSet.getSelections().size());
+            for (Selection selection : selectionSet.getSelections()) {
+                selections.add(renameAlias(selection));
+            }
+            return operation.transform(b -> b.selectionSet(selectionSet.transform(ssb -> ssb.selections(selections))));
+        }
+
+        private Selection renameAlias(Selection selection) {
+            if (!(selection instanceof Field) || ((Field) selection).getAlias() == null) {
+                return selection;
+            }
+            final Field field = (Field) selection;
+            final String alias = aliases.get(field.getAlias());
+            return alias == null ? field : field.transform(b -> b.alias(alias));
+        }
+
+        @Override
+        protected Selection selection(Selection selection) {
+            return hasVariables(selection) ? super.selection(selection) : selection;
+        }
+
+        @Override
+        public VariableDefinition variableDefinition(VariableDefinition node) {
+            final VariableDefinition definition = super.variableDefinition(node);
+            return definition.transform(b -> b.name(rename(variables, node.getName())));
+        }
+
+        @Override
+        public VariableReference variableReference(VariableReference node) {
+            return node.transform(b -> b.name(rename(variables, node.getName())));
+        }
+
+        private boolean hasVariables(Node node) {
+            return nodesWithVariables == null || nodesWithVariables.contains(node);
+        }
+
+        private static String rename(Map<String, String> names, String name) {
+            return names.getOrDefault(name, name);
+        }
+    }
+
+    /**
+     * A view of data keyed by the actual aliases of this shape as keyed by its canonical aliases, for the cached result
+     * mapper to read it without a copy
+     */
+    private final class CanonicalAliasKeys extends AbstractMap<String, Object> {
+        private final Map<String, Object> data;
+
+        private CanonicalAliasKeys(Map<String, Object> data) {
+            this.data = requireNonNull(data);
+        }
+
+        @Override
+        public Object get(Object key) {
+            final String alias = aliases.names.get(key);
+            if (alias != null) {
+                return data.get(alias);
+            }
+            return aliases.canonicalNames.containsKey(key) ? null : data.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            final String alias = aliases.names.get(key);
+            if (alias != null) {
+                return data.containsKey(alias);
+            }
+            return !aliases.canonicalNames.containsKey(key) && data.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return data.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, Object>> entries = data.entrySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            final Entry<String, Object> entry = entries.next();
+                            final String key = entry.getKey();
+                            return new SimpleImmutableEntry<>(aliases.canonicalNames.getOrDefault(key, key),
+                                    entry.getValue());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return data.size();
+                }
+            };
+        }
+    }
+}
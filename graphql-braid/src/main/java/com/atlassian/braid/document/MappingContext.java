@@ -15,6 +15,7 @@ import graphql.schema.idl.TypeInfo;
 import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -25,6 +26,7 @@ import static com.atlassian.braid.document.Fields.maybeFindTypeDefinition;
 import static com.atlassian.braid.document.Fields.maybeGetTypeInfo;
 import static com.atlassian.braid.document.TypeMappers.maybeFindTypeMapper;
 import static com.atlassian.braid.java.util.BraidLists.concat;
+import static com.atlassian.braid.java.util.BraidObjects.cast;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
@@ -39,15 +41,21 @@ abstract class MappingContext<C> {
     @Nullable
     private final C context;
 
+    // shared by all the contexts of a document, see TypedDocumentMapper for why it matters
+    private final CustomContextUse customContextUse;
+
     MappingContext(MappingContext<C> mappingContext) {
-        this(mappingContext.context, mappingContext.schema, mappingContext.typeMappers, mappingContext.fragmentDefinitions);
+        this(mappingContext.context, mappingContext.customContextUse, mappingContext.schema, mappingContext.typeMappers,
+                mappingContext.fragmentDefinitions);
     }
 
     MappingContext(C context,
+                   CustomContextUse customContextUse,
                    TypeDefinitionRegistry schema,
                    List<TypeMapper> typeMappers,
                    List<FragmentDefinition> fragmentDefinitions) {
         this.context = context;
+        this.customContextUse = requireNonNull(customContextUse);
         this.schema = requireNonNull(schema);
         this.typeMappers = requireNonNull(typeMappers);
         this.fragmentDefinitions = requireNonNull(fragmentDefinitions);
@@ -90,21 +98,82 @@ abstract class MappingContext<C> {
     }
 
     static <C> RootMappingContext<C> rootContext(C customContext, TypeDefinitionRegistry schema, List<TypeMapper> typeMappers) {
-        return new RootMappingContext(customContext, schema, typeMappers, emptyList());
+        return new RootMappingContext(customContext, new CustomContextUse(), schema, typeMappers, emptyList());
     }
 
+    /**
+     * Reading the custom context while mapping the document makes the mapping specific to this context, so that it
+     * isn't cached, see {@link TypedDocumentMapper}. Result mappers may read it freely, they get the context of the
+     * execution whose results they map, which for a cached mapping isn't the execution it was mapped for.
+     *
+     * @return the custom context of the execution
+     */
     public C getCustomContext() {
-        return context;
+        return customContextUse.read(context);
+    }
+
+    final CustomContextUse getCustomContextUse() {
+        return customContextUse;
+    }
+
+    /**
+     * Tracks whether the custom context is read while mapping a document, shared by all the mapping contexts of the
+     * document. Result mappers read the context of their execution instead, see {@link #withResultContext}.
+     */
+    static final class CustomContextUse {
+        // the custom context of the execution whose results are being mapped by the current thread, if any
+        private static final ThreadLocal<Optional<Object>> RESULT_CONTEXT = new ThreadLocal<>();
+
+        private volatile boolean used = false;
+
+        private <C> C read(C mappingContext) {
+            final Optional<Object> resultContext = RESULT_CONTEXT.get();
+            if (resultContext != null) {
+                return cast(resultContext.orElse(null));
+            }
+            used = true;
+            return mappingContext;
+        }
+
+        /**
+         * @return whether the custom context was read while mapping the document
+         */
+        boolean isUsed() {
+            return used;
+        }
+
+        /**
+         * @param customContext the custom context of the execution whose results are mapped
+         * @param resultMapper  the result mapper, possibly of a mapping cached for another execution
+         * @return the result mapper reading the given custom context
+         */
+        static Function<Map<String, Object>, Map<String, Object>> withResultContext(
+                Object customContext, Function<Map<String, Object>, Map<String, Object>> resultMapper) {
+            return data -> {
+                final Optional<Object> previous = RESULT_CONTEXT.get();
+                RESULT_CONTEXT.set(Optional.ofNullable(customContext));
+                try {
+                    return resultMapper.apply(data);
+                } finally {
+                    if (previous == null) {
+                        RESULT_CONTEXT.remove();
+                    } else {
+                        RESULT_CONTEXT.set(previous);
+                    }
+                }
+            };
+        }
     }
 
     static final class RootMappingContext<C> extends MappingContext<C> {
 
         RootMappingContext(MappingContext<C> parentContext, List<FragmentDefinition> fragmentMappings) {
-            this(parentContext.context, parentContext.schema, parentContext.typeMappers, fragmentMappings);
+            this(parentContext.context, parentContext.customContextUse, parentContext.schema, parentContext.typeMappers, fragmentMappings);
         }
 
-        RootMappingContext(C customContext, TypeDefinitionRegistry schema, List<TypeMapper> typeMappers, List<FragmentDefinition> fragmentMappings) {
-            super(customContext, schema, typeMappers, fragmentMappings);
+        RootMappingContext(C customContext, CustomContextUse customContextUse, TypeDefinitionRegistry schema,
+                           List<TypeMapper> typeMappers, List<FragmentDefinition> fragmentMappings) {
+            super(customContext, customContextUse, schema, typeMappers, fragmentMappings);
         }
 
         FragmentDefinitionMappingContext<C> forFragment(FragmentDefinition definition) {
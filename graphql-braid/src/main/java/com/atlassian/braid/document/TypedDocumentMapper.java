@@ -1,8 +1,11 @@
 package com.atlassian.braid.document;
 
+import com.atlassian.braid.document.DocumentShape.Template;
 import com.atlassian.braid.document.MappingContext.FragmentDefinitionMappingContext;
 import com.atlassian.braid.document.MappingContext.OperationDefinitionMappingContext;
 import com.atlassian.braid.document.MappingContext.RootMappingContext;
+import com.atlassian.braid.cache.CacheStats;
+import com.atlassian.braid.cache.LruCache;
 import graphql.language.Definition;
 import graphql.language.Document;
 import graphql.language.FragmentDefinition;
@@ -13,11 +16,13 @@ import java.util.List;
 import java.util.Map;
 
 import static com.atlassian.braid.document.MappedDefinitions.toMappedDefinitions;
+import static com.atlassian.braid.document.MappingContext.CustomContextUse.withResultContext;
 import static com.atlassian.braid.document.MappingContext.rootContext;
 import static com.atlassian.braid.document.QueryDocuments.groupRootDefinitionsByType;
 import static com.atlassian.braid.document.RootDefinitionMappingResult.toOperationMappingResult;
 import static com.atlassian.braid.java.util.BraidLists.concat;
 import static com.atlassian.braid.java.util.BraidObjects.cast;
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
 import static com.atlassian.braid.mapper.MapperOperations.composed;
 import static com.atlassian.braid.mapper.Mappers.mapper;
 import static java.util.Collections.emptyList;
@@ -27,22 +32,63 @@ import static java.util.stream.Collectors.toList;
 /**
  * <strong>Internal</strong> implementation of the {@link DocumentMapper} that maps based on types
  * using {@link TypeMapper type mappers}
+ * <p>Mapped documents and their result mappers are cached by {@link DocumentShape shape}, so that the queries of the
+ * same shape are only mapped once, unless they depend on the custom context, i.e. it was read while mapping the
+ * document, e.g. when values are transformed with {@link TypeMapper#copy(String, String, java.util.function.BiFunction)}.
+ * The result mappers of cached documents read the custom context of the execution they map the results of. See
+ * {@link MappingContext#getCustomContext()}.
  *
  * @see TypeMapper
  */
 final class TypedDocumentMapper<C> implements DocumentMapper<C> {
 
+    static final int DEFAULT_MAXIMUM_SIZE = 500;
+    static final long DEFAULT_MAXIMUM_WEIGHT = 4 * 1024 * 1024; // the total length of the cached documents
+
     private final TypeDefinitionRegistry schema;
     private final List<TypeMapper> typeMappers;
+    private final LruCache<String, Template> mappedDocuments; // null when disabled
 
     TypedDocumentMapper(TypeDefinitionRegistry schema, List<TypeMapper> typeMappers) {
+        this(schema, typeMappers, DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached mapped documents, {@code 0} disabling the cache
+     */
+    TypedDocumentMapper(TypeDefinitionRegistry schema, List<TypeMapper> typeMappers, int maximumSize, long maximumWeight) {
         this.schema = requireNonNull(schema);
         this.typeMappers = requireNonNull(typeMappers);
+        this.mappedDocuments = maximumSize == 0
+                ? null
+                : new LruCache<>(maximumSize, maximumWeight, (fingerprint, __) -> fingerprint.length());
     }
 
     @Override
     public MappedDocument apply(C customContext, Document document) {
-        return apply(rootContext(customContext, schema, typeMappers), document);
+        if (mappedDocuments == null) {
+            return apply(rootContext(customContext, schema, typeMappers), document);
+        }
+        final DocumentShape shape = DocumentShape.of(document);
+        Template template = mappedDocuments.getIfPresent(shape.getFingerprint());
+        if (template == null) {
+            final RootMappingContext<C> context = rootContext(customContext, schema, typeMappers);
+            template = DocumentShape.template(apply(context, shape.getCanonicalDocument()));
+            if (context.getCustomContextUse().isUsed()) {
+                return shape.restore(template);
+            }
+            mappedDocuments.put(shape.getFingerprint(), template);
+        }
+        final MappedDocument mapped = shape.restore(template);
+        return new MappedDocument(mapped.getDocument(), withResultContext(customContext, mapped.getResultMapper()));
+    }
+
+    /**
+     * @return the statistics of the cache of mapped documents, which must be enabled
+     */
+    CacheStats stats() {
+        checkState(mappedDocuments != null, "the cache of mapped documents is disabled");
+        return mappedDocuments.stats();
     }
 
     private MappedDocument apply(RootMappingContext<C> context, Document document) {
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static com.atlassian.braid.java.util.BraidLists.concat;
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
@@ -19,22 +20,34 @@ import static java.util.Objects.requireNonNull;
 class TypedDocumentMapperFactoryFactory implements DocumentMapperFactory {
 
     private final List<TypeMapper> typeMappers;
+    private final int mappedDocumentCacheSize;
 
     TypedDocumentMapperFactoryFactory() {
         this(emptyList());
     }
 
     TypedDocumentMapperFactoryFactory(List<TypeMapper> typeMappers) {
+        this(typeMappers, TypedDocumentMapper.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    private TypedDocumentMapperFactoryFactory(List<TypeMapper> typeMappers, int mappedDocumentCacheSize) {
+        checkState(mappedDocumentCacheSize >= 0, "mappedDocumentCacheSize must not be negative, was %s", mappedDocumentCacheSize);
         this.typeMappers = new ArrayList<>(requireNonNull(typeMappers));
+        this.mappedDocumentCacheSize = mappedDocumentCacheSize;
     }
 
     @Override
     public DocumentMapperFactory mapType(TypeMapper typeMapper) {
-        return new TypedDocumentMapperFactoryFactory(concat(typeMappers, typeMapper));
+        return new TypedDocumentMapperFactoryFactory(concat(typeMappers, typeMapper), mappedDocumentCacheSize);
+    }
+
+    @Override
+    public DocumentMapperFactory mappedDocumentCacheSize(int maximumSize) {
+        return new TypedDocumentMapperFactoryFactory(typeMappers, maximumSize);
     }
 
     @Override
     public DocumentMapper apply(TypeDefinitionRegistry schema) {
-        return new TypedDocumentMapper(schema, typeMappers);
+        return new TypedDocumentMapper(schema, typeMappers, mappedDocumentCacheSize, TypedDocumentMapper.DEFAULT_MAXIMUM_WEIGHT);
     }
 }
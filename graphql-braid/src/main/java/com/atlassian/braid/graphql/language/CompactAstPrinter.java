@@ -0,0 +1,305 @@
+package com.atlassian.braid.graphql.language;
+
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.AstPrinter;
+import graphql.language.BooleanValue;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.ListType;
+import graphql.language.Node;
+import graphql.language.NonNullType;
+import graphql.language.NullValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * Prints the executable documents Braid sends to schema sources on a single line, without the whitespace of
+ * {@link AstPrinter}, into a single {@link StringBuilder}. Nodes that aren't part of executable documents, such as
+ * type definitions, are printed by {@link AstPrinter}.
+ * <p>The aliases of the top-level fields of operations and the names of variables can be renamed as they are printed,
+ * see {@link GraphQLNodes#printCompactNode(Node, UnaryOperator, UnaryOperator)}.
+ */
+final class CompactAstPrinter {
+
+    private final StringBuilder out = new StringBuilder(256);
+    private final UnaryOperator<String> operationAliases;
+    private final UnaryOperator<String> variableNames;
+
+    private CompactAstPrinter(UnaryOperator<String> operationAliases, UnaryOperator<String> variableNames) {
+        this.operationAliases = operationAliases;
+        this.variableNames = variableNames;
+    }
+
+    static String print(Node node) {
+        return print(node, UnaryOperator.identity(), UnaryOperator.identity());
+    }
+
+    static String print(Node node, UnaryOperator<String> operationAliases, UnaryOperator<String> variableNames) {
+        final CompactAstPrinter printer = new CompactAstPrinter(operationAliases, variableNames);
+        printer.node(node);
+        return printer.out.toString();
+    }
+
+    private void node(Node node) {
+        if (node instanceof Document) {
+            document((Document) node);
+        } else if (node instanceof OperationDefinition) {
+            operationDefinition((OperationDefinition) node);
+        } else if (node instanceof FragmentDefinition) {
+            fragmentDefinition((FragmentDefinition) node);
+        } else if (node instanceof SelectionSet) {
+            selectionSet((SelectionSet) node);
+        } else if (node instanceof Selection) {
+            selection((Selection) node);
+        } else if (node instanceof Value) {
+            value((Value) node);
+        } else if (node instanceof Type) {
+            type((Type) node);
+        } else {
+            out.append(AstPrinter.printAst(node));
+        }
+    }
+
+    private void document(Document document) {
+        final List<Definition> definitions = document.getDefinitions();
+        for (int i = 0; i < definitions.size(); i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            node(definitions.get(i));
+        }
+    }
+
+    private void operationDefinition(OperationDefinition operation) {
+        final boolean anonymousQuery = operation.getName() == null
+                && operation.getOperation() == OperationDefinition.Operation.QUERY
+                && operation.getVariableDefinitions().isEmpty()
+                && operation.getDirectives().isEmpty();
+        if (!anonymousQuery) {
+            out.append(operation.getOperation().name().toLowerCase(Locale.ENGLISH));
+            if (operation.getName() != null) {
+                out.append(' ').append(operation.getName());
+            }
+            variableDefinitions(operation.getVariableDefinitions());
+            directives(operation.getDirectives());
+        }
+        selectionSet(operation.getSelectionSet(), true);
+    }
+
+    private void variableDefinitions(List<VariableDefinition> variableDefinitions) {
+        if (variableDefinitions.isEmpty()) {
+            return;
+        }
+        out.append('(');
+        for (int i = 0; i < variableDefinitions.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            final VariableDefinition variableDefinition = variableDefinitions.get(i);
+            out.append('$').append(variableNames.apply(variableDefinition.getName())).append(':');
+            type(variableDefinition.getType());
+            if (variableDefinition.getDefaultValue() != null) {
+                out.append('=');
+                value(variableDefinition.getDefaultValue());
+            }
+        }
+        out.append(')');
+    }
+
+    private void fragmentDefinition(FragmentDefinition fragment) {
+        out.append("fragment ").append(fragment.getName())
+                .append(" on ").append(fragment.getTypeCondition().getName());
+        directives(fragment.getDirectives());
+        selectionSet(fragment.getSelectionSet());
+    }
+
+    private void selectionSet(SelectionSet selectionSet) {
+        selectionSet(selectionSet, false);
+    }
+
+    private void selectionSet(SelectionSet selectionSet, boolean operation) {
+        out.append('{');
+        final List<Selection> selections = selectionSet.getSelections();
+        for (int i = 0; i < selections.size(); i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            selection(selections.get(i), operation);
+        }
+        out.append('}');
+    }
+
+    private void selection(Selection selection) {
+        selection(selection, false);
+    }
+
+    /**
+     * @param operation whether the selection is a top-level selection of an operation
+     */
+    private void selection(Selection selection, boolean operation) {
+        if (selection instanceof Field) {
+            field((Field) selection, operation);
+        } else if (selection instanceof FragmentSpread) {
+            final FragmentSpread fragmentSpread = (FragmentSpread) selection;
+            out.append("...").append(fragmentSpread.getName());
+            directives(fragmentSpread.getDirectives());
+        } else if (selection instanceof InlineFragment) {
+            final InlineFragment inlineFragment = (InlineFragment) selection;
+            out.append("...");
+            if (inlineFragment.getTypeCondition() != null) {
+                out.append("on ").append(inlineFragment.getTypeCondition().getName());
+            }
+            directives(inlineFragment.getDirectives());
+            selectionSet(inlineFragment.getSelectionSet());
+        } else {
+            out.append(AstPrinter.printAst(selection));
+        }
+    }
+
+    private void field(Field field, boolean operation) {
+        if (field.getAlias() != null) {
+            out.append(operation ? operationAliases.apply(field.getAlias()) : field.getAlias()).append(':');
+        }
+        out.append(field.getName());
+        arguments(field.getArguments());
+        directives(field.getDirectives());
+        if (field.getSelectionSet() != null && !field.getSelectionSet().getSelections().isEmpty()) {
+            selectionSet(field.getSelectionSet());
+        }
+    }
+
+    private void arguments(List<Argument> arguments) {
+        if (arguments.isEmpty()) {
+            return;
+        }
+        out.append('(');
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(arguments.get(i).getName()).append(':');
+            value(arguments.get(i).getValue());
+        }
+        out.append(')');
+    }
+
+    private void directives(List<Directive> directives) {
+        for (Directive directive : directives) {
+            out.append('@').append(directive.getName());
+            arguments(directive.getArguments());
+        }
+    }
+
+    private void type(Type type) {
+        if (type instanceof NonNullType) {
+            type(((NonNullType) type).getType());
+            out.append('!');
+        } else if (type instanceof ListType) {
+            out.append('[');
+            type(((ListType) type).getType());
+            out.append(']');
+        } else {
+            out.append(((TypeName) type).getName());
+        }
+    }
+
+    private void value(Value value) {
+        if (value instanceof VariableReference) {
+            out.append('$').append(variableNames.apply(((VariableReference) value).getName()));
+        } else if (value instanceof StringValue) {
+            string(((StringValue) value).getValue());
+        } else if (value instanceof IntValue) {
+            out.append(((IntValue) value).getValue());
+        } else if (value instanceof FloatValue) {
+            out.append(((FloatValue) value).getValue());
+        } else if (value instanceof BooleanValue) {
+            out.append(((BooleanValue) value).isValue());
+        } else if (value instanceof EnumValue) {
+            out.append(((EnumValue) value).getName());
+        } else if (value instanceof NullValue) {
+            out.append("null");
+        } else if (value instanceof ArrayValue) {
+            out.append('[');
+            final List<Value> values = ((ArrayValue) value).getValues();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                value(values.get(i));
+            }
+            out.append(']');
+        } else if (value instanceof ObjectValue) {
+            out.append('{');
+            final List<ObjectField> fields = ((ObjectValue) value).getObjectFields();
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(fields.get(i).getName()).append(':');
+                value(fields.get(i).getValue());
+            }
+            out.append('}');
+        } else {
+            out.append(AstPrinter.printAst(value));
+        }
+    }
+
+    private void string(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -19,7 +19,7 @@ public class DocumentTransformations {
 
     public static Document removeMissingFieldsIfBraidAndSourceTypeFieldsDiffer(FieldTransformationContext context, Document document,
                                                                                GraphQLOutputType fieldOutputType) {
-        BraidSchemaSource ds = new BraidSchemaSource(context.getSchemaSource());
+        BraidSchemaSource ds = context.getSchemaSource().getBraidSchemaSource();
         return ds.getSchemaSource().getPrivateSchema().getType(ds.getSourceTypeName(unwrapAll(fieldOutputType).getName()))
 
                 .map(type -> {
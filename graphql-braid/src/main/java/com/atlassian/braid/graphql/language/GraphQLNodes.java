@@ -3,6 +3,8 @@ package com.atlassian.braid.graphql.language;
 import graphql.language.AstPrinter;
 import graphql.language.Node;
 
+import java.util.function.UnaryOperator;
+
 /**
  * Utility class to work with GraphQL nodes
  */
@@ -13,4 +15,29 @@ public final class GraphQLNodes {
     public static String printNode(Node node) {
         return AstPrinter.printAst(node);
     }
+
+    /**
+     * Prints the node on a single line, without the indentation and line breaks of {@link #printNode(Node)}. This is
+     * meant for the documents sent to schema sources, not for humans.
+     *
+     * @param node the node to print
+     * @return the compact text of the node
+     */
+    public static String printCompactNode(Node node) {
+        return CompactAstPrinter.print(node);
+    }
+
+    /**
+     * Prints the node as {@link #printCompactNode(Node)} does, renaming aliases and variables as they are printed,
+     * without creating a renamed copy of the node
+     *
+     * @param node             the node to print
+     * @param operationAliases renames the aliases of the top-level fields of operations
+     * @param variableNames    renames the variables, both where they are defined and where they are referenced
+     * @return the compact text of the renamed node
+     */
+    public static String printCompactNode(Node node, UnaryOperator<String> operationAliases,
+                                          UnaryOperator<String> variableNames) {
+        return CompactAstPrinter.print(node, operationAliases, variableNames);
+    }
 }
@@ -0,0 +1,215 @@
+package com.atlassian.braid.graphql.language;
+
+import com.atlassian.braid.FieldTransformationContext;
+import com.atlassian.braid.TypeUtils;
+import com.atlassian.braid.transformation.BraidSchemaSource;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FieldDefinition;
+import graphql.language.FragmentDefinition;
+import graphql.language.InlineFragment;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.TypeDefinition;
+import graphql.language.TypeName;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.idl.TypeDefinitionRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static graphql.schema.GraphQLTypeUtil.unwrapAll;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Rewrites the documents of a schema source for a given field output type in a single traversal, doing both what
+ * {@link DocumentTransformations#renameTypesToSourceNames(BraidSchemaSource, Document)} and
+ * {@link DocumentTransformations#removeMissingFieldsIfBraidAndSourceTypeFieldsDiffer(FieldTransformationContext, Document, GraphQLOutputType)}
+ * do. Whether each step applies is computed once, the document being returned as is when neither does, e.g. for
+ * schema sources without type renames whose types have the same fields in Braid and in the source.
+ */
+public final class SourceDocumentRewriter {
+
+    private final BraidSchemaSource braidSchemaSource;
+    private final GraphQLOutputType fieldOutputType;
+    private final boolean renameTypes;
+    private final TypeDefinitionRegistry privateSchema;
+    private final String sourceTypeName; // null when no field is to be removed
+    private final Set<String> sourceFieldNames;
+
+    public SourceDocumentRewriter(BraidSchemaSource braidSchemaSource, GraphQLOutputType fieldOutputType) {
+        this.braidSchemaSource = requireNonNull(braidSchemaSource);
+        this.fieldOutputType = requireNonNull(fieldOutputType);
+        this.renameTypes = braidSchemaSource.hasTypeRenames();
+        this.privateSchema = braidSchemaSource.getSchemaSource().getPrivateSchema();
+
+        final TypeDefinition sourceType = privateSchema
+                .getType(braidSchemaSource.getSourceTypeName(unwrapAll(fieldOutputType).getName()))
+                .orElse(null);
+        Set<String> sourceFieldNames = null;
+        if (fieldOutputType instanceof GraphQLObjectType && sourceType instanceof ObjectTypeDefinition) {
+            final Set<String> braidFieldNames = ((GraphQLObjectType) fieldOutputType).getFieldDefinitions().stream()
+                    .map(GraphQLFieldDefinition::getName)
+                    .collect(toSet());
+            final Set<String> fieldNames = ((ObjectTypeDefinition) sourceType).getFieldDefinitions().stream()
+                    .map(FieldDefinition::getName)
+                    .collect(toSet());
+            if (!fieldNames.equals(braidFieldNames)) {
+                sourceFieldNames = fieldNames;
+            }
+        }
+        this.sourceTypeName = sourceFieldNames != null ? sourceType.getName() : null;
+        this.sourceFieldNames = sourceFieldNames;
+    }
+
+    /**
+     * @return whether this rewriter is for the given field output type
+     */
+    public boolean isFor(GraphQLOutputType fieldOutputType) {
+        return this.fieldOutputType == fieldOutputType;
+    }
+
+    /**
+     * Renames the types of the document to their source names and removes the fields of the field output type unknown
+     * to the source, adding them to the missing fields of the context
+     *
+     * @param context  the context of the batch
+     * @param document the document to rewrite, left untouched
+     * @return the rewritten document, or the given one if there was nothing to rewrite
+     */
+    public Document rewrite(FieldTransformationContext context, Document document) {
+        if (!renameTypes && sourceTypeName == null) {
+            return document;
+        }
+        final Rewriter rewriter = new Rewriter();
+        final Document rewritten = rewriter.document(document);
+        if (sourceTypeName != null) {
+            context.addMissingFields(new ArrayList<>(rewriter.removedFields.values()));
+        }
+        return rewritten;
+    }
+
+    private String getSourceTypeName(String typeName) {
+        return renameTypes ? braidSchemaSource.getSourceTypeName(typeName) : typeName;
+    }
+
+    /**
+     * Tracks the source type of the selection sets being rewritten, as {@link DefinitionTraversalContext} does, when
+     * fields are to be removed
+     */
+    private final class Rewriter extends NodeTransformer {
+        private final List<TypeDefinition> typeStack = new ArrayList<>();
+        private final Map<String, Field> removedFields = new HashMap<>();
+
+        @Override
+        public TypeName typeName(TypeName node) {
+            return renameTypes ? node.transform(b -> b.name(getSourceTypeName(node.getName()))) : node;
+        }
+
+        @Override
+        public OperationDefinition operationDefinition(OperationDefinition node) {
+            if (sourceTypeName == null) {
+                return super.operationDefinition(node);
+            }
+            final TypeDefinition type;
+            if (node.getOperation() == OperationDefinition.Operation.MUTATION) {
+                type = TypeUtils.findMutationType(privateSchema).orElseThrow(IllegalStateException::new);
+            } else if (node.getOperation() == OperationDefinition.Operation.QUERY) {
+                type = TypeUtils.findQueryType(privateSchema).orElseThrow(IllegalStateException::new);
+            } else {
+                throw new UnsupportedOperationException("subscriptions not supported yet");
+            }
+            return withType(type, () -> super.operationDefinition(node));
+        }
+
+        @Override
+        public FragmentDefinition fragmentDefinition(FragmentDefinition node) {
+            if (sourceTypeName == null) {
+                return super.fragmentDefinition(node);
+            }
+            final TypeDefinition type = privateSchema.getType(getSourceTypeName(node.getTypeCondition().getName()))
+                    .orElseThrow(IllegalStateException::new);
+            return withType(type, () -> super.fragmentDefinition(node));
+        }
+
+        @Override
+        public InlineFragment inlineFragment(InlineFragment node) {
+            if (sourceTypeName == null) {
+                return super.inlineFragment(node);
+            }
+            final TypeDefinition type = node.getTypeCondition() == null
+                    ? currentType()
+                    : privateSchema.getType(getSourceTypeName(node.getTypeCondition().getName()))
+                    .orElseThrow(IllegalArgumentException::new);
+            return withType(type, () -> super.inlineFragment(node));
+        }
+
+        @Override
+        public Field field(Field node) {
+            if (sourceTypeName == null) {
+                return super.field(node);
+            }
+            TypeDefinition type = null;
+            final TypeDefinition parentType = currentType();
+            if (parentType instanceof ObjectTypeDefinition) {
+                type = ((ObjectTypeDefinition) parentType).getFieldDefinitions().stream()
+                        .filter(fieldDefinition -> fieldDefinition.getName().equals(node.getName()))
+                        .findFirst()
+                        .flatMap(fieldDefinition -> privateSchema.getType(fieldDefinition.getType()))
+                        .orElse(null);
+            }
+            return withType(type, () -> super.field(node));
+        }
+
+        @Override
+        public SelectionSet selectionSet(SelectionSet node) {
+            if (node == null) {
+                return null;
+            }
+            final TypeDefinition parentType = currentType();
+            final boolean removeUnknownFields = sourceTypeName != null
+                    && parentType instanceof ObjectTypeDefinition
+                    && parentType.getName().equals(sourceTypeName);
+
+            final List<Selection> selections = new ArrayList<>(node.getSelections().size());
+            for (Selection selection : node.getSelections()) {
+                if (removeUnknownFields && isUnknownField(selection)) {
+                    removedFields.put(((Field) selection).getName(), (Field) selection);
+                } else {
+                    selections.add(selection(selection));
+                }
+            }
+            return selections.isEmpty() && removeUnknownFields ? null : node.transform(b -> b.selections(selections));
+        }
+
+        private boolean isUnknownField(Selection selection) {
+            if (!(selection instanceof Field)) {
+                return false;
+            }
+            final String name = ((Field) selection).getName();
+            return !sourceFieldNames.contains(name) && !name.startsWith("__");
+        }
+
+        private TypeDefinition currentType() {
+            return typeStack.isEmpty() ? null : typeStack.get(typeStack.size() - 1);
+        }
+
+        private <T> T withType(TypeDefinition type, Supplier<T> rewrite) {
+            typeStack.add(type);
+            try {
+                return rewrite.get();
+            } finally {
+                typeStack.remove(typeStack.size() - 1);
+            }
+        }
+    }
+}
@@ -2,35 +2,46 @@ package com.atlassian.braid.mapper;
 
 import com.atlassian.braid.java.util.BraidObjects;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 final class CopyListOperation implements MapperOperation {
 
-    private final String sourceKey;
+    private final MapperPath sourcePath;
     private final String targetKey;
     private final Mapper mapper;
+    private final ParallelListMapping parallelMapping;
 
     CopyListOperation(String sourceKey, String targetKey, Mapper mapper) {
-        this.sourceKey = requireNonNull(sourceKey);
+        this(sourceKey, targetKey, mapper, null);
+    }
+
+    CopyListOperation(String sourceKey, String targetKey, Mapper mapper, ParallelListMapping parallelMapping) {
+        this.sourcePath = MapperPath.of(sourceKey);
         this.targetKey = requireNonNull(targetKey);
         this.mapper = requireNonNull(mapper);
+        this.parallelMapping = parallelMapping;
     }
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        MapperMaps.get(input, sourceKey)
+        MapperMaps.get(input, sourcePath)
                 .map(BraidObjects::<List<Map<String, Object>>>cast)
                 .map(this::mapList)
                 .ifPresent(mappedList -> output.put(targetKey, mappedList));
     }
 
     private List<Map<String, Object>> mapList(List<Map<String, Object>> input) {
-        return input.stream()
-                .map(mapper)
-                .collect(toList());
+        if (parallelMapping != null) {
+            return parallelMapping.map(input, mapper);
+        }
+        final List<Map<String, Object>> output = new ArrayList<>(input.size());
+        for (Map<String, Object> element : input) {
+            output.add(mapper.apply(element));
+        }
+        return output;
     }
 }
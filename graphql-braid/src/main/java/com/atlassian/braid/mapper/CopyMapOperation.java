@@ -8,19 +8,19 @@ import static java.util.Objects.requireNonNull;
 
 final class CopyMapOperation implements MapperOperation {
 
-    private final String sourceKey;
+    private final MapperPath sourcePath;
     private final String targetKey;
     private final Mapper mapper;
 
     CopyMapOperation(String sourceKey, String targetKey, Mapper mapper) {
-        this.sourceKey = requireNonNull(sourceKey);
+        this.sourcePath = MapperPath.of(sourceKey);
         this.targetKey = requireNonNull(targetKey);
         this.mapper = requireNonNull(mapper);
     }
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        MapperMaps.get(input, sourceKey)
+        MapperMaps.get(input, sourcePath)
                 .map(BraidObjects::<Map<String, Object>>cast)
                 .map(mapper)
                 .ifPresent(mappedList -> output.put(targetKey, mappedList));
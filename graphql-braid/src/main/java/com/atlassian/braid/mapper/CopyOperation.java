@@ -9,18 +9,18 @@ import static java.util.Objects.requireNonNull;
 
 final class CopyOperation<T, R> implements MapperOperation {
 
-    private final String sourceKey;
+    private final MapperPath sourcePath;
     private final String targetKey;
     private final Supplier<R> defaultValue;
     private final Function<T, R> transform;
-    private Predicate<MapperInputOutput> predicate;
+    private final Predicate<MapperInputOutput> predicate;
 
     CopyOperation(String sourceKey,
                   String targetKey,
                   Supplier<R> defaultValue,
                   Function<T, R> transform,
                   Predicate<MapperInputOutput> predicate) {
-        this.sourceKey = requireNonNull(sourceKey);
+        this.sourcePath = MapperPath.of(sourceKey);
         this.targetKey = requireNonNull(targetKey);
         this.defaultValue = requireNonNull(defaultValue);
         this.transform = requireNonNull(transform);
@@ -29,10 +29,12 @@ final class CopyOperation<T, R> implements MapperOperation {
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        if (predicate.test(MapperInputOutputPair.of(input, output))) {
-            final R value = MapperMaps.<T>get(input, sourceKey)
-                    .map(transform)
-                    .orElseGet(defaultValue);
+        if (MapperOperations.test(predicate, input, output)) {
+            final T sourceValue = MapperMaps.getValue(input, sourcePath);
+            R value = sourceValue != null ? transform.apply(sourceValue) : null;
+            if (value == null) {
+                value = defaultValue.get();
+            }
 
             if (value != null) {
                 output.put(targetKey, value);
@@ -21,7 +21,7 @@ final class ListOperation implements MapperOperation {
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        if (predicate.test(MapperInputOutputPair.of(input, output))) {
+        if (MapperOperations.test(predicate, input, output)) {
             output.put(key, singletonList(mapper.apply(input)));
         }
     }
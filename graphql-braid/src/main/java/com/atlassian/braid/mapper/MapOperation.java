@@ -24,7 +24,7 @@ final class MapOperation implements MapperOperation {
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        if (predicate.test(MapperInputOutputPair.of(input, output))) {
+        if (MapperOperations.test(predicate, input, output)) {
             output.put(key, mergeMaps(getExistingMapValue(output, key), mapper.apply(input)));
         }
     }
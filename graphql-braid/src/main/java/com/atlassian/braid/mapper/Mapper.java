@@ -1,11 +1,14 @@
 package com.atlassian.braid.mapper;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Mapper interface to build new mappers, note that mapper can be <em>applied</em> safely on multiple map intances
  */
@@ -145,6 +148,24 @@ public interface Mapper extends UnaryOperator<Map<String, Object>> {
      */
     Mapper copyList(String sourceKey, String targetKey, Mapper mapper);
 
+    /**
+     * Copies a list from the source key to the new key, mapping large lists in parallel
+     * <p>The default implementation copies the list with {@link #copy(String, String, Supplier, Function)}, mapping it
+     * with the parallel mapping.
+     *
+     * @param sourceKey       the expression to use to find the source list
+     * @param targetKey       the new key
+     * @param mapper          the mapper for each item in the list, called concurrently for large lists
+     * @param parallelMapping how and from which size lists are mapped in parallel
+     * @return the mapper with the copyList operation, this is <em>not</em> necessarily the same mapper
+     */
+    default Mapper copyList(String sourceKey, String targetKey, Mapper mapper, ParallelListMapping parallelMapping) {
+        requireNonNull(mapper);
+        requireNonNull(parallelMapping);
+        return copy(sourceKey, targetKey, () -> null,
+                (List<Map<String, Object>> list) -> parallelMapping.map(list, mapper));
+    }
+
     /**
      * Creates a list of a single map
      *
@@ -153,7 +174,7 @@ public interface Mapper extends UnaryOperator<Map<String, Object>> {
      * @return the mapper with the list operation, this is <em>not</em> necessarily the same mapper
      */
     default Mapper list(String key, Mapper mapper) {
-        return list(key, __ -> true, mapper);
+        return list(key, MapperOperations.ALWAYS, mapper);
     }
 
     /**
@@ -174,7 +195,7 @@ public interface Mapper extends UnaryOperator<Map<String, Object>> {
      * @return the mapper with the map operation, this is <em>not</em> necessarily the same mapper
      */
     default Mapper map(String key, Function<Map<String, Object>, Map<String, Object>> mapper) {
-        return map(key, __ -> true, mapper);
+        return map(key, MapperOperations.ALWAYS, mapper);
     }
 
     /**
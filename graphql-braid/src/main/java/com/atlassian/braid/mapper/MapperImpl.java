@@ -1,6 +1,9 @@
 package com.atlassian.braid.mapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -10,30 +13,39 @@ import static com.atlassian.braid.mapper.MapperOperations.noop;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Default implemenation of {@link Mapper}
+ * Default implemenation of {@link Mapper}, applying a flat array of operations, composed operations being flattened
+ * when the mapper is built, to an output map sized for one key per operation
  */
 final class MapperImpl implements Mapper {
 
-    private final MapperOperation operation;
+    private final MapperOperation[] operations;
+    private final int outputCapacity;
 
     MapperImpl() {
         this(noop());
     }
 
     MapperImpl(MapperOperation operation) {
-        this.operation = requireNonNull(operation);
+        this(flatten(requireNonNull(operation)));
+    }
+
+    private MapperImpl(List<MapperOperation> operations) {
+        this.operations = operations.toArray(new MapperOperation[0]);
+        this.outputCapacity = (int) (operations.size() / 0.75f) + 1;
     }
 
     @Override
     public final Map<String, Object> apply(Map<String, Object> input) {
-        final Map<String, Object> output = new HashMap<>();
-        operation.accept(input, output);
+        final Map<String, Object> output = new HashMap<>(outputCapacity);
+        for (MapperOperation operation : operations) {
+            operation.accept(input, output);
+        }
         return output;
     }
 
     @Override
     public <T, R> Mapper copy(String sourceKey, String targetKey, Supplier<R> defaultValue, Function<T, R> transform) {
-        return copy(sourceKey, targetKey, defaultValue, transform, __ -> true);
+        return copy(sourceKey, targetKey, defaultValue, transform, MapperOperations.ALWAYS);
     }
 
     @Override
@@ -43,7 +55,7 @@ final class MapperImpl implements Mapper {
 
     @Override
     public <V> Mapper put(String key, V value) {
-        return put(key, () -> value, __ -> true);
+        return put(key, () -> value, MapperOperations.ALWAYS);
     }
 
     @Override
@@ -56,6 +68,11 @@ final class MapperImpl implements Mapper {
         return newMapper(new CopyListOperation(sourceKey, targetKey, mapper));
     }
 
+    @Override
+    public Mapper copyList(String sourceKey, String targetKey, Mapper mapper, ParallelListMapping parallelMapping) {
+        return newMapper(new CopyListOperation(sourceKey, targetKey, mapper, requireNonNull(parallelMapping)));
+    }
+
     @Override
     public Mapper list(String key, Predicate<MapperInputOutput> predicate, Mapper mapper) {
         return newMapper(new ListOperation(key, predicate, mapper));
@@ -72,6 +89,15 @@ final class MapperImpl implements Mapper {
     }
 
     private MapperImpl newMapper(MapperOperation afterOperation) {
-        return new MapperImpl(this.operation.andThen(afterOperation));
+        final List<MapperOperation> newOperations = new ArrayList<>(operations.length + 1);
+        Collections.addAll(newOperations, operations);
+        MapperOperations.flatten(afterOperation, newOperations);
+        return new MapperImpl(newOperations);
+    }
+
+    private static List<MapperOperation> flatten(MapperOperation operation) {
+        final List<MapperOperation> operations = new ArrayList<>();
+        MapperOperations.flatten(operation, operations);
+        return operations;
     }
 }
@@ -14,7 +14,8 @@ import static com.atlassian.braid.java.util.BraidLists.concat;
 import static com.atlassian.braid.java.util.BraidObjects.cast;
 
 /**
- * Useful class to work with maps, and notably leverage SpringExpressions if present
+ * Useful class to work with maps, resolving simple paths directly (see {@link MapperPath}) and notably leveraging
+ * SpringExpressions if present for other keys
  */
 final class MapperMaps {
 
@@ -33,7 +34,22 @@ final class MapperMaps {
     }
 
     public static <V> Optional<V> get(Map<String, Object> map, String key) {
-        return getFromMap.apply(map, key).map(BraidObjects::cast);
+        return get(map, MapperPath.of(key));
+    }
+
+    static <V> Optional<V> get(Map<String, Object> map, MapperPath path) {
+        return Optional.ofNullable(getValue(map, path));
+    }
+
+    /**
+     * @return the value at the path, {@code null} if there is none
+     */
+    static <V> V getValue(Map<String, Object> map, MapperPath path) {
+        final Object value = path.resolve(map);
+        if (value != MapperPath.UNRESOLVED) {
+            return cast(value);
+        }
+        return cast(getFromMap.apply(map, path.getKey()).orElse(null));
     }
 
     static Map<String, Object> mergeMaps(Map<String, Object> map1, Map<String, Object> map2) {
@@ -1,9 +1,11 @@
 package com.atlassian.braid.mapper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static java.util.Arrays.asList;
 
@@ -13,6 +15,11 @@ import static java.util.Arrays.asList;
  */
 public final class MapperOperations {
 
+    /**
+     * The predicate of unconditional operations, not tested by the operations
+     */
+    static final Predicate<MapperInputOutput> ALWAYS = __ -> true;
+
     private MapperOperations() {
     }
 
@@ -33,7 +40,7 @@ public final class MapperOperations {
     }
 
     public static MapperOperation map(String key, Mapper mapper) {
-        return new MapOperation(key, __ -> true, mapper);
+        return new MapOperation(key, ALWAYS, mapper);
     }
 
     public static MapperOperation copy(String sourceKey, String targetKey) {
@@ -41,7 +48,7 @@ public final class MapperOperations {
     }
 
     public static <T, R> MapperOperation copy(String sourceKey, String targetKey, Function<T, R> transform) {
-        return new CopyOperation<>(sourceKey, targetKey, () -> null, transform, __ -> true);
+        return new CopyOperation<>(sourceKey, targetKey, () -> null, transform, ALWAYS);
     }
 
     public static <T> MapperOperation copyList(String key, Mapper mapper) {
@@ -49,7 +56,27 @@ public final class MapperOperations {
     }
 
     public static MapperOperation put(String key, String value) {
-        return new PutOperation<>(key, () -> value, __ -> true);
+        return new PutOperation<>(key, () -> value, ALWAYS);
+    }
+
+    /**
+     * @return whether the predicate holds for the input and output, without creating a {@link MapperInputOutput} for
+     * unconditional operations
+     */
+    static boolean test(Predicate<MapperInputOutput> predicate, Map<String, Object> input, Map<String, Object> output) {
+        return predicate == ALWAYS || predicate.test(MapperInputOutputPair.of(input, output));
+    }
+
+    /**
+     * @param operation an operation
+     * @param flattened the list to add the operation to, or the operations it is composed of, skipping no-ops
+     */
+    static void flatten(MapperOperation operation, List<MapperOperation> flattened) {
+        if (operation instanceof ComposedOperation) {
+            Collections.addAll(flattened, ((ComposedOperation) operation).operations);
+        } else if (!(operation instanceof NoopOperation)) {
+            flattened.add(operation);
+        }
     }
 
     private static class NoopOperation implements MapperOperation {
@@ -66,15 +93,19 @@ public final class MapperOperations {
     }
 
     private static class ComposedOperation implements MapperOperation {
-        private final List<MapperOperation> operations;
+        private final MapperOperation[] operations;
 
         private ComposedOperation(List<MapperOperation> operations) {
-            this.operations = new ArrayList<>(operations);
+            final List<MapperOperation> flattened = new ArrayList<>(operations.size());
+            operations.forEach(operation -> flatten(operation, flattened));
+            this.operations = flattened.toArray(new MapperOperation[0]);
         }
 
         @Override
         public void accept(Map<String, Object> input, Map<String, Object> output) {
-            operations.forEach(op -> op.accept(input, output));
+            for (MapperOperation operation : operations) {
+                operation.accept(input, output);
+            }
         }
     }
 }
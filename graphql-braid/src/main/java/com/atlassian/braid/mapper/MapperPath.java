@@ -0,0 +1,132 @@
+package com.atlassian.braid.mapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A mapper key, parsed once by the operations using it. Simple keys, either plain keys or paths of map keys and list
+ * indexes such as {@code ['items'][0]['id']}, are resolved without allocating. Keys that aren't simple paths are left
+ * to SpEL (or to plain map lookups when Spring isn't available), as are the paths that can't be resolved directly,
+ * e.g. going through a {@code null} value, so that those behave as they always did.
+ *
+ * @see MapperMaps#get(Map, MapperPath)
+ */
+final class MapperPath {
+
+    /**
+     * Returned by {@link #resolve(Map)} when the path can't be resolved directly
+     */
+    static final Object UNRESOLVED = new Object();
+
+    private final String key;
+    private final String[] keys; // the map key of each step, null for list index steps, null if not a simple path
+    private final int[] indexes;
+
+    private MapperPath(String key, String[] keys, int[] indexes) {
+        this.key = key;
+        this.keys = keys;
+        this.indexes = indexes;
+    }
+
+    /**
+     * @param key the mapper key
+     * @return the parsed key
+     */
+    static MapperPath of(String key) {
+        return parse(requireNonNull(key));
+    }
+
+    /**
+     * @return the mapper key, as given
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * @return whether the key is a simple path, resolved by {@link #resolve(Map)}
+     */
+    boolean isSimple() {
+        return keys != null;
+    }
+
+    /**
+     * @param map the map to resolve the path in
+     * @return the value at the end of the path, possibly {@code null}, or {@link #UNRESOLVED}
+     */
+    Object resolve(Map<String, Object> map) {
+        if (keys == null || keys[0] == null) {
+            return UNRESOLVED;
+        }
+        Object value = map.get(keys[0]);
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] != null) {
+                if (!(value instanceof Map)) {
+                    return UNRESOLVED;
+                }
+                value = ((Map<?, ?>) value).get(keys[i]);
+            } else {
+                if (!(value instanceof List) || indexes[i] >= ((List<?>) value).size()) {
+                    return UNRESOLVED;
+                }
+                value = ((List<?>) value).get(indexes[i]);
+            }
+        }
+        return value;
+    }
+
+    // keys are interned, as JSON parsers like Jackson do for field names, so that map lookups mostly compare references
+    private static MapperPath parse(String key) {
+        if (key.indexOf('[') < 0) {
+            return new MapperPath(key, new String[]{key.intern()}, new int[]{-1});
+        }
+
+        int steps = 0;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '[') {
+                steps++;
+            }
+        }
+        final String[] keys = new String[steps];
+        final int[] indexes = new int[steps];
+
+        int step = 0;
+        int i = 0;
+        while (i < key.length()) {
+            if (key.charAt(i) != '[' || i + 2 >= key.length() || step == steps) {
+                return notSimple(key);
+            }
+            final char first = key.charAt(i + 1);
+            final int end;
+            if (first == '\'' || first == '"') {
+                final int close = key.indexOf(first, i + 2);
+                if (close < 0 || close + 1 >= key.length() || key.charAt(close + 1) != ']') {
+                    return notSimple(key);
+                }
+                keys[step] = key.substring(i + 2, close).intern();
+                end = close + 1;
+            } else {
+                int index = 0;
+                int j = i + 1;
+                while (j < key.length() && j - i <= 9 && key.charAt(j) >= '0' && key.charAt(j) <= '9') {
+                    index = index * 10 + (key.charAt(j) - '0');
+                    j++;
+                }
+                if (j == i + 1 || j >= key.length() || key.charAt(j) != ']') {
+                    return notSimple(key);
+                }
+                indexes[step] = index;
+                end = j;
+            }
+            step++;
+            i = end + 1;
+        }
+        return step == steps ? new MapperPath(key, keys, indexes) : notSimple(key);
+    }
+
+    private static MapperPath notSimple(String key) {
+        return new MapperPath(key, null, null);
+    }
+}
@@ -46,6 +46,7 @@ public final class Mappers {
      * @see Mapper#map(String, Predicate, Function)
      */
     public static Predicate<MapperInputOutput> inputContains(String key) {
-        return inout -> MapperMaps.get(inout.getInput(), key).isPresent();
+        final MapperPath path = MapperPath.of(key);
+        return inout -> MapperMaps.get(inout.getInput(), path).isPresent();
     }
 }
@@ -0,0 +1,144 @@
+package com.atlassian.braid.mapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * How {@link Mapper#copyList(String, String, Mapper, ParallelListMapping) copyList} operations map large lists in
+ * parallel. Lists of at least the threshold size are split into contiguous chunks, mapped concurrently on the executor
+ * and by the calling thread, which also maps any chunk the executor hasn't got to yet, so that a busy or saturated
+ * executor never leaves it waiting. The mapped list keeps the order of the input list.
+ * <p>Mappers are expected to be stateless, as are the ones built with {@link Mappers}.
+ */
+public final class ParallelListMapping {
+
+    private final int threshold;
+    private final Executor executor;
+    private final int parallelism;
+
+    private ParallelListMapping(int threshold, Executor executor, int parallelism) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.threshold = threshold;
+        this.executor = requireNonNull(executor);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param threshold the size from which lists are mapped in parallel
+     * @return the parallel mapping of lists on the {@link ForkJoinPool#commonPool() common pool}
+     */
+    public static ParallelListMapping aboveSize(int threshold) {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        return new ParallelListMapping(threshold, pool, pool.getParallelism() + 1);
+    }
+
+    /**
+     * @param threshold   the size from which lists are mapped in parallel
+     * @param executor    the executor to map lists on
+     * @param parallelism the number of threads of the executor expected to map a list, the calling thread excluded
+     * @return the parallel mapping of lists on the given executor
+     */
+    public static ParallelListMapping aboveSize(int threshold, Executor executor, int parallelism) {
+        return new ParallelListMapping(threshold, executor, parallelism + 1);
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    <T, R> List<R> map(List<T> input, Function<T, R> mapper) {
+        if (input.size() < threshold) {
+            final List<R> output = new ArrayList<>(input.size());
+            for (T element : input) {
+                output.add(mapper.apply(element));
+            }
+            return output;
+        }
+        return new ParallelMap<>(input instanceof RandomAccess ? input : new ArrayList<>(input), mapper, parallelism)
+                .run(executor);
+    }
+
+    private static final class ParallelMap<T, R> implements Runnable {
+        private final List<T> input;
+        private final Function<T, R> mapper;
+        private final Object[] output;
+        private final int parallelism;
+        private final int chunkSize;
+        private final int chunks;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final CountDownLatch mappedChunks;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private ParallelMap(List<T> input, Function<T, R> mapper, int parallelism) {
+            this.input = input;
+            this.mapper = mapper;
+            this.output = new Object[input.size()];
+            this.parallelism = parallelism;
+            // a few chunks per thread, to even out elements that take longer to map
+            this.chunkSize = Math.max(1, (input.size() + 4 * parallelism - 1) / (4 * parallelism));
+            this.chunks = (input.size() + chunkSize - 1) / chunkSize;
+            this.mappedChunks = new CountDownLatch(chunks);
+        }
+
+        private List<R> run(Executor executor) {
+            try {
+                for (int i = 1; i < Math.min(chunks, parallelism); i++) {
+                    executor.execute(this);
+                }
+            } catch (RejectedExecutionException e) {
+                // the calling thread maps what's left
+            }
+            run();
+            try {
+                mappedChunks.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MapperException(e, "Interrupted while mapping a list of %s elements", input.size());
+            }
+
+            final Throwable t = failure.get();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            }
+            @SuppressWarnings("unchecked") final List<R> mapped = (List<R>) Arrays.asList(output);
+            return new ArrayList<>(mapped);
+        }
+
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                try {
+                    if (failure.get() == null) {
+                        final int end = Math.min(input.size(), (chunk + 1) * chunkSize);
+                        for (int i = chunk * chunkSize; i < end; i++) {
+                            output[i] = mapper.apply(input.get(i));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    mappedChunks.countDown();
+                }
+            }
+        }
+    }
+}
@@ -20,7 +20,7 @@ final class PutOperation<V> implements MapperOperation {
 
     @Override
     public void accept(Map<String, Object> input, Map<String, Object> output) {
-        if (predicate.test(MapperInputOutputPair.of(input, output))) {
+        if (MapperOperations.test(predicate, input, output)) {
             output.put(key, value.get());
         }
     }
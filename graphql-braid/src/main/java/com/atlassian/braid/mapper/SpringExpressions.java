@@ -1,26 +1,54 @@
 package com.atlassian.braid.mapper;
 
 import com.atlassian.braid.java.util.BraidObjects;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.springframework.expression.spel.SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE;
 
+/**
+ * Gets values from maps with SpEL expressions, parsed once per key. Expressions are evaluated in
+ * {@link SpelCompilerMode#MIXED} mode, so that those evaluated often enough are compiled to bytecode, falling back to
+ * interpreting them whenever the compiled version fails, e.g. when an intermediate property is missing.
+ */
 final class SpringExpressions {
-    private static final org.springframework.expression.ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpringExpressions.class.getClassLoader()));
+
+    // keys come from mapper definitions, this is only a guard against unbounded growth for dynamic keys
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    private final ConcurrentMap<String, Expression> expressions = new ConcurrentHashMap<>();
 
     // not static on purpose
     <T> Optional<T> get(Map<String, Object> map, String key) {
-        final String sourcePath = !key.contains("[") ? "['" + key + "']" : key;
-        return Optional.ofNullable(maybeGetValue(map, sourcePath)).map(BraidObjects::cast);
+        return Optional.ofNullable(maybeGetValue(map, getExpression(key))).map(BraidObjects::cast);
+    }
+
+    private Expression getExpression(String key) {
+        final Expression expression = expressions.get(key);
+        if (expression != null) {
+            return expression;
+        }
+        final Expression parsed = PARSER.parseExpression(!key.contains("[") ? "['" + key + "']" : key);
+        if (expressions.size() < MAX_CACHED_EXPRESSIONS) {
+            expressions.putIfAbsent(key, parsed);
+        }
+        return parsed;
     }
 
-    private static Object maybeGetValue(Object source, String sourcePath) {
+    private static Object maybeGetValue(Object source, Expression expression) {
         try {
-            return PARSER.parseExpression(sourcePath).getValue(source);
+            return expression.getValue(source);
         } catch (SpelEvaluationException e) {
             // PROPERTY_OR_FIELD_NOT_READABLE is thrown when an intermediate property doesn't exist when getting value
             // for a leaf node. Instead of throwing an exception, we should simply return null for the leaf node.
@@ -28,7 +56,7 @@ final class SpringExpressions {
                 return null;
             }
 
-            throw new MapperException(e, "Exception getting value in %s for path: %s", source, sourcePath);
+            throw new MapperException(e, "Exception getting value in %s for path: %s", source, expression.getExpressionString());
         }
     }
 }
@@ -46,11 +46,11 @@ final class YamlMappers {
     // those are mapped dynamically, see #operationFromEntry above
     @SuppressWarnings("unused")
     enum YamlOperationType implements BiFunction<String, Map<String, Object>, MapperOperation> {
-        COPY((key, props) -> new CopyOperation<>(key, getTargetKey(props, key), () -> null, Function.identity(), __ -> true)),
-        PUT((key, props) -> new PutOperation<>(key, () -> props.get("value"), __ -> true)),
-        COPYLIST((key, props) -> new CopyListOperation(key, getTargetKey(props, key), getMapper(props))),
-        LIST((key, props) -> new ListOperation(key, __ -> true, getMapper(props))),
-        MAP((key, props) -> new MapOperation(key, __ -> true, getMapper(props))),
+        COPY((key, props) -> new CopyOperation<>(key, getTargetKey(props, key), () -> null, Function.identity(), MapperOperations.ALWAYS)),
+        PUT((key, props) -> new PutOperation<>(key, () -> props.get("value"), MapperOperations.ALWAYS)),
+        COPYLIST((key, props) -> new CopyListOperation(key, getTargetKey(props, key), getMapper(props), getParallelMapping(props))),
+        LIST((key, props) -> new ListOperation(key, MapperOperations.ALWAYS, getMapper(props))),
+        MAP((key, props) -> new MapOperation(key, MapperOperations.ALWAYS, getMapper(props))),
         COPYMAP((key, props) -> new CopyMapOperation(key, getTargetKey(props, key), getMapper(props)));
 
         final BiFunction<String, Map<String, Object>, MapperOperation> getOperation;
@@ -71,6 +71,18 @@ final class YamlMappers {
                 .orElseGet(Mappers::mapper);
     }
 
+    private static ParallelListMapping getParallelMapping(Map<String, Object> props) {
+        final Object threshold = props.get("parallelThreshold");
+        if (threshold == null) {
+            return null;
+        }
+        try {
+            return ParallelListMapping.aboveSize(Integer.parseInt(String.valueOf(threshold)));
+        } catch (IllegalArgumentException e) {
+            throw new MapperException(e, "Invalid parallelThreshold (%s) for configuration: %s", threshold, props);
+        }
+    }
+
     private static class YamlMapperOperation implements Supplier<MapperOperation> {
         private final String key;
         private final String name;
@@ -0,0 +1,24 @@
+package com.atlassian.braid.source;
+
+import graphql.execution.DataFetcherResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Parses the response body of a GraphQL query, reading the {@code data} object by top-level field (or alias) and the
+ * {@code errors}, see {@link GraphQLStreamingRemoteRetriever}.
+ *
+ * @see com.atlassian.braid.source.jackson.JacksonGraphQLResponseParser
+ */
+@FunctionalInterface
+public interface GraphQLResponseParser {
+
+    /**
+     * @param body the response body, closed by the caller
+     * @return the data by top-level field, empty if the response has no data, and the errors of the response
+     * @throws IOException if the body can't be read or isn't a valid response
+     */
+    DataFetcherResult<Map<String, Object>> parse(InputStream body) throws IOException;
+}
@@ -0,0 +1,19 @@
+package com.atlassian.braid.source;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Retrieves the raw response body of a query from a remote service, parsed by a {@link GraphQLResponseParser} as it is
+ * read rather than materialized as a map first. Meant to be used with {@link QueryExecutorSchemaSource}, see
+ * {@link QueryExecutorSchemaSource.Builder#streamingRemoteRetriever(GraphQLStreamingRemoteRetriever, GraphQLResponseParser)}.
+ */
+public interface GraphQLStreamingRemoteRetriever<C> {
+
+    /**
+     * @param query   the query to execute
+     * @param context the GraphQL execution context
+     * @return the response body of the query, closed once parsed
+     */
+    CompletableFuture<InputStream> queryGraphQL(Query query, C context);
+}
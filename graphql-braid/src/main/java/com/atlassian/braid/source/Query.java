@@ -1,6 +1,6 @@
 package com.atlassian.braid.source;
 
-import static com.atlassian.braid.graphql.language.GraphQLNodes.printNode;
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode;
 
 import graphql.ExecutionInput;
 import graphql.language.Document;
@@ -16,6 +16,8 @@ public class Query {
     private final Object root;
     private final Map<String, Object> variables;
 
+    // printed lazily, once, the document isn't expected to change once the query is built
+    private volatile String printedQuery;
 
     private Query(Document query, String operationName, Object context, Object root, Map<String, Object> variables) {
         this.query = query;
@@ -26,7 +28,7 @@ public class Query {
     }
 
     public ExecutionInput asExecutionInput() {
-        return ExecutionInput.newExecutionInput(printNode(query))
+        return ExecutionInput.newExecutionInput(getPrintedQuery())
           .operationName(operationName)
           .context(context)
           .root(root)
@@ -38,6 +40,18 @@ public class Query {
         return query;
     }
 
+    /**
+     * @return the compact text of the query document, printed on first use and then reused, e.g. by retries
+     */
+    public String getPrintedQuery() {
+        String printed = printedQuery;
+        if (printed == null) {
+            printed = printCompactNode(query);
+            printedQuery = printed;
+        }
+        return printed;
+    }
+
     public String getOperationName() {
         return operationName;
     }
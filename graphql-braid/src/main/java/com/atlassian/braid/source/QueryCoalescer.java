@@ -0,0 +1,232 @@
+package com.atlassian.braid.source;
+
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode;
+import static graphql.language.OperationDefinition.Operation.QUERY;
+import static java.util.Collections.disjoint;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Coalesces the queries of all the batch loaders of a request targeting the same schema source during a single
+ * dispatch of the data loaders into one remote query. Queries are held while a {@link #dispatch(Runnable) dispatch}
+ * is running and executed once it is done, the top-level fields, variables and fragments of the queries of a same
+ * schema source and context being merged into a single operation, named after the first one. The result is then split
+ * back per query, by top-level field.
+ * <p>The batches of a request share the counter used to alias their fields and namespace their variables so that
+ * they don't collide. Only queries are coalesced, mutations are always executed on their own, as are queries that
+ * still collide, e.g. on top-level aliases, variables or fragment names.
+ */
+public final class QueryCoalescer {
+
+    private final Object lock = new Object();
+    private final Map<List<Object>, List<PendingQuery<?>>> pendingQueries = new LinkedHashMap<>();
+    private int dispatchDepth = 0;
+
+    /**
+     * Runs the dispatch of the data loaders, executing the queries of the batch loaders once done, coalesced by schema
+     * source. Nested dispatches are executed with the outermost one.
+     *
+     * @param dispatch the dispatch of the data loaders
+     */
+    public void dispatch(Runnable dispatch) {
+        synchronized (lock) {
+            dispatchDepth++;
+        }
+        try {
+            dispatch.run();
+        } finally {
+            final List<List<PendingQuery<?>>> queries;
+            synchronized (lock) {
+                if (--dispatchDepth == 0) {
+                    queries = new ArrayList<>(pendingQueries.values());
+                    pendingQueries.clear();
+                } else {
+                    queries = emptyList();
+                }
+            }
+            queries.forEach(QueryCoalescer::execute);
+        }
+    }
+
+    /**
+     * Executes the query, held until the end of the current dispatch if any
+     */
+    <C> CompletableFuture<DataFetcherResult<Map<String, Object>>> query(QueryFunction<C> queryFunction,
+                                                                         Query query, C context) {
+        if (getOperation(query).getOperation() == QUERY) {
+            synchronized (lock) {
+                if (dispatchDepth > 0) {
+                    final PendingQuery<C> pendingQuery = new PendingQuery<>(queryFunction, query, context);
+                    pendingQueries.computeIfAbsent(Arrays.asList(queryFunction, context), __ -> new ArrayList<>())
+                            .add(pendingQuery);
+                    return pendingQuery.result;
+                }
+            }
+        }
+        return queryFunction.query(query, context);
+    }
+
+    private static void execute(List<PendingQuery<?>> queries) {
+        final Query coalescedQuery = queries.size() > 1 ? coalesce(queries) : null;
+        if (coalescedQuery == null) {
+            queries.forEach(PendingQuery::execute);
+        } else {
+            queries.get(0).execute(coalescedQuery).whenComplete((result, error) -> {
+                for (PendingQuery<?> query : queries) {
+                    if (error != null) {
+                        query.result.completeExceptionally(error);
+                    } else {
+                        query.result.complete(split(result, query));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the coalesced query, {@code null} if the queries can't be coalesced
+     */
+    private static Query coalesce(List<PendingQuery<?>> queries) {
+        final List<Selection> selections = new ArrayList<>();
+        final Map<String, VariableDefinition> variableDefinitions = new LinkedHashMap<>();
+        final Map<String, Object> variables = new HashMap<>();
+        final Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        final Set<String> fieldKeys = new HashSet<>();
+
+        for (PendingQuery<?> query : queries) {
+            if (!disjoint(fieldKeys, query.fieldKeys)) {
+                return null;
+            }
+            fieldKeys.addAll(query.fieldKeys);
+            final OperationDefinition operation = getOperation(query.query);
+            selections.addAll(operation.getSelectionSet().getSelections());
+            for (VariableDefinition variableDefinition : operation.getVariableDefinitions()) {
+                final String name = variableDefinition.getName();
+                if (variableDefinitions.putIfAbsent(name, variableDefinition) != null
+                        && !Objects.equals(variables.get(name), query.query.getVariables().get(name))) {
+                    return null;
+                }
+            }
+            variables.putAll(query.query.getVariables());
+            for (Definition definition : query.query.getQuery().getDefinitions()) {
+                if (definition instanceof FragmentDefinition) {
+                    final FragmentDefinition fragment = (FragmentDefinition) definition;
+                    final FragmentDefinition existing = fragments.putIfAbsent(fragment.getName(), fragment);
+                    if (existing != null && existing != fragment
+                            && !printCompactNode(existing).equals(printCompactNode(fragment))) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        final Query first = queries.get(0).query;
+        final OperationDefinition operation = OperationDefinition.newOperationDefinition()
+                .name(first.getOperationName())
+                .operation(QUERY)
+                .variableDefinitions(new ArrayList<>(variableDefinitions.values()))
+                .selectionSet(SelectionSet.newSelectionSet(selections).build())
+                .build();
+        final Document document = Document.newDocument().build();
+        document.getDefinitions().add(operation);
+        document.getDefinitions().addAll(fragments.values());
+
+        return first.transform(builder -> builder.query(document).variables(variables));
+    }
+
+    /**
+     * @return the data of the top-level fields of the query, with the errors about them and the errors about no field
+     */
+    private static DataFetcherResult<Map<String, Object>> split(DataFetcherResult<Map<String, Object>> result,
+                                                                PendingQuery<?> query) {
+        Map<String, Object> data = null;
+        if (result.getData() != null) {
+            data = new HashMap<>();
+            for (String fieldKey : query.fieldKeys) {
+                if (result.getData().containsKey(fieldKey)) {
+                    data.put(fieldKey, result.getData().get(fieldKey));
+                }
+            }
+        }
+        final List<GraphQLError> errors = new ArrayList<>();
+        for (GraphQLError error : result.getErrors()) {
+            final List<Object> path = error.getPath();
+            if (path == null || path.isEmpty() || query.fieldKeys.contains(String.valueOf(path.get(0)))) {
+                errors.add(error);
+            }
+        }
+        return new DataFetcherResult<>(data, errors);
+    }
+
+    private static OperationDefinition getOperation(Query query) {
+        return query.getQuery().getDefinitions().stream()
+                .filter(definition -> definition instanceof OperationDefinition)
+                .map(OperationDefinition.class::cast)
+                .filter(operation -> query.getOperationName() == null
+                        || query.getOperationName().equals(operation.getName()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No operation found in query"));
+    }
+
+    private static final class PendingQuery<C> {
+        private final QueryFunction<C> queryFunction;
+        private final Query query;
+        private final C context;
+        private final Set<String> fieldKeys;
+        private final CompletableFuture<DataFetcherResult<Map<String, Object>>> result = new CompletableFuture<>();
+
+        private PendingQuery(QueryFunction<C> queryFunction, Query query, C context) {
+            this.queryFunction = requireNonNull(queryFunction);
+            this.query = requireNonNull(query);
+            this.context = context;
+            this.fieldKeys = getOperation(query).getSelectionSet().getSelections().stream()
+                    .filter(selection -> selection instanceof Field)
+                    .map(Field.class::cast)
+                    .map(field -> field.getAlias() != null ? field.getAlias() : field.getName())
+                    .collect(toSet());
+        }
+
+        private void execute() {
+            execute(query).whenComplete((data, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(data);
+                }
+            });
+        }
+
+        private CompletableFuture<DataFetcherResult<Map<String, Object>>> execute(Query query) {
+            try {
+                return queryFunction.query(query, context);
+            } catch (RuntimeException e) {
+                final CompletableFuture<DataFetcherResult<Map<String, Object>>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+        }
+    }
+}
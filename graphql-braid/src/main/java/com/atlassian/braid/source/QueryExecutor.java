@@ -1,9 +1,6 @@
 package com.atlassian.braid.source;
 
-import static com.atlassian.braid.graphql.language.DocumentTransformations.removeMissingFieldsIfBraidAndSourceTypeFieldsDiffer;
-import static com.atlassian.braid.graphql.language.DocumentTransformations.renameTypesToSourceNames;
 import static com.atlassian.braid.java.util.BraidCollectors.SingletonCharacteristics.ALLOW_MULTIPLE_OCCURRENCES;
-import static com.atlassian.braid.java.util.BraidCollectors.nullSafeToMap;
 import static com.atlassian.braid.java.util.BraidCollectors.singleton;
 import static graphql.language.OperationDefinition.Operation.MUTATION;
 import static graphql.language.OperationDefinition.Operation.QUERY;
@@ -24,6 +21,7 @@ import com.atlassian.braid.FieldTransformationContext;
 import com.atlassian.braid.SchemaSource;
 import com.atlassian.braid.TypeRename;
 import com.atlassian.braid.document.DocumentMapper.MappedDocument;
+import com.atlassian.braid.graphql.language.SourceDocumentRewriter;
 import com.atlassian.braid.java.util.BraidObjects;
 import com.atlassian.braid.transformation.BraidSchemaSource;
 import graphql.GraphQLError;
@@ -41,6 +39,7 @@ import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLType;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -49,7 +48,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.function.Function;
 import java.util.function.IntFunction;
 import org.dataloader.BatchLoader;
 
@@ -78,12 +76,13 @@ class QueryExecutor<C> implements BatchLoaderFactory {
         private final QueryFunction<C> queryFunction;
         private final BraidSchemaSource braidSchemaSource;
         private final BatchLoaderEnvironment batchLoaderEnvironment;
+        private volatile SourceDocumentRewriter documentRewriter;
 
         private QueryExecutorBatchLoader(QueryExecutorSchemaSource<C> schemaSource, QueryFunction<C> queryFunction,
                                          FieldTransformation fieldTransformation,
                                          BatchLoaderEnvironment batchLoaderEnvironment) {
             this.schemaSource = requireNonNull(schemaSource);
-            this.braidSchemaSource = new BraidSchemaSource(schemaSource);
+            this.braidSchemaSource = schemaSource.getBraidSchemaSource();
             this.fieldTransformation = fieldTransformation;
             this.queryFunction = requireNonNull(queryFunction);
             this.batchLoaderEnvironment = batchLoaderEnvironment;
@@ -91,19 +90,25 @@ class QueryExecutor<C> implements BatchLoaderFactory {
 
         @Override
         public CompletionStage<List<DataFetcherResult<Object>>> load(List<DataFetchingEnvironment> environments) {
-            return batchLoaderEnvironment == null || batchLoaderEnvironment.getQueryPartitionFunction() == null
-                    ? loadInternal(environments)
-                    : batchLoaderEnvironment.getQueryPartitionFunction().apply(environments, this::loadInternal);
+            final QueryPartitionFunction queryPartitionFunction = batchLoaderEnvironment == null
+                    ? null
+                    : batchLoaderEnvironment.getQueryPartitionFunction(schemaSource.getNamespace());
+            return queryPartitionFunction == null
+                    ? loadInternal(environments, true)
+                    // partitions are queried separately on purpose, they mustn't be coalesced back into one query
+                    : queryPartitionFunction.apply(environments, partition -> loadInternal(partition, false));
         }
 
-        private CompletionStage<List<DataFetcherResult<Object>>> loadInternal(List<DataFetchingEnvironment> environments) {
+        private CompletionStage<List<DataFetcherResult<Object>>> loadInternal(List<DataFetchingEnvironment> environments,
+                                                                               boolean coalesce) {
             final C context = checkAndGetContext(environments);
             final Operation operationType = checkAndGetOperationType(environments).orElse(QUERY);
             final GraphQLOutputType fieldOutputType = checkAndGetFieldOutputType(environments);
 
             OperationDefinition queryOp = newQueryOperationDefinition(braidSchemaSource, fieldOutputType, operationType);
 
-            FieldTransformationContext fieldTransformationContext = new FieldTransformationContext(schemaSource, queryOp);
+            FieldTransformationContext fieldTransformationContext = new FieldTransformationContext(schemaSource, queryOp,
+                    environments.get(0).getContext());
 
             // build batch queryResult
             CompletableFuture<Void>[] fieldFutures = environments.stream()
@@ -118,73 +123,101 @@ class QueryExecutor<C> implements BatchLoaderFactory {
                     .thenCompose(__ -> {
                         // Type rename must go after document mapper applied in order to have field rename and type rename work together.
                         MappedDocument mappedDocument = schemaSource.getDocumentMapper().apply(context, fieldTransformationContext.getDocument());
-                        Document renamedTypesDoc = renameTypesToSourceNames(braidSchemaSource, mappedDocument.getDocument());
-                        Document noMissingFieldsDoc = removeMissingFieldsIfBraidAndSourceTypeFieldsDiffer(fieldTransformationContext,
-                                renamedTypesDoc, fieldOutputType);
-
-                        mappedDocument = new MappedDocument(noMissingFieldsDoc, mappedDocument.getResultMapper());
-
-                        return queryAndHandleResult(environments, context, fieldOutputType, queryOp, fieldTransformationContext, mappedDocument);
+                        Document sourceDoc = getDocumentRewriter(fieldOutputType).rewrite(fieldTransformationContext, mappedDocument.getDocument());
+
+                        mappedDocument = mappedDocument.withDocument(sourceDoc);
+
+                        return queryAndHandleResult(environments, context, fieldOutputType, queryOp, fieldTransformationContext,
+                                mappedDocument, coalesce);
+                    })
+                    // link targets claimed by this batch must not be left pending if it failed before querying
+                    .whenComplete((__, error) -> {
+                        if (error != null) {
+                            fieldTransformationContext.completeLinkTargets(null, error);
+                        }
                     });
         }
 
+        /**
+         * @return the rewriter of the documents of this batch loader, whose field output type is always the same
+         */
+        private SourceDocumentRewriter getDocumentRewriter(GraphQLOutputType fieldOutputType) {
+            SourceDocumentRewriter rewriter = documentRewriter;
+            if (rewriter == null || !rewriter.isFor(fieldOutputType)) {
+                rewriter = new SourceDocumentRewriter(braidSchemaSource, fieldOutputType);
+                documentRewriter = rewriter;
+            }
+            return rewriter;
+        }
+
         private CompletionStage<List<DataFetcherResult<Object>>> queryAndHandleResult(List<DataFetchingEnvironment> environments,
                                                                                       C context, GraphQLOutputType fieldOutputType,
                                                                                       OperationDefinition queryOp,
                                                                                       FieldTransformationContext fieldTransformationContext,
-                                                                                      MappedDocument mappedDocument) {
-            return executeQuery(context, mappedDocument.getDocument(), queryOp, fieldTransformationContext.getVariables())
+                                                                                      MappedDocument mappedDocument,
+                                                                                      boolean coalesce) {
+            return executeQuery(context, mappedDocument.getDocument(), queryOp, fieldTransformationContext, coalesce)
                     .thenApply(result -> resultWithShortCircuitedData(fieldTransformationContext.getShortCircuitedData(), result))
                     .thenApply(result -> resultWithMappedData(mappedDocument, result))
+                    .thenApply(fieldTransformationContext::transformResult)
+                    .whenComplete(fieldTransformationContext::completeLinkTargets)
+                    .thenCompose(fieldTransformationContext::withReusedLinkTargets)
                     .thenApply(result -> transformBatchResultIntoResultList(environments, fieldTransformationContext.getClonedFields(), result))
-                    .thenApply(result -> result.stream()
-                            .map(dfr -> {
-                                if (fieldTransformationContext.getMissingFields().isEmpty()) {
-                                    return dfr;
-                                } else {
-                                    ((BraidContext) environments.get(0).getContext()).addMissingFields(unwrapAll(fieldOutputType).getName(), fieldTransformationContext.getMissingFields());
-                                    return dfr;
-                                }
-                            })
-                            .collect(toList()));
+                    .thenApply(result -> {
+                        if (!fieldTransformationContext.getMissingFields().isEmpty()) {
+                            ((BraidContext) environments.get(0).getContext()).addMissingFields(unwrapAll(fieldOutputType).getName(), fieldTransformationContext.getMissingFields());
+                        }
+                        return result;
+                    });
         }
 
+        /**
+         * Splits the batch result back per environment. Each environment gets the slot of its index in the batch, the
+         * aliases of its fields being mapped to that slot once, so that the data and errors of the batch are each
+         * routed to their environments in a single pass.
+         */
         private List<DataFetcherResult<Object>> transformBatchResultIntoResultList(
                 List<DataFetchingEnvironment> environments,
                 Map<DataFetchingEnvironment, List<FieldKey>> clonedFields,
                 DataFetcherResult<Map<FieldKey, Object>> result) {
-            List<DataFetcherResult<Object>> queryResults = new ArrayList<>();
-            Map<FieldKey, Object> data = result.getData();
-            for (DataFetchingEnvironment environment : environments) {
-                List<FieldKey> fields = clonedFields.get(environment);
+            final int size = environments.size();
+            final List<List<FieldKey>> fieldsBySlot = new ArrayList<>(size);
+            final Map<String, int[]> slotsByAlias = new HashMap<>(capacity(size));
+            for (int slot = 0; slot < size; slot++) {
+                final List<FieldKey> fields = clonedFields.get(environments.get(slot));
+                fieldsBySlot.add(fields);
+                for (FieldKey field : fields) {
+                    slotsByAlias.merge(field.getValue(), new int[]{slot}, QueryExecutor::appendSlot);
+                }
+            }
+            final List<List<GraphQLError>> errorsBySlot = routeErrors(result.getErrors(), slotsByAlias, size);
+
+            final List<DataFetcherResult<Object>> queryResults = new ArrayList<>(size);
+            final Map<FieldKey, Object> data = result.getData();
+            for (int slot = 0; slot < size; slot++) {
+                final DataFetchingEnvironment environment = environments.get(slot);
+                final List<FieldKey> fields = fieldsBySlot.get(slot);
+                final List<GraphQLError> errors = errorsBySlot.get(slot);
                 Object fieldData;
                 DataFetcherResult<Object> dataFetcherResult;
                 if (!fields.isEmpty()) {
-                    FieldKey field = fields.get(0);
-                    fieldData = BraidObjects.cast(data.getOrDefault(field, null));
+                    fieldData = BraidObjects.cast(data.get(fields.get(0)));
 
                     if (environment.getFieldType() instanceof GraphQLList && !(fieldData instanceof List)) {
-                        fieldData = fields.stream()
-                                .map(f -> BraidObjects.cast(data.getOrDefault(f, null)))
-                                .collect(toList());
+                        final List<Object> values = new ArrayList<>(fields.size());
+                        for (FieldKey field : fields) {
+                            values.add(data.get(field));
+                        }
+                        fieldData = values;
                     } else if (fields.size() > 1) {
                         throw new IllegalStateException("Can't query for multiple fields if the target type isn't a list");
                     }
-                    dataFetcherResult = new DataFetcherResult<>(
-                            fieldData,
-                            buildDataFetcherResultErrors(result, fields)
-                    );
+                    dataFetcherResult = new DataFetcherResult<>(fieldData, errors);
                 } else if (environment.getSource() instanceof Map &&
                         environment.<Map<String, Object>>getSource().get(environment.getFieldDefinition().getName()) instanceof List) {
-                    dataFetcherResult = new DataFetcherResult<>(
-                            emptyList(),
-                            buildDataFetcherResultErrors(result, fields)
-                    );
+                    dataFetcherResult = new DataFetcherResult<>(emptyList(), errors);
                 } else {
-                    dataFetcherResult = new DataFetcherResult<>(
-                            null,
-                            buildDataFetcherResultErrors(result, fields)
-                    );
+                    dataFetcherResult = new DataFetcherResult<>(null, errors);
                 }
                 dataFetcherResult = fieldTransformation.unapply(environment, dataFetcherResult);
                 queryResults.add(dataFetcherResult);
@@ -227,24 +260,32 @@ class QueryExecutor<C> implements BatchLoaderFactory {
                     .collect(singleton(ALLOW_MULTIPLE_OCCURRENCES));
         }
 
-        private CompletableFuture<DataFetcherResult<Map<String, Object>>> executeQuery(C context, Document doc, OperationDefinition queryOp, Map<String, Object> variables) {
+        private CompletableFuture<DataFetcherResult<Map<String, Object>>> executeQuery(C context, Document doc, OperationDefinition queryOp,
+                                                                                       FieldTransformationContext fieldTransformationContext,
+                                                                                       boolean coalesce) {
             final CompletableFuture<DataFetcherResult<Map<String, Object>>> queryResult;
             if (queryOp.getSelectionSet().getSelections().isEmpty()) {
                 queryResult = completedFuture(new DataFetcherResult<>(emptyMap(), emptyList()));
             } else {
-                Query input = executeBatchQuery(doc, queryOp.getName(), variables);
-                queryResult = queryFunction.query(input, context);
+                Query input = executeBatchQuery(doc, queryOp.getName(), fieldTransformationContext.getVariables());
+                queryResult = fieldTransformationContext.getQueryCoalescer()
+                        .filter(__ -> coalesce)
+                        .map(queryCoalescer -> queryCoalescer.query(queryFunction, input, context))
+                        .orElseGet(() -> queryFunction.query(input, context));
             }
             return queryResult;
         }
     }
 
     private static DataFetcherResult<Map<FieldKey, Object>> resultWithMappedData(MappedDocument mappedDocument, DataFetcherResult<Map<FieldKey, Object>> result) {
-        final Function<Map<String, Object>, Map<String, Object>> mapper = mappedDocument.getResultMapper();
+        if (!mappedDocument.isResultMapped()) {
+            // nothing to map, e.g. no document mapper is configured, so no need to copy the data back and forth
+            return result;
+        }
         final Map<String, Object> data = new HashMap<>();
         result.getData().forEach((key, value) -> data.put(key.getValue(), value));
 
-        final Map<String, Object> newData = mapper.apply(data);
+        final Map<String, Object> newData = mappedDocument.getResultMapper().apply(data);
 
         final Map<FieldKey, Object> resultData = new HashMap<>();
         newData.forEach((key, value) -> resultData.put(new FieldKey(key), value));
@@ -252,14 +293,17 @@ class QueryExecutor<C> implements BatchLoaderFactory {
     }
 
     private static DataFetcherResult<Map<FieldKey, Object>> resultWithShortCircuitedData(Map<FieldKey, Object> shortCircuitedData, DataFetcherResult<Map<String, Object>> result) {
-        final HashMap<FieldKey, Object> data = new HashMap<>();
-        Map<FieldKey, Object> dataByKey = result.getData().entrySet().stream()
-                .collect(nullSafeToMap(e -> new FieldKey(e.getKey()), Map.Entry::getValue));
-        data.putAll(dataByKey);
+        final Map<String, Object> resultData = result.getData();
+        final HashMap<FieldKey, Object> data = new HashMap<>(capacity(resultData.size() + shortCircuitedData.size()));
+        resultData.forEach((key, value) -> data.put(new FieldKey(key), value));
         data.putAll(shortCircuitedData);
         return new DataFetcherResult<>(data, result.getErrors());
     }
 
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+
     private static OperationDefinition newQueryOperationDefinition(BraidSchemaSource braidSchemaSource,
                                                                    GraphQLOutputType fieldType,
                                                                    Operation operationType) {
@@ -297,11 +341,41 @@ class QueryExecutor<C> implements BatchLoaderFactory {
     }
 
 
-    private static List<GraphQLError> buildDataFetcherResultErrors(DataFetcherResult<Map<FieldKey, Object>> result, List<FieldKey> fields) {
-        return result.getErrors().stream()
-                .filter(e -> e.getPath() == null || e.getPath().isEmpty()
-                        || fields.contains(new FieldKey(String.valueOf(e.getPath().get(0)))))
-                .map(RelativeGraphQLError::new)
-                .collect(toList());
+    /**
+     * Routes the errors of a batch to the slots of the environments whose fields they are about, errors about no field
+     * going to all environments, in the order of the batch errors
+     */
+    private static List<List<GraphQLError>> routeErrors(List<GraphQLError> errors, Map<String, int[]> slotsByAlias, int size) {
+        final List<List<GraphQLError>> errorsBySlot = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            errorsBySlot.add(new ArrayList<>(Math.min(errors.size(), 4)));
+        }
+        for (GraphQLError error : errors) {
+            final List<Object> path = error.getPath();
+            if (path == null || path.isEmpty()) {
+                errorsBySlot.forEach(slotErrors -> slotErrors.add(new RelativeGraphQLError(error)));
+            } else {
+                final int[] slots = slotsByAlias.get(String.valueOf(path.get(0)));
+                if (slots != null) {
+                    for (int slot : slots) {
+                        errorsBySlot.get(slot).add(new RelativeGraphQLError(error));
+                    }
+                }
+            }
+        }
+        return errorsBySlot;
+    }
+
+    /**
+     * Adds the slot of an environment to the slots of an alias, e.g. for link targets reused within a batch, an
+     * environment querying the same alias more than once only getting it once
+     */
+    private static int[] appendSlot(int[] slots, int[] slot) {
+        if (slots[slots.length - 1] == slot[0]) {
+            return slots;
+        }
+        final int[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+        newSlots[slots.length] = slot[0];
+        return newSlots;
     }
 }
@@ -12,24 +12,33 @@ import com.atlassian.braid.document.DocumentMapper;
 import com.atlassian.braid.document.DocumentMapperFactory;
 import com.atlassian.braid.document.DocumentMappers;
 import com.atlassian.braid.java.util.BraidObjects;
+import com.atlassian.braid.transformation.BraidSchemaSource;
 import graphql.GraphQLError;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import org.dataloader.BatchLoader;
+import org.dataloader.DataLoaderOptions;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.atlassian.braid.java.util.BraidObjects.cast;
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
 import static com.atlassian.braid.source.SchemaUtils.loadPublicSchema;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
@@ -44,13 +53,17 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
     private SchemaNamespace namespace;
     private TypeDefinitionRegistry publicSchema;
     private TypeDefinitionRegistry privateSchema;
-    private QueryExecutor<C> queryExecutor;
+    private final QueryExecutor<C> queryExecutor;
     private List<Link> links;
     private List<Extension> extensions;
     private DocumentMapperFactory documentMapperFactory;
     private List<TypeRename> typeRenames;
     private List<FieldRename> queryFieldRenames;
     private List<FieldRename> mutationFieldRenames;
+    private volatile BraidSchemaSource braidSchemaSource;
+    private volatile DocumentMapper<C> documentMapper;
+    private Map<String, DataLoaderOptions> topLevelDataLoaderOptions = Collections.emptyMap();
+    private int trimmedFieldCacheSize = BraidSchemaSource.DEFAULT_TRIMMED_FIELD_CACHE_SIZE;
 
     public QueryExecutorSchemaSource(SchemaNamespace namespace,
                                      TypeDefinitionRegistry publicSchema,
@@ -65,13 +78,13 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         this(namespace,
                 publicSchema,
                 privateSchema,
+                remoteQuery(graphQLRemoteRetriever),
                 links,
                 extensions,
                 documentMapperFactory,
                 typeRenames,
                 queryFieldRenames,
                 mutationFieldRenames);
-        this.queryExecutor = new QueryExecutor<>(remoteQuery(graphQLRemoteRetriever));
     }
 
     public QueryExecutorSchemaSource(SchemaNamespace namespace,
@@ -87,18 +100,19 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         this(namespace,
                 publicSchema,
                 privateSchema,
+                localQuery(localExecutor),
                 links,
                 extensions,
                 documentMapperFactory,
                 typeRenames,
                 queryFieldRenames,
                 mutationFieldRenames);
-        this.queryExecutor = new QueryExecutor<>(localQuery(localExecutor));
     }
 
     private QueryExecutorSchemaSource(SchemaNamespace namespace,
                                       TypeDefinitionRegistry publicSchema,
                                       TypeDefinitionRegistry privateSchema,
+                                      QueryFunction<C> queryFunction,
                                       List<Link> links,
                                       List<Extension> extensions,
                                       DocumentMapperFactory documentMapperFactory,
@@ -108,6 +122,7 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         this.namespace = namespace;
         this.publicSchema = publicSchema;
         this.privateSchema = privateSchema;
+        this.queryExecutor = new QueryExecutor<>(queryFunction);
         this.links = links;
         this.extensions = extensions;
         this.documentMapperFactory = documentMapperFactory;
@@ -123,7 +138,7 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         return queryExecutor.newBatchLoader(schemaSource, fieldTransformation, batchLoaderEnvironment);
     }
 
-    private QueryFunction<C> localQuery(Function<Query, Object> queryExecutor) {
+    private static <C> QueryFunction<C> localQuery(Function<Query, Object> queryExecutor) {
         return (query, context) -> {
             final Object result = queryExecutor.apply(transformExecutionInput(query, context));
             if (result instanceof DataFetcherResult) {
@@ -138,7 +153,7 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         };
     }
 
-    private Query transformExecutionInput(Query query, C context) {
+    private static <C> Query transformExecutionInput(Query query, C context) {
         return query.transform(builder -> builder.context(context));
     }
 
@@ -151,7 +166,7 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
     }
 
 
-    private QueryFunction<C> remoteQuery(GraphQLRemoteRetriever<C> graphQLRemoteRetriever) {
+    private static <C> QueryFunction<C> remoteQuery(GraphQLRemoteRetriever<C> graphQLRemoteRetriever) {
         return (query, context) ->
                 graphQLRemoteRetriever.queryGraphQL(query, context).thenApply(response -> {
 
@@ -172,8 +187,42 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
                 });
     }
 
+    private static <C> QueryFunction<C> streamingRemoteQuery(GraphQLStreamingRemoteRetriever<C> retriever,
+                                                             GraphQLResponseParser responseParser) {
+        return (query, context) ->
+                retriever.queryGraphQL(query, context).thenApply(body -> {
+                    try (InputStream in = body) {
+                        return responseParser.parse(in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @return the {@link BraidSchemaSource} of this schema source, indexing its renames and links and caching the
+     * trimmed selections of its fields, created once and shared by all its queries
+     */
+    public BraidSchemaSource getBraidSchemaSource() {
+        BraidSchemaSource source = braidSchemaSource;
+        if (source == null) {
+            source = new BraidSchemaSource(this, trimmedFieldCacheSize);
+            braidSchemaSource = source;
+        }
+        return source;
+    }
+
+    /**
+     * @return the document mapper of this schema source, created once and shared by all its queries so that they share
+     * its mapped documents
+     */
     public DocumentMapper<C> getDocumentMapper() {
-        return documentMapperFactory.apply(getSchema());
+        DocumentMapper<C> mapper = documentMapper;
+        if (mapper == null) {
+            mapper = documentMapperFactory.apply(getSchema());
+            documentMapper = mapper;
+        }
+        return mapper;
     }
 
     @Override
@@ -216,6 +265,11 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         return queryFieldRenames;
     }
 
+    @Override
+    public Map<String, DataLoaderOptions> getTopLevelDataLoaderOptions() {
+        return topLevelDataLoaderOptions;
+    }
+
 
     public static class Builder<C> {
 
@@ -225,10 +279,14 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
         private SchemaNamespace schemaNamespace;
         private DocumentMapperFactory documentMapperFactory = DocumentMappers.identity();
         private GraphQLRemoteRetriever<C> remoteRetriever;
+        private GraphQLStreamingRemoteRetriever<C> streamingRemoteRetriever;
+        private GraphQLResponseParser responseParser;
         private List<FieldRename> queryFieldRenames = emptyList();
         private List<FieldRename> mutationFieldRenames = emptyList();
         private List<TypeRename> typeRenames = emptyList();
         private Function<Query, Object> localRetriever;
+        private final Map<String, DataLoaderOptions> topLevelDataLoaderOptions = new HashMap<>();
+        private int trimmedFieldCacheSize = BraidSchemaSource.DEFAULT_TRIMMED_FIELD_CACHE_SIZE;
 
         private Builder() {
         }
@@ -285,6 +343,21 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
             return this;
         }
 
+        /**
+         * Retrieves the response body of queries as a stream, parsed as it is read, rather than as a map, see
+         * {@link #remoteRetriever(GraphQLRemoteRetriever)}
+         *
+         * @param streamingRemoteRetriever the retriever of the response bodies
+         * @param responseParser           the parser of the response bodies, e.g.
+         *                                 {@link com.atlassian.braid.source.jackson.JacksonGraphQLResponseParser}
+         */
+        public Builder<C> streamingRemoteRetriever(GraphQLStreamingRemoteRetriever<C> streamingRemoteRetriever,
+                                                   GraphQLResponseParser responseParser) {
+            this.streamingRemoteRetriever = requireNonNull(streamingRemoteRetriever);
+            this.responseParser = requireNonNull(responseParser);
+            return this;
+        }
+
         public Builder<C> localRetriever(Function<Query, Object> queryExecutor) {
             this.localRetriever = queryExecutor;
             return this;
@@ -295,9 +368,56 @@ public class QueryExecutorSchemaSource<C> implements SchemaSource {
             return this;
         }
 
+        /**
+         * @param fieldName the source name of the top-level query or mutation field
+         * @param options   the options of the data loader fetching the field
+         */
+        public Builder<C> topLevelDataLoaderOptions(String fieldName, DataLoaderOptions options) {
+            this.topLevelDataLoaderOptions.put(requireNonNull(fieldName), requireNonNull(options));
+            return this;
+        }
+
+        public Builder<C> topLevelDataLoaderOptions(Map<String, DataLoaderOptions> options) {
+            this.topLevelDataLoaderOptions.putAll(requireNonNull(options));
+            return this;
+        }
+
+        /**
+         * @param trimmedFieldCacheSize the maximum number of trimmed field selections cached, {@code 0} to disable the
+         *                              cache, see {@link BraidSchemaSource#getTrimmedFieldCacheStats()}
+         */
+        public Builder<C> trimmedFieldCacheSize(int trimmedFieldCacheSize) {
+            checkState(trimmedFieldCacheSize >= 0, "trimmedFieldCacheSize must not be negative, was %s", trimmedFieldCacheSize);
+            this.trimmedFieldCacheSize = trimmedFieldCacheSize;
+            return this;
+        }
+
         public QueryExecutorSchemaSource<C> build() {
-            if (localRetriever != null && remoteRetriever != null) {
-                throw new IllegalStateException("not allowed to have a localRetriever and a remoteRetriever");
+            final QueryExecutorSchemaSource<C> schemaSource = newSchemaSource();
+            schemaSource.topLevelDataLoaderOptions = Collections.unmodifiableMap(new HashMap<>(topLevelDataLoaderOptions));
+            schemaSource.trimmedFieldCacheSize = trimmedFieldCacheSize;
+            return schemaSource;
+        }
+
+        private QueryExecutorSchemaSource<C> newSchemaSource() {
+            if (Stream.of(localRetriever, remoteRetriever, streamingRemoteRetriever).filter(Objects::nonNull).count() > 1) {
+                throw new IllegalStateException("only one of localRetriever, remoteRetriever and streamingRemoteRetriever is allowed");
+            }
+            if (streamingRemoteRetriever != null) {
+                return new QueryExecutorSchemaSource<C>(
+                        requireNonNull(schemaNamespace),
+                        loadPublicSchema(
+                                requireNonNull(schemaLoader),
+                                requireNonNull(links),
+                                queryFieldRenames.stream().map(FieldRename::getSourceName).toArray(String[]::new)),
+                        schemaLoader.load(),
+                        streamingRemoteQuery(streamingRemoteRetriever, responseParser),
+                        requireNonNull(links),
+                        requireNonNull(extensions),
+                        requireNonNull(documentMapperFactory),
+                        requireNonNull(typeRenames),
+                        requireNonNull(queryFieldRenames),
+                        requireNonNull(mutationFieldRenames));
             }
             if (localRetriever != null) {
                 return new QueryExecutorSchemaSource<C>(
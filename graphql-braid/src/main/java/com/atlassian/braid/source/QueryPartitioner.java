@@ -0,0 +1,254 @@
+package com.atlassian.braid.source;
+
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ready-made {@link QueryPartitionFunction}s, splitting the environments of a batch into partitions queried
+ * separately, e.g. to keep the documents sent to a schema source under its size limits. The partitions of a batch are
+ * queried concurrently, optionally limited with {@link #withMaxConcurrency(int)}, and their results are merged back
+ * in the order of the environments of the batch.
+ * <p>The concurrency limit applies to all the batches using this partitioner, so a partitioner would typically be
+ * configured per schema source namespace, see
+ * {@link com.atlassian.braid.BatchLoaderEnvironmentBuilder#queryPartitionFunction(com.atlassian.braid.SchemaNamespace, QueryPartitionFunction)}.
+ */
+public final class QueryPartitioner implements QueryPartitionFunction {
+
+    private final Function<List<DataFetchingEnvironment>, List<List<Integer>>> partitionFunction;
+    private final ConcurrencyLimit concurrencyLimit; // null when not limited
+
+    private QueryPartitioner(Function<List<DataFetchingEnvironment>, List<List<Integer>>> partitionFunction,
+                             ConcurrencyLimit concurrencyLimit) {
+        this.partitionFunction = requireNonNull(partitionFunction);
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    /**
+     * Partitions batches so that each query has at most the given number of top-level fields, i.e. aliases, counting
+     * one field per environment
+     *
+     * @param maxAliases the maximum number of aliases per query
+     * @return a partitioner
+     */
+    public static QueryPartitioner byMaxAliases(int maxAliases) {
+        return byMaxAliases(maxAliases, __ -> 1);
+    }
+
+    /**
+     * Partitions batches so that each query has at most the given number of top-level fields, i.e. aliases. An
+     * environment is never split, one that has more aliases than the maximum is queried on its own.
+     *
+     * @param maxAliases the maximum number of aliases per query
+     * @param aliases    the number of aliases queried for an environment, e.g. the number of ids of a link
+     * @return a partitioner
+     */
+    public static QueryPartitioner byMaxAliases(int maxAliases, ToIntFunction<DataFetchingEnvironment> aliases) {
+        requireNonNull(aliases);
+        return byMaxWeight(maxAliases, aliases::applyAsInt);
+    }
+
+    /**
+     * Partitions batches so that the estimated size of the response of each query is at most the given size. An
+     * environment is never split, one whose estimated size is more than the maximum is queried on its own.
+     *
+     * @param maxSize       the maximum estimated response size per query, in the unit of the estimates
+     * @param estimatedSize the estimated size of the response for an environment
+     * @return a partitioner
+     */
+    public static QueryPartitioner byEstimatedResponseSize(long maxSize,
+                                                           ToLongFunction<DataFetchingEnvironment> estimatedSize) {
+        return byMaxWeight(maxSize, requireNonNull(estimatedSize));
+    }
+
+    /**
+     * Partitions batches by key, each query only querying the environments of a given key, e.g. a tenant or shard
+     * taken from the context of the environments. Partitions are queried in the order their keys first appear.
+     *
+     * @param key the key of an environment, {@code null} keys being a partition of their own
+     * @return a partitioner
+     */
+    public static QueryPartitioner byKey(Function<DataFetchingEnvironment, ?> key) {
+        requireNonNull(key);
+        return new QueryPartitioner(environments -> {
+            final Map<Object, List<Integer>> partitions = new LinkedHashMap<>();
+            for (int i = 0; i < environments.size(); i++) {
+                partitions.computeIfAbsent(key.apply(environments.get(i)), __ -> new ArrayList<>()).add(i);
+            }
+            return new ArrayList<>(partitions.values());
+        }, null);
+    }
+
+    private static QueryPartitioner byMaxWeight(long maxWeight, ToLongFunction<DataFetchingEnvironment> weight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("The maximum per partition must be positive: " + maxWeight);
+        }
+        return new QueryPartitioner(environments -> {
+            final List<List<Integer>> partitions = new ArrayList<>();
+            List<Integer> partition = new ArrayList<>();
+            long partitionWeight = 0;
+            for (int i = 0; i < environments.size(); i++) {
+                final long environmentWeight = weight.applyAsLong(environments.get(i));
+                if (!partition.isEmpty() && partitionWeight + environmentWeight > maxWeight) {
+                    partitions.add(partition);
+                    partition = new ArrayList<>();
+                    partitionWeight = 0;
+                }
+                partition.add(i);
+                partitionWeight += environmentWeight;
+            }
+            if (!partition.isEmpty()) {
+                partitions.add(partition);
+            }
+            return partitions;
+        }, null);
+    }
+
+    /**
+     * @param maxConcurrency the maximum number of partitions queried at the same time, across all the batches using the
+     *                       returned partitioner
+     * @return a copy of this partitioner, limiting the number of partitions queried concurrently
+     */
+    public QueryPartitioner withMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive: " + maxConcurrency);
+        }
+        return new QueryPartitioner(partitionFunction, new ConcurrencyLimit(maxConcurrency));
+    }
+
+    @Override
+    public CompletionStage<List<DataFetcherResult<Object>>> apply(List<DataFetchingEnvironment> environments,
+                                                                  Function<List<DataFetchingEnvironment>, CompletionStage<List<DataFetcherResult<Object>>>> queryLoadFn) {
+        final List<List<Integer>> partitions = environments.isEmpty()
+                ? new ArrayList<>()
+                : partitionFunction.apply(environments);
+        if (partitions.size() == 1 && concurrencyLimit == null) {
+            return queryLoadFn.apply(environments);
+        }
+
+        final CompletableFuture<?>[] partitionResults = new CompletableFuture<?>[partitions.size()];
+        final DataFetcherResult<?>[] results = new DataFetcherResult<?>[environments.size()];
+        for (int p = 0; p < partitions.size(); p++) {
+            final List<Integer> partition = partitions.get(p);
+            final List<DataFetchingEnvironment> partitionEnvironments = new ArrayList<>(partition.size());
+            partition.forEach(i -> partitionEnvironments.add(environments.get(i)));
+
+            partitionResults[p] = run(() -> queryLoadFn.apply(partitionEnvironments))
+                    .thenAccept(partitionResult -> {
+                        if (partitionResult.size() != partition.size()) {
+                            throw new IllegalStateException("Expected " + partition.size() + " results for the partition, got " + partitionResult.size());
+                        }
+                        for (int i = 0; i < partition.size(); i++) {
+                            results[partition.get(i)] = partitionResult.get(i);
+                        }
+                    });
+        }
+        return CompletableFuture.allOf(partitionResults).thenApply(__ -> {
+            @SuppressWarnings("unchecked") final List<DataFetcherResult<Object>> resultList =
+                    (List<DataFetcherResult<Object>>) (List<?>) Arrays.asList(results);
+            return resultList;
+        });
+    }
+
+    private CompletableFuture<List<DataFetcherResult<Object>>> run(
+            Supplier<CompletionStage<List<DataFetcherResult<Object>>>> query) {
+        return concurrencyLimit == null ? start(query) : concurrencyLimit.run(query);
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletionStage<T>> query) {
+        try {
+            return query.get().toCompletableFuture();
+        } catch (RuntimeException e) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * The partitions waiting for a query to complete before being queried, when the maximum concurrency is reached
+     */
+    private static final class ConcurrencyLimit {
+        private final int maxConcurrency;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int running = 0;
+        // the releases left to process by the release loop of the current thread, null outside of it
+        private final ThreadLocal<int[]> pendingReleases = new ThreadLocal<>();
+
+        private ConcurrencyLimit(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        private <T> CompletableFuture<T> run(Supplier<CompletionStage<T>> query) {
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            final Runnable task = () -> start(query).whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            final boolean startNow;
+            synchronized (this) {
+                startNow = running < maxConcurrency;
+                if (startNow) {
+                    running++;
+                } else {
+                    waiting.add(task);
+                }
+            }
+            if (startNow) {
+                task.run();
+            }
+            return result;
+        }
+
+        /**
+         * Starts the next waiting partition, if any. Partitions whose query completes synchronously release from
+         * within the start of the previous one, those releases are looped over by the outermost one rather than
+         * growing the stack with each partition.
+         */
+        private void release() {
+            final int[] pending = pendingReleases.get();
+            if (pending != null) {
+                pending[0]++;
+                return;
+            }
+            final int[] releases = {1};
+            pendingReleases.set(releases);
+            try {
+                while (releases[0] > 0) {
+                    releases[0]--;
+                    final Runnable next;
+                    synchronized (this) {
+                        next = waiting.poll();
+                        if (next == null) {
+                            running--;
+                        }
+                    }
+                    if (next != null) {
+                        next.run();
+                    }
+                }
+            } finally {
+                pendingReleases.remove();
+            }
+        }
+    }
+}
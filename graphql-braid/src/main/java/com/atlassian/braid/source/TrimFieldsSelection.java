@@ -26,7 +26,6 @@ import graphql.schema.GraphQLObjectType;
 import graphql.util.TraversalControl;
 import graphql.util.TraverserContext;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -43,8 +42,14 @@ public class TrimFieldsSelection {
                                                               DataFetchingEnvironment environment,
                                                               Node root,
                                                               boolean ignoreFirstField) {
+        return trimFieldSelection(BraidSchemaSource.of(schemaSource), environment, root, ignoreFirstField);
+    }
+
+    public static List<FragmentDefinition> trimFieldSelection(BraidSchemaSource braidSchemaSource,
+                                                              DataFetchingEnvironment environment,
+                                                              Node root,
+                                                              boolean ignoreFirstField) {
         List<FieldWithLink> fieldWithLinks = new ArrayList<>();
-        BraidSchemaSource braidSchemaSource = new BraidSchemaSource(schemaSource);
 
         QueryVisitor nodeVisitor = new QueryVisitorStub() {
 
@@ -59,8 +64,7 @@ public class TrimFieldsSelection {
                 if (isFirstField && ignoreFirstField) {
                     return;
                 }
-                Optional<Link> linkForField = getLinkForField(braidSchemaSource, schemaSource.getLinks(),
-                        parentFieldsContainer.getName(), field.getName());
+                Optional<Link> linkForField = braidSchemaSource.getLinkForField(parentFieldsContainer.getName(), field.getName());
 
                 linkForField.ifPresent(link -> {
                             SelectionSet parentSelectionSet = Optional.ofNullable(env.getSelectionSetContainer())
@@ -161,17 +165,6 @@ public class TrimFieldsSelection {
                 .forEach(frag -> getReferencedFragments(frag, fragmentDefinitionMap, referencedFragments));
     }
 
-    private static Optional<Link> getLinkForField(BraidSchemaSource braidSchemaSource,
-                                                  Collection<Link> links,
-                                                  String typeName,
-                                                  String fieldName) {
-        return links.stream()
-                .filter(l -> braidSchemaSource.getLinkBraidSourceType(l).equals(typeName)
-                        && l.getNewFieldName().equals(fieldName))
-                .findFirst();
-    }
-
-
     private static class FieldWithLink {
         public Field field;
         public final Link link;
@@ -0,0 +1,103 @@
+package com.atlassian.braid.source.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The HTTP plumbing of the retrievers of this package, making sure responses are always read fully so that the
+ * JDK can put their connections back into its keep-alive cache
+ */
+final class HttpConnections {
+
+    static final String JSON = "application/json";
+    static final String GZIP = "gzip";
+
+    private HttpConnections() {
+    }
+
+    /**
+     * @return a connection to the given URL, accepting gzipped JSON responses, with the given headers set in order
+     */
+    @SafeVarargs
+    static HttpURLConnection open(URL url, String method, Duration connectTimeout, Duration readTimeout,
+                                  Map<String, String>... headers) throws IOException {
+        final URLConnection urlConnection = url.openConnection();
+        if (!(urlConnection instanceof HttpURLConnection)) {
+            throw new IOException("Expected an HTTP endpoint: " + url);
+        }
+        final HttpURLConnection connection = (HttpURLConnection) urlConnection;
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(toMillis(connectTimeout));
+        connection.setReadTimeout(toMillis(readTimeout));
+        connection.setRequestProperty("Accept", JSON);
+        connection.setRequestProperty("Accept-Encoding", GZIP);
+        for (Map<String, String> requestHeaders : headers) {
+            if (requestHeaders != null) {
+                requestHeaders.forEach(connection::setRequestProperty);
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * @return the body of a successful response, ungzipped if needed, reading what's left of it when closed
+     * @throws IOException if the response isn't successful, its body being read and discarded
+     */
+    static InputStream responseBody(HttpURLConnection connection) throws IOException {
+        final int status = connection.getResponseCode();
+        if (status < 200 || status >= 300) {
+            final InputStream error = connection.getErrorStream();
+            if (error != null) {
+                try (InputStream in = error) {
+                    drain(in);
+                }
+            }
+            throw new IOException("Failed to query " + connection.getURL() + ", HTTP status: " + status);
+        }
+
+        final InputStream in = new DrainingInputStream(connection.getInputStream());
+        return GZIP.equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(in) : in;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        final byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // discard
+        }
+    }
+
+    private static int toMillis(Duration duration) {
+        return duration == null ? 0 : (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+
+    /**
+     * Reads what is left of the response when closed, parsers may stop before its end
+     */
+    private static final class DrainingInputStream extends FilterInputStream {
+        private boolean closed = false;
+
+        private DrainingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                drain(in);
+            } finally {
+                super.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.atlassian.braid.source.http;
+
+import com.atlassian.braid.BraidContext;
+import com.atlassian.braid.source.yaml.RestRemoteRetriever;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static com.atlassian.braid.source.http.HttpConnections.open;
+import static com.atlassian.braid.source.http.HttpConnections.responseBody;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Retrieves JSON objects from a REST service over HTTP, for {@link com.atlassian.braid.source.yaml.RestRemoteSchemaSource}s,
+ * with headers that may depend on the context of the execution, e.g. to forward the authentication of the user.
+ * <p>Requests are sent with the JDK's blocking {@link java.net.HttpURLConnection}, off the calling thread: each
+ * request blocks a thread of the given executor until its response is received, so the executor bounds the number of
+ * requests in flight and is to be sized for the REST services. Connections are kept alive and reused between requests
+ * to the same host and responses are requested gzipped.
+ * <p>Requires {@code jackson-databind} to read the responses.
+ */
+public final class HttpRestRemoteRetriever<C> implements RestRemoteRetriever<C> {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> headers;
+    private final Function<C, Map<String, String>> contextHeaders;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Executor executor;
+
+    private HttpRestRemoteRetriever(Builder<C> builder) {
+        this.objectMapper = builder.objectMapper;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.contextHeaders = builder.contextHeaders;
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.executor = builder.executor;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> get(URL url, BraidContext<C> context) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = responseBody(open(url, "GET", connectTimeout, readTimeout, headers,
+                    contextHeaders == null ? null : contextHeaders.apply(context.getContext())))) {
+                @SuppressWarnings("unchecked") final Map<String, Object> response = objectMapper.readValue(in, Map.class);
+                return response;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    public static final class Builder<C> {
+        private ObjectMapper objectMapper = new ObjectMapper();
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private Function<C, Map<String, String>> contextHeaders;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        /**
+         * @param name  the name of a header sent with every request
+         * @param value the value of the header
+         * @return this builder
+         */
+        public Builder<C> header(String name, String value) {
+            this.headers.put(requireNonNull(name), requireNonNull(value));
+            return this;
+        }
+
+        /**
+         * @param contextHeaders the headers sent with the requests of the context of an execution, overriding the
+         *                       headers set with {@link #header(String, String)}
+         * @return this builder
+         */
+        public Builder<C> headers(Function<C, Map<String, String>> contextHeaders) {
+            this.contextHeaders = requireNonNull(contextHeaders);
+            return this;
+        }
+
+        public Builder<C> connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = requireNonNull(connectTimeout);
+            return this;
+        }
+
+        public Builder<C> readTimeout(Duration readTimeout) {
+            this.readTimeout = requireNonNull(readTimeout);
+            return this;
+        }
+
+        /**
+         * @param executor the executor sending the requests and blocking while waiting for their responses, required
+         * @return this builder
+         */
+        public Builder<C> executor(Executor executor) {
+            this.executor = requireNonNull(executor);
+            return this;
+        }
+
+        public Builder<C> objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = requireNonNull(objectMapper);
+            return this;
+        }
+
+        public HttpRestRemoteRetriever<C> build() {
+            requireNonNull(executor, "executor");
+            return new HttpRestRemoteRetriever<>(this);
+        }
+    }
+}
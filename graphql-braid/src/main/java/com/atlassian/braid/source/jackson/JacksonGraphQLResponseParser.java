@@ -0,0 +1,85 @@
+package com.atlassian.braid.source.jackson;
+
+import com.atlassian.braid.source.GraphQLResponseParser;
+import com.atlassian.braid.source.MapGraphQLError;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parses GraphQL responses with the Jackson streaming API. Each top-level field of the {@code data} object is read
+ * straight into the data map of the result and the {@code errors} into {@link MapGraphQLError}s, without building a
+ * map of the whole response first. Other members, such as {@code extensions}, are skipped.
+ */
+public class JacksonGraphQLResponseParser implements GraphQLResponseParser {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonGraphQLResponseParser() {
+        this(new ObjectMapper());
+    }
+
+    public JacksonGraphQLResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = requireNonNull(objectMapper);
+    }
+
+    @Override
+    public DataFetcherResult<Map<String, Object>> parse(InputStream body) throws IOException {
+        Map<String, Object> data = Collections.emptyMap();
+        List<GraphQLError> errors = Collections.emptyList();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if ("data".equals(name) && token == JsonToken.START_OBJECT) {
+                    data = readData(parser);
+                } else if ("errors".equals(name) && token == JsonToken.START_ARRAY) {
+                    errors = readErrors(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new DataFetcherResult<>(data, errors);
+    }
+
+    private static Map<String, Object> readData(JsonParser parser) throws IOException {
+        final Map<String, Object> data = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String alias = parser.getCurrentName();
+            parser.nextToken();
+            data.put(alias, parser.readValueAs(Object.class));
+        }
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GraphQLError> readErrors(JsonParser parser) throws IOException {
+        final List<GraphQLError> errors = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+            errors.add(new MapGraphQLError(parser.readValueAs(Map.class)));
+        }
+        return errors;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Invalid GraphQL response, expected " + expected + " but got " + actual
+                    + " at " + parser.getCurrentLocation());
+        }
+    }
+}
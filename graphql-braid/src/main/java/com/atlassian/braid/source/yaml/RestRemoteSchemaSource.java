@@ -7,6 +7,7 @@ import com.atlassian.braid.Link;
 import com.atlassian.braid.SchemaNamespace;
 import com.atlassian.braid.SchemaSource;
 import com.atlassian.braid.source.AbstractSchemaSource;
+import com.atlassian.braid.source.QueryPartitionFunction;
 import com.atlassian.braid.source.ReaderSupplierSchemaLoader;
 import com.atlassian.braid.source.SchemaLoader;
 import com.atlassian.braid.transformation.LinkTransformation;
@@ -21,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -45,7 +47,7 @@ public final class RestRemoteSchemaSource<C> extends AbstractSchemaSource {
     /**
      * A RootField is an entity that is fetched from an invocation to the remoteRetriever. It is looked up
      * by name from the query and parameters from the environment are templated into the uri using a {} parameter
-     * format.
+     * format, see {@link UriTemplate}.
      * <p>
      * The response is converted by the mapper to allow manipulation of fields for example renaming after retrieval.
      */
@@ -53,11 +55,13 @@ public final class RestRemoteSchemaSource<C> extends AbstractSchemaSource {
         String name;
         String uri;
         Function<Map<String, Object>, Map<String, Object>> mapper;
+        final UriTemplate uriTemplate;
 
         public RootField(String name, String uri, Function<Map<String, Object>, Map<String, Object>> mapper) {
             this.name = name;
             this.uri = uri;
             this.mapper = mapper;
+            this.uriTemplate = UriTemplate.parse(uri);
         }
     }
 
@@ -102,43 +106,54 @@ public final class RestRemoteSchemaSource<C> extends AbstractSchemaSource {
     public BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> newBatchLoader(SchemaSource schemaSource,
                                                                                           FieldTransformation fieldTransformation,
                                                                                           BatchLoaderEnvironment batchLoaderEnvironment) {
-        if (batchLoaderEnvironment != null) {
-            throw new UnsupportedOperationException("batchLoaderEnvironment on Rest is not supported");
-        }
-        return environments -> {
-            List<CompletableFuture<DataFetcherResult<Object>>> results = new ArrayList<>();
-            for (DataFetchingEnvironment env : environments) {
-
-                String uri;
-                Function<Map<String, Object>, Map<String, Object>> mapper;
-
-                if (fieldTransformation instanceof LinkTransformation) {
-                    Link link = ((LinkTransformation) fieldTransformation).getLink();
-                    Map<String, Object> source = env.getSource();
-                    RootField field = rootFields.get(link.getTopLevelQueryField());
-                    String id = (String) source.get(link.getSourceInputFieldName());
-                    uri = replaceParams(singletonMap(link.getQueryArgumentName(), id), field.uri);
-                    mapper = field.mapper;
-                } else {
-                    RootField field = rootFields.get(env.getFieldDefinition().getName());
-                    uri = replaceParams(env.getArguments(), field.uri);
-                    mapper = field.mapper;
-                }
-
-                URL url;
-                try {
-                    url = new URL(uri);
-                } catch (MalformedURLException e) {
-                    throw new RuntimeException(e);
-                }
-                results.add(remoteRetriever.get(url, env.getContext())
-                        .thenApply(mapper)
-                        .thenApply(response -> new DataFetcherResult<>(response, emptyList())));
+        final QueryPartitionFunction queryPartitionFunction = batchLoaderEnvironment == null
+                ? null
+                : batchLoaderEnvironment.getQueryPartitionFunction(getNamespace());
+        final Function<List<DataFetchingEnvironment>, CompletionStage<List<DataFetcherResult<Object>>>> loader =
+                environments -> load(fieldTransformation, environments);
+        return queryPartitionFunction == null
+                ? loader::apply
+                : environments -> queryPartitionFunction.apply(environments, loader);
+    }
+
+    private CompletableFuture<List<DataFetcherResult<Object>>> load(FieldTransformation fieldTransformation,
+                                                                    List<DataFetchingEnvironment> environments) {
+        List<CompletableFuture<DataFetcherResult<Object>>> results = new ArrayList<>();
+        for (DataFetchingEnvironment env : environments) {
+
+            String uri;
+            Function<Map<String, Object>, Map<String, Object>> mapper;
+
+            if (fieldTransformation instanceof LinkTransformation) {
+                Link link = ((LinkTransformation) fieldTransformation).getLink();
+                Map<String, Object> source = env.getSource();
+                RootField field = rootFields.get(link.getTopLevelQueryField());
+                String id = (String) source.get(link.getSourceInputFieldName());
+                uri = field.uriTemplate.expand(singletonMap(link.getQueryArgumentName(), id));
+                mapper = field.mapper;
+            } else {
+                RootField field = rootFields.get(env.getFieldDefinition().getName());
+                uri = field.uriTemplate.expand(env.getArguments());
+                mapper = field.mapper;
             }
-            return allOf(results);
-        };
+
+            URL url;
+            try {
+                url = new URL(uri);
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+            results.add(remoteRetriever.get(url, env.getContext())
+                    .thenApply(mapper)
+                    .thenApply(response -> new DataFetcherResult<>(response, emptyList())));
+        }
+        return allOf(results);
     }
 
+    /**
+     * @deprecated parameter values aren't encoded, use {@link UriTemplate} instead
+     */
+    @Deprecated
     public static String replaceParams(Map<String, Object> hashMap, String template) {
         return hashMap.entrySet().stream()
                 .filter(e -> e.getValue() != null)
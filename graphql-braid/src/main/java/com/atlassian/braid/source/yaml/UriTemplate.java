@@ -0,0 +1,119 @@
+package com.atlassian.braid.source.yaml;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A URI template with {@code {name}} parameters, parsed once into its literal and parameter segments and then expanded
+ * in a single pass. Parameter values are percent-encoded as UTF-8, all but the unreserved characters for
+ * {@code {name}}, and all but the unreserved and reserved characters for {@code {+name}}, e.g. for values that are
+ * paths, as for the simple and reserved expansions of RFC 6570. Missing and {@code null} parameters expand to nothing.
+ */
+public final class UriTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final String RESERVED = ":/?#[]@!$&'()*+,;=";
+
+    private final String template;
+    private final String[] literals; // one more than the parameters, the literal before each then the last one
+    private final String[] parameters;
+    private final boolean[] reserved;
+
+    private UriTemplate(String template, List<String> literals, List<String> parameters, List<Boolean> reserved) {
+        this.template = template;
+        this.literals = literals.toArray(new String[0]);
+        this.parameters = parameters.toArray(new String[0]);
+        this.reserved = new boolean[reserved.size()];
+        for (int i = 0; i < this.reserved.length; i++) {
+            this.reserved[i] = reserved.get(i);
+        }
+    }
+
+    /**
+     * @param template the template, braces that don't enclose a parameter name being literals
+     * @return the parsed template
+     */
+    public static UriTemplate parse(String template) {
+        requireNonNull(template);
+        final List<String> literals = new ArrayList<>();
+        final List<String> parameters = new ArrayList<>();
+        final List<Boolean> reserved = new ArrayList<>();
+
+        final StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < template.length()) {
+            final int open = template.indexOf('{', i);
+            final int close = open < 0 ? -1 : template.indexOf('}', open);
+            if (close < 0) {
+                literal.append(template, i, template.length());
+                break;
+            }
+            final boolean reservedExpansion = close > open + 1 && template.charAt(open + 1) == '+';
+            final String name = template.substring(reservedExpansion ? open + 2 : open + 1, close);
+            if (name.isEmpty() || name.indexOf('{') >= 0) {
+                literal.append(template, i, open + 1);
+                i = open + 1;
+                continue;
+            }
+            literal.append(template, i, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            parameters.add(name);
+            reserved.add(reservedExpansion);
+            i = close + 1;
+        }
+        literals.add(literal.toString());
+        return new UriTemplate(template, literals, parameters, reserved);
+    }
+
+    /**
+     * @param values the values of the parameters, by name
+     * @return the URI, with the parameters replaced by their encoded values
+     */
+    public String expand(Map<String, ?> values) {
+        final StringBuilder uri = new StringBuilder(template.length() + 16 * parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            uri.append(literals[i]);
+            final Object value = values.get(parameters[i]);
+            if (value != null) {
+                encode(uri, value.toString(), reserved[i]);
+            }
+        }
+        return uri.append(literals[parameters.length]).toString();
+    }
+
+    private static void encode(StringBuilder uri, String value, boolean allowReserved) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (isUnreserved(c) || allowReserved && RESERVED.indexOf(c) >= 0) {
+                uri.append(c);
+            } else if (c < 0x80) {
+                percentEncode(uri, (byte) c);
+            } else {
+                final int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    percentEncode(uri, b);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static void percentEncode(StringBuilder uri, byte b) {
+        uri.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
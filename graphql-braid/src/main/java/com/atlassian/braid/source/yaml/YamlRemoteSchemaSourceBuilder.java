@@ -1,5 +1,6 @@
 package com.atlassian.braid.source.yaml;
 
+import com.atlassian.braid.DataLoaderCacheKeys;
 import com.atlassian.braid.Extension;
 import com.atlassian.braid.FieldRename;
 import com.atlassian.braid.Link;
@@ -12,6 +13,9 @@ import com.atlassian.braid.java.util.BraidMaps;
 import com.atlassian.braid.java.util.BraidObjects;
 import com.atlassian.braid.source.SchemaLoader;
 import com.atlassian.braid.source.StringSchemaLoader;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.CacheKey;
+import org.dataloader.DataLoaderOptions;
 
 import java.io.Reader;
 import java.io.StringReader;
@@ -82,6 +86,64 @@ public class YamlRemoteSchemaSourceBuilder {
                 .map(link -> buildComplexLink(fromNamespace, link));
     }
 
+    /**
+     * Builds the data loader options of top-level fields, from the {@code topLevelDataLoaderOptions} map of
+     * source field name to options
+     *
+     * @see #buildDataLoaderOptions(Map, Supplier)
+     */
+    public static Map<String, DataLoaderOptions> buildTopLevelDataLoaderOptions(Map<String, Object> m) {
+        return BraidMaps.get(m, "topLevelDataLoaderOptions")
+                .map(BraidObjects::<Map<String, Map<String, Object>>>cast)
+                .orElse(emptyMap())
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        e -> buildDataLoaderOptions(e.getValue(), DataLoaderCacheKeys::fieldArgumentsAndSourceFields)));
+    }
+
+    /**
+     * Builds data loader options from a map such as:
+     * <pre>
+     * maxBatchSize: 50
+     * caching: true
+     * cacheKey: arguments
+     * </pre>
+     * where {@code cacheKey} is either {@code environment}, the default which never de-duplicates, or
+     * {@code arguments} which uses the value based key of the link, extension or field being configured.
+     *
+     * @param options           the map of options
+     * @param argumentsCacheKey the cache key used for {@code cacheKey: arguments}
+     * @return the data loader options
+     */
+    public static DataLoaderOptions buildDataLoaderOptions(Map<String, Object> options,
+                                                    Supplier<CacheKey<DataFetchingEnvironment>> argumentsCacheKey) {
+        final DataLoaderOptions dataLoaderOptions = DataLoaderOptions.newOptions();
+        BraidMaps.get(options, "maxBatchSize")
+                .map(BraidObjects::<Integer>cast)
+                .ifPresent(dataLoaderOptions::setMaxBatchSize);
+        BraidMaps.get(options, "caching")
+                .map(BraidObjects::<Boolean>cast)
+                .ifPresent(dataLoaderOptions::setCachingEnabled);
+        BraidMaps.get(options, "cacheKey")
+                .map(Object::toString)
+                .ifPresent(cacheKey -> {
+                    if ("arguments".equals(cacheKey)) {
+                        dataLoaderOptions.setCacheKeyFunction(argumentsCacheKey.get());
+                    } else if (!"environment".equals(cacheKey)) {
+                        throw new IllegalArgumentException("Unknown data loader cache key: " + cacheKey);
+                    }
+                });
+        return dataLoaderOptions;
+    }
+
+    private static Optional<DataLoaderOptions> buildOptionalDataLoaderOptions(Map<String, ?> m,
+                                                                              Supplier<CacheKey<DataFetchingEnvironment>> argumentsCacheKey) {
+        return BraidMaps.get(m, "dataLoaderOptions")
+                .map(BraidObjects::<Map<String, Object>>cast)
+                .map(options -> buildDataLoaderOptions(options, argumentsCacheKey));
+    }
+
     public static List<Extension> buildExtensions(Map<String, Object> m) {
         return BraidMaps.get(m, "extensions")
                 .map(BraidObjects::<List<Map<String, Object>>>cast)
@@ -94,10 +156,12 @@ public class YamlRemoteSchemaSourceBuilder {
     }
 
     private static Extension buildExtension(Map<String, Object> e) {
+        final String on = getOrThrow(e, "field");
         return new Extension(
                 getOrThrow(e, "type"),
-                getOrThrow(e, "field"),
-                buildExtensionBy(getOrThrow(e, "by")));
+                on,
+                buildExtensionBy(getOrThrow(e, "by")),
+                buildOptionalDataLoaderOptions(e, () -> DataLoaderCacheKeys.sourceFields(on)).orElse(null));
     }
 
     private static Extension.By buildExtensionBy(Map<String, Object> by) {
@@ -153,6 +217,12 @@ public class YamlRemoteSchemaSourceBuilder {
                 return Boolean.valueOf((String) val);
             }
         }).ifPresent(linkBuilder::setNullable);
+        linkBuilder.listArgument(getOrDefault(to, "listArgument", false));
+
+        final String fromField = getOrThrow(from, "field");
+        final String sourceInputFieldName = BraidMaps.get(from, "fromField").orElse(fromField);
+        buildOptionalDataLoaderOptions(linkMap, () -> DataLoaderCacheKeys.fieldArgumentsAndSourceFields(sourceInputFieldName))
+                .ifPresent(linkBuilder::dataLoaderOptions);
 
         return linkBuilder.build();
     }
@@ -167,14 +237,22 @@ public class YamlRemoteSchemaSourceBuilder {
                 )
                 .targetNamespace(SchemaNamespace.of(getOrThrow(linkMap, "targetNamespace")))
                 .topLevelQueryField(getOrThrow(linkMap, "topLevelQueryField"))
-                .newFieldName(getOrThrow(linkMap, "field"));
+                .newFieldName(getOrThrow(linkMap, "field"))
+                .listArgument(getOrDefault(linkMap, "listArgument", false));
 
-        BraidMaps.get(linkMap, "arguments")
+        final List<LinkArgument> linkArguments = BraidMaps.get(linkMap, "arguments")
                 .map(BraidObjects::<List<Map<String, Object>>>cast)
                 .orElse(Collections.emptyList())
                 .stream()
                 .map(YamlRemoteSchemaSourceBuilder::buildLinkArgument)
-                .forEach(linkBuilder::linkArgument);
+                .collect(toList());
+        linkBuilder.linkArguments(linkArguments);
+
+        buildOptionalDataLoaderOptions(linkMap, () -> DataLoaderCacheKeys.fieldArgumentsAndSourceFields(linkArguments.stream()
+                .filter(argument -> argument.getArgumentSource() == LinkArgument.ArgumentSource.OBJECT_FIELD)
+                .map(LinkArgument::getSourceName)
+                .toArray(String[]::new)))
+                .ifPresent(linkBuilder::dataLoaderOptions);
 
         return linkBuilder.build();
     }
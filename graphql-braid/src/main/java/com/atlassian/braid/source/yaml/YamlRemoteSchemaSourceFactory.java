@@ -24,6 +24,7 @@ import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buil
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildQueryFieldRenames;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildSchemaNamespace;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildSchemaLoader;
+import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildTopLevelDataLoaderOptions;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildTypeRenames;
 import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toMap;
@@ -75,6 +76,7 @@ public class YamlRemoteSchemaSourceFactory {
                 .mutationFieldRenames(buildMutationAliases(m))
                 .typeRenames(buildTypeRenames(m))
                 .documentMapperFactory(buildDocumentMapperFactory(m))
+                .topLevelDataLoaderOptions(buildTopLevelDataLoaderOptions(m))
                 .build();
     }
 
@@ -3,6 +3,7 @@ package com.atlassian.braid.transformation;
 import static com.atlassian.braid.TypeUtils.DEFAULT_QUERY_TYPE_NAME;
 import static com.atlassian.braid.TypeUtils.findMutationType;
 import static com.atlassian.braid.TypeUtils.findQueryType;
+import static com.atlassian.braid.java.util.BraidPreconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
@@ -13,6 +14,9 @@ import com.atlassian.braid.Link;
 import com.atlassian.braid.SchemaNamespace;
 import com.atlassian.braid.SchemaSource;
 import com.atlassian.braid.TypeRename;
+import com.atlassian.braid.cache.CacheStats;
+import com.atlassian.braid.source.QueryExecutorSchemaSource;
+import com.atlassian.braid.transformation.TrimmedFieldCache.TrimmedField;
 import graphql.language.FieldDefinition;
 import graphql.language.InputValueDefinition;
 import graphql.language.ListType;
@@ -21,21 +25,31 @@ import graphql.language.ObjectTypeDefinition;
 import graphql.language.Type;
 import graphql.language.TypeDefinition;
 import graphql.language.TypeName;
+import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This wraps a {@link SchemaSource} to enhance it with helper functions
+ * <p>The type and field renames and the links of the schema source are indexed once, when wrapping it, so that the
+ * rename and link lookups don't depend on their number. Instances also cache the trimmed selections of the fields
+ * queried from the schema source, and are best shared, see
+ * {@link com.atlassian.braid.source.QueryExecutorSchemaSource#getBraidSchemaSource()}.
  */
 public final class BraidSchemaSource {
     private static final Logger log = LoggerFactory.getLogger(BraidSchemaSource.class);
 
+    public static final int DEFAULT_TRIMMED_FIELD_CACHE_SIZE = 1000;
+
     private final SchemaSource schemaSource;
 
     private final TypeDefinitionRegistry registry;
@@ -43,17 +57,85 @@ public final class BraidSchemaSource {
 
     private final ObjectTypeDefinition mutationType;
 
+    private final Map<String, TypeRename> typeRenamesBySourceName;
+    private final Map<String, TypeRename> typeRenamesByBraidName;
+    private final Map<String, FieldRename> queryFieldRenamesBySourceName;
+    private final Map<String, FieldRename> queryFieldRenamesByBraidName;
+    private final Map<String, FieldRename> mutationFieldRenamesBySourceName;
+    // by braid source type, then by field name
+    private final Map<String, Map<String, Link>> linksByTypeAndField;
+    @Nullable
+    private final TrimmedFieldCache trimmedFields;
+
     public BraidSchemaSource(SchemaSource schemaSource) {
+        this(schemaSource, DEFAULT_TRIMMED_FIELD_CACHE_SIZE);
+    }
+
+    /**
+     * @param schemaSource          the schema source to wrap
+     * @param trimmedFieldCacheSize the maximum number of trimmed field selections cached, {@code 0} to disable the
+     *                              cache
+     */
+    public BraidSchemaSource(SchemaSource schemaSource, int trimmedFieldCacheSize) {
+        checkState(trimmedFieldCacheSize >= 0, "trimmedFieldCacheSize must not be negative, was %s", trimmedFieldCacheSize);
         this.schemaSource = requireNonNull(schemaSource);
         this.registry = schemaSource.getSchema();
         this.queryType = findQueryType(registry).orElse(null);
         this.mutationType = findMutationType(registry).orElse(null);
+
+        this.typeRenamesBySourceName = index(schemaSource.getTypeRenames(), TypeRename::getSourceName);
+        this.typeRenamesByBraidName = index(schemaSource.getTypeRenames(), TypeRename::getBraidName);
+        this.queryFieldRenamesBySourceName = index(schemaSource.getQueryFieldRenames(), FieldRename::getSourceName);
+        this.queryFieldRenamesByBraidName = index(schemaSource.getQueryFieldRenames(), FieldRename::getBraidName);
+        this.mutationFieldRenamesBySourceName = index(schemaSource.getMutationFieldRenames(), FieldRename::getSourceName);
+
+        final Map<String, Map<String, Link>> links = new HashMap<>();
+        for (Link link : schemaSource.getLinks()) {
+            links.computeIfAbsent(getLinkBraidSourceType(link), __ -> new HashMap<>())
+                    .putIfAbsent(link.getNewFieldName(), link);
+        }
+        this.linksByTypeAndField = links;
+        this.trimmedFields = trimmedFieldCacheSize > 0 ? new TrimmedFieldCache(trimmedFieldCacheSize) : null;
+    }
+
+    /**
+     * @return the shared {@link BraidSchemaSource} of the schema source if it has one, a new one otherwise
+     */
+    public static BraidSchemaSource of(SchemaSource schemaSource) {
+        return schemaSource instanceof QueryExecutorSchemaSource
+                ? ((QueryExecutorSchemaSource<?>) schemaSource).getBraidSchemaSource()
+                : new BraidSchemaSource(schemaSource);
+    }
+
+    /**
+     * @return the values by key, the first value winning for a given key as when searching the values in order
+     */
+    private static <T> Map<String, T> index(List<T> values, Function<T, String> key) {
+        final Map<String, T> index = new HashMap<>();
+        values.forEach(value -> index.putIfAbsent(key.apply(value), value));
+        return index;
     }
 
     public SchemaSource getSchemaSource() {
         return schemaSource;
     }
 
+    /**
+     * @return the statistics of the cache of trimmed field selections, empty if it is disabled
+     */
+    public Optional<CacheStats> getTrimmedFieldCacheStats() {
+        return Optional.ofNullable(trimmedFields).map(TrimmedFieldCache::stats);
+    }
+
+    /**
+     * @return a new trimmed copy of the field of the environment, see {@link TrimmedFieldCache#trim}
+     */
+    TrimmedField trimField(DataFetchingEnvironment environment, boolean ignoreFirstField) {
+        return trimmedFields != null
+                ? trimmedFields.trim(this, environment, ignoreFirstField)
+                : TrimmedFieldCache.newTrimmedField(this, environment, ignoreFirstField);
+    }
+
     public SchemaNamespace getNamespace() {
         return schemaSource.getNamespace();
     }
@@ -63,31 +145,46 @@ public final class BraidSchemaSource {
     }
 
     Optional<TypeRename> getTypeRenameFromSourceName(String type) {
-        return schemaSource.getTypeRenames().stream().filter(a -> a.getSourceName().equals(type)).findFirst();
+        return Optional.ofNullable(typeRenamesBySourceName.get(type));
     }
 
     public Optional<TypeRename> getTypeRenameFromBraidName(String type) {
-        return schemaSource.getTypeRenames().stream().filter(a -> a.getBraidName().equals(type)).findFirst();
+        return Optional.ofNullable(typeRenamesByBraidName.get(type));
+    }
+
+    /**
+     * @return whether any type of the schema source is renamed in Braid
+     */
+    public boolean hasTypeRenames() {
+        return !typeRenamesByBraidName.isEmpty();
     }
 
     public String getBraidTypeName(String sourceTypeName) {
-        return getTypeRenameFromSourceName(sourceTypeName)
-                .map(TypeRename::getBraidName)
-                .orElse(sourceTypeName);
+        final TypeRename typeRename = typeRenamesBySourceName.get(sourceTypeName);
+        return typeRename != null ? typeRename.getBraidName() : sourceTypeName;
     }
 
     public String getSourceTypeName(String braidTypeName) {
-        return getTypeRenameFromBraidName(braidTypeName)
-                .map(TypeRename::getSourceName)
-                .orElse(braidTypeName);
+        final TypeRename typeRename = typeRenamesByBraidName.get(braidTypeName);
+        return typeRename != null ? typeRename.getSourceName() : braidTypeName;
     }
 
     Optional<FieldRename> getQueryFieldRenames(String sourceFieldName) {
-        return getFieldRenameBySourceName(schemaSource.getQueryFieldRenames(), sourceFieldName);
+        return Optional.ofNullable(queryFieldRenamesBySourceName.get(sourceFieldName));
     }
 
     Optional<FieldRename> getMutationFieldRenames(String sourceFieldName) {
-        return getFieldRenameBySourceName(schemaSource.getMutationFieldRenames(), sourceFieldName);
+        return Optional.ofNullable(mutationFieldRenamesBySourceName.get(sourceFieldName));
+    }
+
+    /**
+     * @param braidTypeName the Braid name of the type of the field
+     * @param fieldName     the name of the field
+     * @return the link of the schema source creating the field, see {@link #getLinkBraidSourceType(Link)}
+     */
+    public Optional<Link> getLinkForField(String braidTypeName, String fieldName) {
+        final Map<String, Link> links = linksByTypeAndField.get(braidTypeName);
+        return links == null ? Optional.empty() : Optional.ofNullable(links.get(fieldName));
     }
 
     /**
@@ -183,14 +280,6 @@ public final class BraidSchemaSource {
                 .collect(toList());
     }
 
-    private Optional<FieldRename> getFieldRenameBySourceName(List<FieldRename> fieldRenames, String sourceName) {
-        return fieldRenames.stream().filter(a -> a.getSourceName().equals(sourceName)).findFirst();
-    }
-
-    private Optional<FieldRename> getFieldRenameByBraidName(List<FieldRename> fieldRenames, String braidFieldName) {
-        return fieldRenames.stream().filter(a -> a.getBraidName().equals(braidFieldName)).findFirst();
-    }
-
     private boolean isNotOperationType(TypeDefinition typeDefinition) {
         return !isOperationType(typeDefinition);
     }
@@ -208,9 +297,7 @@ public final class BraidSchemaSource {
                 }
                 return queryType.getFieldDefinitions().stream().anyMatch(fieldDefinition -> fieldDefinition.getName().equals(fieldDef.getName()));
             }
-            return getFieldRenameByBraidName(schemaSource.getQueryFieldRenames(), fieldDef.getName())
-                    .map(alias -> alias.getBraidName().equals(fieldDef.getName()))
-                    .orElse(false);
+            return queryFieldRenamesByBraidName.containsKey(fieldDef.getName());
         } else {
             return getType(getSourceTypeName(typeDef.getName())).isPresent();
         }
@@ -6,9 +6,14 @@ import graphql.language.ObjectTypeDefinition;
 import graphql.schema.DataFetcher;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.DataLoaderOptions;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Objects.requireNonNull;
+
 
 /**
  * Context information used by {@link SchemaTransformation} instances when building the BraidSchema. Among other
@@ -25,6 +30,7 @@ public class BraidingContext {
     private final ObjectTypeDefinition queryObjectTypeDefinition;
     private final ObjectTypeDefinition mutationObjectTypeDefinition;
     private final BatchLoaderEnvironment batchLoaderEnvironment;
+    private final Map<String, DataLoaderOptions> dataLoaderOptions = new HashMap<>();
 
     public BraidingContext(Map<SchemaNamespace, BraidSchemaSource> dataSources,
                            TypeDefinitionRegistry registry,
@@ -75,4 +81,19 @@ public class BraidingContext {
     BatchLoaderEnvironment getBatchLoaderEnvironment(){
         return batchLoaderEnvironment;
     }
+
+    /**
+     * Registers the options used to create the data loader of a batch loader returned by a {@link SchemaTransformation}.
+     * Batch loaders without registered options get the default {@link DataLoaderOptions}.
+     *
+     * @param dataLoaderKey the key of the batch loader
+     * @param options       the options of the data loader
+     */
+    public void registerDataLoaderOptions(String dataLoaderKey, DataLoaderOptions options) {
+        dataLoaderOptions.put(requireNonNull(dataLoaderKey), requireNonNull(options));
+    }
+
+    public Map<String, DataLoaderOptions> getDataLoaderOptions() {
+        return Collections.unmodifiableMap(dataLoaderOptions);
+    }
 }
@@ -65,6 +65,7 @@ public class ExtensionSchemaTransformation implements SchemaTransformation {
 
         // All the fields added share a common BatchLoader that loads the top-level field of the target schema source.
         SchemaSource schemaSource = ctx.getDataSources().get(ext.getBy().getNamespace()).getSchemaSource();
+        ext.getDataLoaderOptions().ifPresent(options -> ctx.registerDataLoaderOptions(key, options));
         return singletonMap(key, schemaSource.newBatchLoader(schemaSource, new ExtensionTransformation(ext), ctx.getBatchLoaderEnvironment()));
     }
 
@@ -76,7 +76,7 @@ public class ExtensionTransformation implements FieldTransformation {
     }
 
     private void addQueryVariable(FieldTransformationContext fieldTransformationContext, Object targetId, FieldWithCounter field) {
-        final String variableName = extension.getBy().getArg() + fieldTransformationContext.getCounter();
+        final String variableName = extension.getBy().getArg() + field.counter;
         field.field =  field.field.transform(f -> f.name(extension.getBy().getQuery())).transform(f -> f.arguments(linkQueryArgumentAsList(extension, variableName)));
         fieldTransformationContext.getQueryOp().getVariableDefinitions().add(linkQueryVariableDefinition(extension, variableName,
                 fieldTransformationContext.getSchemaSource()));
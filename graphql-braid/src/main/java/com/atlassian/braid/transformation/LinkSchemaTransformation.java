@@ -2,6 +2,7 @@ package com.atlassian.braid.transformation;
 
 import static com.atlassian.braid.LinkArgument.ArgumentSource.FIELD_ARGUMENT;
 import static com.atlassian.braid.LinkArgument.ArgumentSource.OBJECT_FIELD;
+import static com.atlassian.braid.LinkUtils.compileLink;
 import static com.atlassian.braid.TypeUtils.findMutationType;
 import static com.atlassian.braid.TypeUtils.findQueryType;
 import static com.atlassian.braid.transformation.DataFetcherUtils.getLinkDataLoaderKey;
@@ -115,11 +116,13 @@ public class LinkSchemaTransformation implements SchemaTransformation {
                 BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> batchLoader =
                         targetSchemaSource.newBatchLoader(
                                 targetSchemaSource,
-                                new LinkTransformation(link),
+                                new LinkTransformation(link, compileLink(link, targetSchemaSource)),
                                 batchLoaderEnvironment
                         );
 
                 batchLoaders.put(linkDataLoaderKey, batchLoader);
+                link.getDataLoaderOptions()
+                        .ifPresent(options -> braidingContext.registerDataLoaderOptions(linkDataLoaderKey, options));
             }
         }
         return batchLoaders;
@@ -2,10 +2,12 @@ package com.atlassian.braid.transformation;
 
 import static com.atlassian.braid.ArgumentValueProvider.staticArgumentValue;
 import static com.atlassian.braid.BatchLoaderUtils.getTargetIdsFromEnvironment;
-import static com.atlassian.braid.LinkUtils.resolveArgumentsForLink;
+import static com.atlassian.braid.LinkUtils.compileLink;
+import static com.atlassian.braid.transformation.ListArgumentQuery.newListArgumentQuery;
 import static com.atlassian.braid.transformation.QueryTransformationUtils.addFieldToQuery;
 import static com.atlassian.braid.transformation.QueryTransformationUtils.cloneTrimAndAliasField;
 import static com.atlassian.braid.transformation.QueryTransformationUtils.getOperationDefinition;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
@@ -13,7 +15,10 @@ import com.atlassian.braid.FieldKey;
 import com.atlassian.braid.FieldTransformation;
 import com.atlassian.braid.FieldTransformationContext;
 import com.atlassian.braid.Link;
+import com.atlassian.braid.LinkUtils.CompiledLink;
 import com.atlassian.braid.LinkUtils.ResolvedArgument;
+import com.atlassian.braid.SchemaSource;
+import com.atlassian.braid.graphql.language.GraphQLNodes;
 import com.atlassian.braid.java.util.BraidFutures;
 import graphql.execution.DataFetcherResult;
 import graphql.language.Argument;
@@ -26,6 +31,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -37,9 +43,20 @@ import java.util.stream.Collectors;
 public class LinkTransformation implements FieldTransformation {
 
     private final Link link;
+    // compiled for the schema source of the last batch, typically the target schema source of the link
+    private volatile CompiledLink compiledLink;
 
     LinkTransformation(Link link) {
+        this(link, null);
+    }
+
+    /**
+     * @param link         the link
+     * @param compiledLink the link compiled for its target schema source, if compiled when building the schema
+     */
+    LinkTransformation(Link link, CompiledLink compiledLink) {
         this.link = requireNonNull(link);
+        this.compiledLink = compiledLink;
     }
 
     public Link getLink() {
@@ -48,66 +65,86 @@ public class LinkTransformation implements FieldTransformation {
 
     @Override
     public CompletableFuture<List<Field>> apply(DataFetchingEnvironment environment, FieldTransformationContext context) {
-        //TODO: why is this cloned, why not just get the selections from it as they are?
-        Field cloneOfCurrentField = environment.getField().deepCopy();
-        List<Selection> selections = cloneOfCurrentField.getSelectionSet().getSelections();
+        List<Selection> selections = environment.getField().getSelectionSet().getSelections();
         Set<String> shortCircuitFields = selectFieldsForShortCircuit(selections, link);
+        SelectionKey selectionKey = new SelectionKey();
         if (link.isSimpleLink()) {
             return getTargetIdsFromEnvironment(link.getSourceInputFieldName(), environment)
                     .thenCompose(targetIds -> {
                         @SuppressWarnings("unchecked") CompletableFuture<Field>[] futureFields = targetIds.stream()
-                                .map(targetId -> transformSimpleLink(targetId, context, environment, shortCircuitFields))
+                                .map(targetId -> transformSimpleLink(targetId, context, environment, shortCircuitFields, selectionKey))
                                 .toArray(CompletableFuture[]::new);
                         return BraidFutures.all(Collectors.toList(), futureFields);
                     });
         } else {
-            return transformComplexLink(context, environment, shortCircuitFields);
+            return transformComplexLink(context, environment, shortCircuitFields, selectionKey);
         }
     }
 
     private CompletableFuture<Field> transformSimpleLink(Object argumentValue,
                                                          FieldTransformationContext context,
                                                          DataFetchingEnvironment environment,
-                                                         Set<String> shortCircuitFields) {
+                                                         Set<String> shortCircuitFields,
+                                                         SelectionKey selectionKey) {
         final FieldWithCounter field = cloneTrimAndAliasField(
                 context,
                 new ArrayList<>(),
                 environment,
                 true);
-        CompletableFuture<List<ResolvedArgument>> args = resolveArgumentsForLink(this.link, context.getSchemaSource(),
-                environment, staticArgumentValue(argumentValue), field.counter);
+        CompletableFuture<List<ResolvedArgument>> args = getCompiledLink(context.getSchemaSource())
+                .resolveArguments(environment, staticArgumentValue(argumentValue), field.counter);
         return args.thenApply(resolvedArguments ->
-                createFieldForSelection(field, environment, context, shortCircuitFields, resolvedArguments));
+                createFieldForSelection(field, environment, context, shortCircuitFields, selectionKey, resolvedArguments));
     }
 
     private CompletableFuture<List<Field>> transformComplexLink(FieldTransformationContext context,
                                                                 DataFetchingEnvironment environment,
-                                                                Set<String> shortCircuitFields) {
+                                                                Set<String> shortCircuitFields,
+                                                                SelectionKey selectionKey) {
         final FieldWithCounter field = cloneTrimAndAliasField(
                 context,
                 new ArrayList<>(),
                 environment,
                 true);
-        CompletableFuture<List<ResolvedArgument>> args = resolveArgumentsForLink(this.link, context.getSchemaSource(),
-                environment, link.getArgumentValueProvider(), field.counter);
+        CompletableFuture<List<ResolvedArgument>> args = getCompiledLink(context.getSchemaSource())
+                .resolveArguments(environment, link.getArgumentValueProvider(), field.counter);
         return args.thenApply(resolvedArguments ->
-                singletonList(createFieldForSelection(field, environment, context, shortCircuitFields, resolvedArguments)));
+                singletonList(createFieldForSelection(field, environment, context, shortCircuitFields, selectionKey, resolvedArguments)));
+    }
+
+    private CompiledLink getCompiledLink(SchemaSource schemaSource) {
+        CompiledLink compiled = compiledLink;
+        if (compiled == null || !compiled.isFor(schemaSource)) {
+            compiled = compileLink(link, schemaSource);
+            compiledLink = compiled;
+        }
+        return compiled;
     }
 
     private Field createFieldForSelection(FieldWithCounter field,
                                           DataFetchingEnvironment environment,
                                           FieldTransformationContext context,
                                           Set<String> shortCircuitFields,
+                                          SelectionKey selectionKey,
                                           List<ResolvedArgument> resolvedArguments) {
 
-        if (!areAllArgumentsValuesAllowed(resolvedArguments)) {
+        if (!areAllArgumentsValuesAllowed(resolvedArguments) || isNullListArgument(resolvedArguments)) {
             context.getShortCircuitedData().put(new FieldKey(field.field.getAlias()), null);
         } else if (shortCircuitFields != null) {
             Map<String, Object> result = resolvedArguments.stream()
                     .filter(arg -> shortCircuitFields.contains(arg.getLinkArgument().getTargetFieldMatchingArgument()))
                     .collect(Collectors.toMap(arg -> arg.getLinkArgument().getTargetFieldMatchingArgument(), ResolvedArgument::getValue));
             context.getShortCircuitedData().put(new FieldKey(field.field.getAlias()), result);
+        } else if (link.isListArgument()) {
+            return addToListArgumentQuery(field, environment, context, selectionKey, resolvedArguments.get(0));
         } else {
+            if (link.getCustomTransformation() == null) {
+                final Optional<FieldKey> fetchedTarget = context.deduplicateLinkTarget(
+                        () -> linkTargetKey(context, field, selectionKey, resolvedArguments), new FieldKey(field.field.getAlias()));
+                if (fetchedTarget.isPresent()) {
+                    return field.field.transform(f -> f.alias(fetchedTarget.get().getValue()));
+                }
+            }
             OperationDefinition operationDefinition = getOperationDefinition(environment);
             createQueryField(
                     context,
@@ -118,6 +155,27 @@ public class LinkTransformation implements FieldTransformation {
         return field.field;
     }
 
+    /**
+     * Adds the argument value of the link to the list argument of the query field shared by the links of the batch
+     * with the same selection, adding that query field for the first of them
+     */
+    private Field addToListArgumentQuery(FieldWithCounter field,
+                                         DataFetchingEnvironment environment,
+                                         FieldTransformationContext context,
+                                         SelectionKey selectionKey,
+                                         ResolvedArgument resolvedArgument) {
+        final Field linkField = field.field;
+        final ListArgumentQuery query = context.getFieldGroup(asList(link, selectionKey.get(linkField)), __ -> {
+            field.field = field.field.transform(f -> f.name(link.getTopLevelQueryField()));
+            ListArgumentQuery newQuery = newListArgumentQuery(context, field, resolvedArgument,
+                    resolvedArgument.getLinkArgument().getTargetFieldMatchingArgument());
+            addFieldToQuery(context, environment, getOperationDefinition(environment), field);
+            return newQuery;
+        });
+        query.addValue(new FieldKey(linkField.getAlias()), resolvedArgument.getValue());
+        return linkField;
+    }
+
     private void createQueryField(FieldTransformationContext fieldTransformationContext,
                                   FieldWithCounter field,
                                   List<ResolvedArgument> resolvedArguments) {
@@ -141,11 +199,37 @@ public class LinkTransformation implements FieldTransformation {
     }
 
 
+    /**
+     * The key of the target of the link, see {@link FieldTransformationContext#deduplicateLinkTarget}
+     */
+    private Object linkTargetKey(FieldTransformationContext context,
+                                 FieldWithCounter field,
+                                 SelectionKey selectionKey,
+                                 List<ResolvedArgument> resolvedArguments) {
+        final List<Object> key = new ArrayList<>(3 + 2 * resolvedArguments.size());
+        key.add(context.getSchemaSource().getNamespace());
+        key.add(link.getTopLevelQueryField());
+        for (ResolvedArgument resolvedArgument : resolvedArguments) {
+            key.add(resolvedArgument.getLinkArgument().getQueryArgumentName());
+            key.add(resolvedArgument.getValue());
+        }
+        key.add(selectionKey.get(field.field));
+        return key;
+    }
+
     private static boolean areAllArgumentsValuesAllowed(List<ResolvedArgument> resolvedArguments) {
         return resolvedArguments.stream()
                 .noneMatch(arg -> arg.getValue() == null && !arg.getLinkArgument().isNullable());
     }
 
+    /**
+     * A null value of a nullable link argument can't be added to a list argument, and would match no item anyway, so
+     * the link is short-circuited to null as for a null value of a non-nullable argument
+     */
+    private boolean isNullListArgument(List<ResolvedArgument> resolvedArguments) {
+        return link.isListArgument() && resolvedArguments.get(0).getValue() == null;
+    }
+
     /**
      * Gets list of fields that can be short-circuited or null if selection contains at least one field that cannot be
      * short-circuited.
@@ -166,6 +250,24 @@ public class LinkTransformation implements FieldTransformation {
         return selectionFields;
     }
 
+    /**
+     * The selection of the fields of the links of an environment, as part of the keys of their targets and list
+     * argument queries. Those fields are all trimmed from the same field, so the selection is printed once, for the
+     * first of them.
+     */
+    private static final class SelectionKey {
+        private volatile Optional<String> selection;
+
+        private Object get(Field field) {
+            Optional<String> printed = selection;
+            if (printed == null) {
+                printed = Optional.ofNullable(field.getSelectionSet()).map(GraphQLNodes::printCompactNode);
+                selection = printed;
+            }
+            return printed.orElse(null);
+        }
+    }
+
     @Override
     public DataFetcherResult<Object> unapply(DataFetchingEnvironment environment, DataFetcherResult<Object> dataFetcherResult) {
         if (link.getCustomTransformation() != null) {
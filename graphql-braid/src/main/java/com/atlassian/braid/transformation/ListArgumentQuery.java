@@ -0,0 +1,177 @@
+package com.atlassian.braid.transformation;
+
+import com.atlassian.braid.FieldKey;
+import com.atlassian.braid.FieldTransformationContext;
+import com.atlassian.braid.LinkUtils.ResolvedArgument;
+import com.atlassian.braid.java.util.BraidObjects;
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import graphql.language.Field;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.SourceLocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The single query field of the links of a batch sharing a list argument, see
+ * {@link com.atlassian.braid.Link#isListArgument()}. The field is added to the query for the first link, each link
+ * then adds its argument value to the list and gets its own field key, filled from the result of the query field by
+ * {@link #splitResult(DataFetcherResult)}.
+ */
+final class ListArgumentQuery {
+    private final FieldKey queryFieldKey;
+    private final String keyField;
+    private final List<Object> values = new ArrayList<>();
+    private final Set<Object> distinctValues = new HashSet<>();
+    private final Map<FieldKey, Object> valuesByField = new LinkedHashMap<>();
+
+    private ListArgumentQuery(FieldKey queryFieldKey, String keyField) {
+        this.queryFieldKey = requireNonNull(queryFieldKey);
+        this.keyField = requireNonNull(keyField);
+    }
+
+    /**
+     * Turns the field of the first link into the list argument query field, selecting the key field if not already
+     * selected
+     *
+     * @param context  the context of the batch
+     * @param field    the field of the first link, named after the top level query field
+     * @param argument the resolved argument of the first link
+     * @param keyField the field of the results matching the argument values
+     * @return the new query, whose result is split once the batch query is executed
+     */
+    static ListArgumentQuery newListArgumentQuery(FieldTransformationContext context,
+                                                  FieldWithCounter field,
+                                                  ResolvedArgument argument,
+                                                  String keyField) {
+        final String alias = field.field.getAlias() + "List";
+        final ListArgumentQuery query = new ListArgumentQuery(new FieldKey(alias), keyField);
+
+        final List<Selection> selections = new ArrayList<>(field.field.getSelectionSet().getSelections());
+        if (selections.stream().noneMatch(selection -> isKeyField(selection, keyField))) {
+            selections.add(new Field(keyField));
+        }
+        field.field = field.field.transform(f -> f
+                .alias(alias)
+                .arguments(singletonList(argument.getArgument()))
+                .selectionSet(SelectionSet.newSelectionSet(selections).build()));
+
+        context.getQueryOp().getVariableDefinitions().add(argument.getVariableDefinition());
+        context.getVariables().put(argument.getVariableDefinition().getName(), query.values);
+        context.addResultTransformer(query::splitResult);
+        return query;
+    }
+
+    /**
+     * Adds the argument value of a link to the list
+     *
+     * @param fieldKey the key of the field of the link, used to read its result
+     * @param value    the argument value of the link
+     */
+    synchronized void addValue(FieldKey fieldKey, Object value) {
+        if (distinctValues.add(value)) {
+            values.add(value);
+        }
+        valuesByField.put(fieldKey, value);
+    }
+
+    /**
+     * Replaces the result of the query field by the matching item for each link, errors about an item are moved to
+     * the links of that item, other errors of the query field to all its links
+     */
+    synchronized DataFetcherResult<Map<FieldKey, Object>> splitResult(DataFetcherResult<Map<FieldKey, Object>> result) {
+        final Map<FieldKey, Object> data = new HashMap<>(result.getData());
+        final Object queryFieldData = data.remove(queryFieldKey);
+        final List<Object> items = queryFieldData instanceof List ? BraidObjects.cast(queryFieldData) : new ArrayList<>();
+
+        final Map<String, Object> itemsByKey = new HashMap<>();
+        items.stream()
+                .filter(item -> item instanceof Map)
+                .map(BraidObjects::<Map<String, Object>>cast)
+                .forEach(item -> itemsByKey.putIfAbsent(String.valueOf(item.get(keyField)), item));
+        valuesByField.forEach((fieldKey, value) -> data.put(fieldKey, itemsByKey.get(String.valueOf(value))));
+
+        final List<GraphQLError> errors = new ArrayList<>();
+        for (GraphQLError error : result.getErrors()) {
+            final List<Object> path = error.getPath();
+            if (path == null || path.isEmpty() || !queryFieldKey.getValue().equals(String.valueOf(path.get(0)))) {
+                errors.add(error);
+            } else {
+                final Object itemKey = getItemKey(items, path);
+                valuesByField.forEach((fieldKey, value) -> {
+                    if (itemKey == null) {
+                        errors.add(new ListItemGraphQLError(error, fieldKey, path.subList(1, path.size())));
+                    } else if (itemKey.equals(String.valueOf(value))) {
+                        errors.add(new ListItemGraphQLError(error, fieldKey, path.subList(2, path.size())));
+                    }
+                });
+            }
+        }
+        return new DataFetcherResult<>(data, errors);
+    }
+
+    private String getItemKey(List<Object> items, List<Object> path) {
+        if (path.size() > 1 && path.get(1) instanceof Integer && (Integer) path.get(1) < items.size()) {
+            final Object item = items.get((Integer) path.get(1));
+            return item instanceof Map ? String.valueOf(BraidObjects.<Map<String, Object>>cast(item).get(keyField)) : null;
+        }
+        return null;
+    }
+
+    private static boolean isKeyField(Selection selection, String keyField) {
+        return selection instanceof Field
+                && ((Field) selection).getName().equals(keyField)
+                && (((Field) selection).getAlias() == null || ((Field) selection).getAlias().equals(keyField));
+    }
+
+    /**
+     * Moves an error of the query field to the field of a link
+     */
+    private static final class ListItemGraphQLError implements GraphQLError {
+        private final GraphQLError delegate;
+        private final List<Object> path;
+
+        private ListItemGraphQLError(GraphQLError delegate, FieldKey fieldKey, List<Object> relativePath) {
+            this.delegate = requireNonNull(delegate);
+            this.path = new ArrayList<>(relativePath.size() + 1);
+            this.path.add(fieldKey.getValue());
+            this.path.addAll(relativePath);
+        }
+
+        @Override
+        public String getMessage() {
+            return delegate.getMessage();
+        }
+
+        @Override
+        public List<SourceLocation> getLocations() {
+            return delegate.getLocations();
+        }
+
+        @Override
+        public ErrorClassification getErrorType() {
+            return delegate.getErrorType();
+        }
+
+        @Override
+        public List<Object> getPath() {
+            return path;
+        }
+
+        @Override
+        public Map<String, Object> getExtensions() {
+            return delegate.getExtensions();
+        }
+    }
+}
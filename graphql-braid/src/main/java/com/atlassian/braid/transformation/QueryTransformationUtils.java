@@ -1,10 +1,9 @@
 package com.atlassian.braid.transformation;
 
 import com.atlassian.braid.FieldTransformationContext;
-import com.atlassian.braid.source.TrimFieldsSelection;
 import com.atlassian.braid.source.VariableNamespacingGraphQLQueryVisitor;
+import com.atlassian.braid.transformation.TrimmedFieldCache.TrimmedField;
 import graphql.language.Field;
-import graphql.language.FragmentDefinition;
 import graphql.language.NodeTraverser;
 import graphql.language.NodeVisitor;
 import graphql.language.OperationDefinition;
@@ -20,12 +19,13 @@ class QueryTransformationUtils {
     static FieldWithCounter cloneTrimAndAliasField(FieldTransformationContext fieldTransformationContext, List<Integer> usedCounterIds,
                                                    DataFetchingEnvironment environment, boolean dontTrimFirstField) {
 
-        Field origonfield = environment.getField().deepCopy();
-        Field field = origonfield.transform(f -> f.alias(origonfield.getName() + fieldTransformationContext.getCounter().incrementAndGet()));
-        usedCounterIds.add(fieldTransformationContext.getCounter().get());
+        TrimmedField trimmedField = fieldTransformationContext.getSchemaSource().getBraidSchemaSource()
+                .trimField(environment, dontTrimFirstField);
+        int counter = fieldTransformationContext.getCounter().incrementAndGet();
+        Field field = trimmedField.field.transform(f -> f.alias(environment.getField().getName() + counter));
+        usedCounterIds.add(counter);
 
-        List<FragmentDefinition> referencedFragments = TrimFieldsSelection.trimFieldSelection(fieldTransformationContext.getSchemaSource(), environment, field, dontTrimFirstField);
-        return new FieldWithCounter(field, fieldTransformationContext.getCounter().get(), referencedFragments);
+        return new FieldWithCounter(field, counter, trimmedField.referencedFragments);
     }
 
     static void addFieldToQuery(FieldTransformationContext fieldTransformationContext,
@@ -28,6 +28,7 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 import org.dataloader.BatchLoader;
 import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
 
 /**
  * A {@link SchemaTransformation} for processing top-level fields for the root operation type.
@@ -59,6 +60,8 @@ public class TopLevelSchemaTransformation implements SchemaTransformation {
 
         return Stream.concat(queryLoaders.stream(), mutationLoaders.stream())
                 .peek(reg -> registerDataFetcher(braidingContext, reg.type, reg.field))
+                .peek(reg -> reg.options.ifPresent(options ->
+                        braidingContext.registerDataLoaderOptions(getDataLoaderKey(reg.type, reg.field), options)))
                 .collect(toMap(reg -> getDataLoaderKey(reg.type, reg.field),
                                reg -> reg.loader));
     }
@@ -172,7 +175,11 @@ public class TopLevelSchemaTransformation implements SchemaTransformation {
                         fieldTransformation,
                         batchLoaderEnvironment);
 
-        return new FieldDataLoaderRegistration(typeName, operationField.fieldRename.getBraidName(), batchLoader);
+        Optional<DataLoaderOptions> options = Optional.ofNullable(schemaSource.getSchemaSource()
+                .getTopLevelDataLoaderOptions()
+                .get(operationField.fieldRename.getSourceName()));
+
+        return new FieldDataLoaderRegistration(typeName, operationField.fieldRename.getBraidName(), batchLoader, options);
     }
 
     private static final class RenamedFieldDefinition {
@@ -192,11 +199,14 @@ public class TopLevelSchemaTransformation implements SchemaTransformation {
         private final String type;
         private final String field;
         private final BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader;
+        private final Optional<DataLoaderOptions> options;
 
-        private FieldDataLoaderRegistration(String type, String field, BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader) {
+        private FieldDataLoaderRegistration(String type, String field, BatchLoader<DataFetchingEnvironment, DataFetcherResult<Object>> loader,
+                                            Optional<DataLoaderOptions> options) {
             this.type = requireNonNull(type);
             this.field = requireNonNull(field);
             this.loader = requireNonNull(loader);
+            this.options = requireNonNull(options);
         }
     }
 
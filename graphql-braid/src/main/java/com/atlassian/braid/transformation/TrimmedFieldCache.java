@@ -0,0 +1,186 @@
+package com.atlassian.braid.transformation;
+
+import com.atlassian.braid.cache.CacheStats;
+import com.atlassian.braid.cache.LruCache;
+import com.atlassian.braid.source.TrimFieldsSelection;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.Node;
+import graphql.language.NodeTraverser;
+import graphql.language.NodeVisitorStub;
+import graphql.language.VariableReference;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLNamedType;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Caches the trimmed copies of the fields of the queries of a schema source, see {@link TrimFieldsSelection}, so that
+ * a given field is only trimmed once. This is shared by all the environments and link ids of a request, and across
+ * requests, whether their documents are cached or parsed for each of them.
+ * <p>Fields are keyed by structure, i.e. the field printed along with the fragments it references, with their schema
+ * and the name of their parent type, and with the values of the variables used by the {@code @skip} and
+ * {@code @include} directives of their selection, which the trimming depends on. Keys don't reference the documents.
+ * <p>Each use of a trimmed field gets its own copy, as it is then aliased and its variables namespaced in place. A field
+ * is only cached the second time it is trimmed, so that the fields of documents used once, which are most of them when
+ * documents aren't cached, cost a single copy, as they would without this cache.
+ */
+final class TrimmedFieldCache {
+
+    private final LruCache<TrimmedFieldKey, Boolean> trimmedOnce;
+    private final LruCache<TrimmedFieldKey, TrimmedField> trimmedFields;
+
+    TrimmedFieldCache(int maximumSize) {
+        this.trimmedOnce = LruCache.ofSize(maximumSize);
+        this.trimmedFields = LruCache.ofSize(maximumSize);
+    }
+
+    CacheStats stats() {
+        return trimmedFields.stats();
+    }
+
+    /**
+     * @param schemaSource     the schema source the field is queried from
+     * @param environment      the environment of the field
+     * @param ignoreFirstField whether the field itself must not be trimmed
+     * @return a new trimmed copy of the field of the environment, with its referenced fragments, also copied
+     */
+    TrimmedField trim(BraidSchemaSource schemaSource, DataFetchingEnvironment environment, boolean ignoreFirstField) {
+        final Field field = environment.getField();
+        if (field.getSelectionSet() == null) {
+            // nothing to trim, such fields are also typically created for a single environment, e.g. for extensions
+            return newTrimmedField(schemaSource, environment, ignoreFirstField);
+        }
+        final TrimmedFieldKey key = newKey(environment, ignoreFirstField);
+        final TrimmedField cached = trimmedFields.getIfPresent(key);
+        if (cached != null) {
+            return cached.copy();
+        }
+        final TrimmedField trimmed = newTrimmedField(schemaSource, environment, ignoreFirstField);
+        if (trimmedOnce.getIfPresent(key) != null) {
+            trimmedFields.put(key, trimmed.copy());
+            trimmedOnce.invalidate(key);
+        } else {
+            trimmedOnce.put(key, Boolean.TRUE);
+        }
+        return trimmed;
+    }
+
+    static TrimmedField newTrimmedField(BraidSchemaSource schemaSource, DataFetchingEnvironment environment,
+                                                boolean ignoreFirstField) {
+        final Field copy = environment.getField().deepCopy();
+        final List<FragmentDefinition> fragments =
+                TrimFieldsSelection.trimFieldSelection(schemaSource, environment, copy, ignoreFirstField);
+        return new TrimmedField(copy, fragments);
+    }
+
+    /**
+     * Prints the field and the fragments it references, transitively, and reads the values of the variables of their
+     * {@code @skip} and {@code @include} directives
+     */
+    private static TrimmedFieldKey newKey(DataFetchingEnvironment environment, boolean ignoreFirstField) {
+        final Map<String, FragmentDefinition> fragmentsByName = environment.getFragmentsByName();
+        final StringBuilder shape = new StringBuilder(printCompactNode(environment.getField()));
+        final Set<String> variables = new LinkedHashSet<>();
+        final Set<String> visitedFragments = new HashSet<>();
+        final List<Node> nodes = new ArrayList<>();
+        nodes.add(environment.getField());
+        while (!nodes.isEmpty()) {
+            new NodeTraverser().preOrder(new NodeVisitorStub() {
+                @Override
+                public TraversalControl visitDirective(Directive node, TraverserContext<Node> context) {
+                    if (node.getName().equals("skip") || node.getName().equals("include")) {
+                        node.getArguments().stream()
+                                .map(Argument::getValue)
+                                .filter(value -> value instanceof VariableReference)
+                                .map(value -> ((VariableReference) value).getName())
+                                .forEach(variables::add);
+                    }
+                    return TraversalControl.CONTINUE;
+                }
+
+                @Override
+                public TraversalControl visitFragmentSpread(FragmentSpread node, TraverserContext<Node> context) {
+                    final FragmentDefinition fragment = fragmentsByName.get(node.getName());
+                    if (fragment != null && visitedFragments.add(node.getName())) {
+                        nodes.add(fragment);
+                        shape.append(' ').append(printCompactNode(fragment));
+                    }
+                    return TraversalControl.CONTINUE;
+                }
+            }, nodes.remove(0));
+        }
+        final List<Object> variableValues = new ArrayList<>(variables.size());
+        variables.forEach(variable -> variableValues.add(environment.getVariables().get(variable)));
+        return new TrimmedFieldKey(environment, shape.toString(), ignoreFirstField, variableValues);
+    }
+
+    static final class TrimmedField {
+        final Field field;
+        final List<FragmentDefinition> referencedFragments;
+
+        private TrimmedField(Field field, List<FragmentDefinition> referencedFragments) {
+            this.field = requireNonNull(field);
+            this.referencedFragments = requireNonNull(referencedFragments);
+        }
+
+        private TrimmedField copy() {
+            return new TrimmedField(field.deepCopy(), referencedFragments.stream()
+                    .map(FragmentDefinition::deepCopy)
+                    .collect(toList()));
+        }
+    }
+
+    private static final class TrimmedFieldKey {
+        private final Object schema;
+        private final String parentType;
+        private final String field;
+        private final boolean ignoreFirstField;
+        private final List<Object> variableValues;
+
+        private TrimmedFieldKey(DataFetchingEnvironment environment, String field, boolean ignoreFirstField,
+                                List<Object> variableValues) {
+            this.schema = requireNonNull(environment.getGraphQLSchema());
+            this.parentType = ((GraphQLNamedType) environment.getParentType()).getName();
+            this.field = requireNonNull(field);
+            this.ignoreFirstField = ignoreFirstField;
+            this.variableValues = requireNonNull(variableValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TrimmedFieldKey that = (TrimmedFieldKey) o;
+            return schema == that.schema &&
+                    parentType.equals(that.parentType) &&
+                    field.equals(that.field) &&
+                    ignoreFirstField == that.ignoreFirstField &&
+                    variableValues.equals(that.variableValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(schema), parentType, field, ignoreFirstField, variableValues);
+        }
+    }
+}
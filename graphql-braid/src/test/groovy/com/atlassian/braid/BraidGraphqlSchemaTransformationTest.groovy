@@ -7,9 +7,14 @@ import org.dataloader.BatchLoader
 import org.junit.Test
 import org.mockito.Mockito
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Function
 
 import static org.hamcrest.CoreMatchers.equalTo
+import static org.hamcrest.CoreMatchers.sameInstance
 import static org.junit.Assert.assertThat
 import static org.mockito.ArgumentMatchers.isNull
 import static org.mockito.Mockito.mock
@@ -49,6 +54,105 @@ class BraidGraphqlSchemaTransformationTest {
 
     }
 
+    @Test
+    void "schema variants are only transformed once per variant key"() throws Exception {
+
+        def registry = TestUtil.typeRegistry("""
+              type Query {
+                foo: String
+            } 
+            schema {
+                query: Query 
+            }
+        """)
+
+        SchemaSource schemaSource = mockSchemaSource(registry)
+
+        def count = 0
+        Function<GraphQLSchema, GraphQLSchema> countingTransformer = { gqlSchema -> count++
+            gqlSchema
+        }
+        def braid = Braid.builder().schemaSource(schemaSource).schemaVariantCacheSize(1).build()
+
+        def query = ExecutionInput.newExecutionInput().query("{ foo }").build()
+        def graphQL = braid.getGraphQL("tenant1", countingTransformer)
+        graphQL.execute(query)
+        assertThat(count, equalTo(1))
+
+        assertThat(braid.getGraphQL("tenant1", countingTransformer), sameInstance(graphQL))
+        assertThat(count, equalTo(1))
+
+        braid.getGraphQL("tenant2", countingTransformer)
+        assertThat(count, equalTo(2))
+
+        braid.getGraphQL("tenant1", countingTransformer)
+        assertThat(count, equalTo(3))
+
+        braid.invalidateSchemaVariants()
+        braid.getGraphQL("tenant1", countingTransformer)
+        assertThat(count, equalTo(4))
+    }
+
+    @Test
+    void "concurrent requests for a schema variant transform the schema once"() throws Exception {
+        SchemaSource schemaSource = mockSchemaSource(TestUtil.typeRegistry("""
+            type Query {
+                foo: String
+            }
+            schema {
+                query: Query
+            }
+        """))
+
+        def count = new AtomicInteger()
+        def start = new CountDownLatch(1)
+        Function<GraphQLSchema, GraphQLSchema> countingTransformer = { gqlSchema ->
+            count.incrementAndGet()
+            gqlSchema
+        }
+        def braid = Braid.builder().schemaSource(schemaSource).build()
+
+        def executor = Executors.newFixedThreadPool(8)
+        try {
+            def futures = (1..8).collect {
+                executor.submit({
+                    start.await()
+                    braid.getGraphQL("tenant1", countingTransformer)
+                } as Callable<BraidGraphQL>)
+            }
+            start.countDown()
+
+            def variants = futures*.get()
+            assertThat(count.get(), equalTo(1))
+            assertThat(variants.toSet().size(), equalTo(1))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    void "schema variants aren't cached with a cache size of 0"() throws Exception {
+        SchemaSource schemaSource = mockSchemaSource(TestUtil.typeRegistry("""
+            type Query {
+                foo: String
+            }
+            schema {
+                query: Query
+            }
+        """))
+
+        def count = 0
+        Function<GraphQLSchema, GraphQLSchema> countingTransformer = { gqlSchema -> count++
+            gqlSchema
+        }
+        def braid = Braid.builder().schemaSource(schemaSource).schemaVariantCacheSize(0).build()
+
+        braid.getGraphQL("tenant1", countingTransformer)
+        braid.getGraphQL("tenant1", countingTransformer)
+        braid.invalidateSchemaVariants()
+        assertThat(count, equalTo(2))
+    }
+
     private SchemaSource mockSchemaSource(TypeDefinitionRegistry registry) {
         SchemaSource schemaSource = mock(SchemaSource.class)
         when(schemaSource.getNamespace()).thenReturn(SchemaNamespace.of("foo"))
@@ -0,0 +1,180 @@
+package com.atlassian.braid.document
+
+import com.atlassian.braid.mapper.MapperOperation
+import com.atlassian.braid.mapper.MapperOperations
+import graphql.language.ObjectTypeDefinition
+import graphql.language.SelectionSet
+import org.junit.Test
+
+import java.util.function.BiFunction
+
+import static com.atlassian.braid.TestUtil.parseQuery
+import static com.atlassian.braid.TestUtil.typeRegistry
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode
+import static org.assertj.core.api.Java6Assertions.assertThat
+
+class TypedDocumentMapperTest {
+
+    def schema = typeRegistry("""
+            type Query {
+                foo(id: ID): Foo
+            }
+            type Foo {
+                name: String
+            }
+        """)
+
+    static query(int counter) {
+        parseQuery("""
+            query Bulk(\$id$counter: ID) {
+                foo$counter: foo(id: \$id$counter) {
+                    name
+                }
+            }
+        """)
+    }
+
+    @Test
+    void documentsOfTheSameShapeAreMappedOnce() {
+        def mapper = new TypedDocumentMapper(schema, [TypeMappers.typeNamed("Foo").copy("name", "fullName")])
+
+        def first = mapper.apply(null, query(100))
+        first.resultMapper.apply([foo100: [fullName: "Alice"]])
+        def second = mapper.apply(null, query(101))
+
+        assertThat(mapper.stats().hitCount).isEqualTo(1)
+        assertThat(printCompactNode(first.document)).contains('$id100').contains('foo100:').contains('fullName')
+        assertThat(printCompactNode(second.document)).contains('$id101').contains('foo101:').contains('fullName')
+                .doesNotContain('braid_')
+        assertThat(second.resultMapper.apply([foo101: [fullName: "Bob"]])).isEqualTo([foo101: [name: "Bob"]])
+    }
+
+    @Test
+    void documentsOfTheSameShapeAreRestoredAsIfMappedAgain() {
+        def typeMappers = [TypeMappers.typeNamed("Foo").copy("name", "fullName").copyRemaining()]
+        def cached = new TypedDocumentMapper(schema, typeMappers)
+        def uncached = DocumentMappers.identity().mapType(typeMappers[0]).mappedDocumentCacheSize(0).apply(schema)
+        def nestedQuery = { int counter ->
+            parseQuery("""
+                query Bulk(\$id$counter: ID, \$other$counter: ID, \$withName$counter: Boolean!) {
+                    foo$counter: foo(id: \$id$counter) {
+                        name @include(if: \$withName$counter)
+                        ...fooFields
+                    }
+                    other$counter: foo(id: \$other$counter) {
+                        name
+                    }
+                }
+                fragment fooFields on Foo {
+                    ... on Foo {
+                        name @skip(if: \$withName$counter)
+                    }
+                }
+            """)
+        }
+
+        cached.apply(null, nestedQuery(100)).resultMapper.apply([foo100: [fullName: "Alice"], other100: [fullName: "Bob"]])
+        def hit = cached.apply(null, nestedQuery(102))
+        def mapped = uncached.apply(null, nestedQuery(102))
+
+        assertThat(cached.stats().hitCount).isEqualTo(1)
+        assertThat(printCompactNode(hit.document)).isEqualTo(printCompactNode(mapped.document))
+        def data = [foo102: [fullName: "Alice"], other102: [fullName: "Bob"]]
+        assertThat(hit.resultMapper.apply(data)).isEqualTo(mapped.resultMapper.apply(data))
+                .isEqualTo([foo102: [name: "Alice"], other102: [name: "Bob"]])
+    }
+
+    @Test
+    void documentsAreNotCachedWhenTheCacheIsDisabled() {
+        def mapper = DocumentMappers.identity()
+                .mapType(TypeMappers.typeNamed("Foo").copy("name", "fullName"))
+                .mappedDocumentCacheSize(0)
+                .apply(schema)
+
+        def first = mapper.apply(null, query(100))
+        first.resultMapper.apply([foo100: [fullName: "Alice"]])
+        def second = mapper.apply(null, query(101))
+
+        assertThat(printCompactNode(second.document)).contains('$id101').contains('foo101:').contains('fullName')
+        assertThat(second.resultMapper.apply([foo101: [fullName: "Bob"]])).isEqualTo([foo101: [name: "Bob"]])
+    }
+
+    @Test
+    void documentsWhoseResultMapperUsesTheContextAreNotCached() {
+        def mapper = new TypedDocumentMapper(schema, [TypeMappers.typeNamed("Foo")
+                                                              .copy("name", "fullName", { c, v -> "$c $v".toString() } as BiFunction)])
+
+        def first = mapper.apply("Mr", query(100))
+        assertThat(first.resultMapper.apply([foo100: [fullName: "Bob"]])).isEqualTo([foo100: [name: "Mr Bob"]])
+        def second = mapper.apply("Dr", query(101))
+
+        assertThat(mapper.stats().hitCount).isEqualTo(0)
+        assertThat(second.resultMapper.apply([foo101: [fullName: "Bob"]])).isEqualTo([foo101: [name: "Dr Bob"]])
+    }
+
+    @Test
+    void documentsOfTypeMappersReadingTheContextWhileMappingAreNotCached() {
+        def mapper = new TypedDocumentMapper(schema, [new TenantTypeMapper(lazy: false)])
+
+        def first = mapper.apply("acme", query(100))
+        assertThat(first.resultMapper.apply([foo100: [name: "Bob"]])).isEqualTo([foo100: [name: "Bob", tenant: "acme"]])
+        def second = mapper.apply("globex", query(101))
+
+        assertThat(mapper.stats().hitCount).isEqualTo(0)
+        assertThat(second.resultMapper.apply([foo101: [name: "Bob"]])).isEqualTo([foo101: [name: "Bob", tenant: "globex"]])
+    }
+
+    @Test
+    void resultMappersOfCachedDocumentsReadTheContextOfTheirExecution() {
+        def mapper = new TypedDocumentMapper(schema, [new TenantTypeMapper(lazy: true)])
+
+        def first = mapper.apply("acme", query(100))
+        def second = mapper.apply("globex", query(101))
+        assertThat(first.resultMapper.apply([foo100: [name: "Bob"]])).isEqualTo([foo100: [name: "Bob", tenant: "acme"]])
+
+        assertThat(mapper.stats().hitCount).isEqualTo(1)
+        assertThat(second.resultMapper.apply([foo101: [name: "Bob"]])).isEqualTo([foo101: [name: "Bob", tenant: "globex"]])
+    }
+
+    /**
+     * Copies the fields of {@code Foo} and adds the custom context as its tenant, read either while mapping the
+     * document or while mapping the results
+     */
+    static class TenantTypeMapper implements TypeMapper {
+        boolean lazy
+        TypeMapper delegate = TypeMappers.typeNamed("Foo").copyRemaining()
+
+        @Override
+        boolean test(ObjectTypeDefinition definition) {
+            delegate.test(definition)
+        }
+
+        @Override
+        SelectionSetMappingResult apply(MappingContext context, SelectionSet selectionSet) {
+            def result = delegate.apply(context, selectionSet)
+            def tenant = lazy ? null : context.customContext
+            def addTenant = { input, output -> output.put("tenant", lazy ? context.customContext : tenant) } as MapperOperation
+            new SelectionSetMappingResult(result.selectionSet, MapperOperations.composed(result.@resultMapper, addTenant))
+        }
+
+        @Override
+        TypeMapper copy(String key, String target) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        def <C, T, U> TypeMapper copy(String key, String target, BiFunction<C, T, U> transform) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        TypeMapper copyRemaining() {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        TypeMapper put(String key, String value) {
+            throw new UnsupportedOperationException()
+        }
+    }
+}
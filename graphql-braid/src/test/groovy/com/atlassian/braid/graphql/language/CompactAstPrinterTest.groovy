@@ -0,0 +1,58 @@
+package com.atlassian.braid.graphql.language
+
+import graphql.parser.Parser
+import org.junit.Test
+
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printNode
+import static org.assertj.core.api.Java6Assertions.assertThat
+
+class CompactAstPrinterTest {
+
+    @Test
+    void "bulk documents are printed on a single line"() {
+        def document = new Parser().parseDocument("""
+            query Bulk_Foo(\$id100: String!, \$ids101: [ID!] = ["a", "b"]) {
+                foo100: foo(id: \$id100) {
+                    name
+                    bar @include(if: true) {
+                        ...barFields
+                    }
+                }
+                foos101: foos(ids: \$ids101, filter: {name: "a \\"b\\"", size: 1.5, kind: BIG, none: null}) {
+                    ... on Foo {
+                        name
+                    }
+                }
+            }
+
+            fragment barFields on Bar {
+                title
+            }
+        """)
+
+        assertThat(printCompactNode(document)).isEqualTo(
+                'query Bulk_Foo($id100:String!,$ids101:[ID!]=["a","b"])' +
+                        '{foo100:foo(id:$id100){name bar@include(if:true){...barFields}} ' +
+                        'foos101:foos(ids:$ids101,filter:{name:"a \\"b\\"",size:1.5,kind:BIG,none:null}){...on Foo{name}}} ' +
+                        'fragment barFields on Bar{title}')
+    }
+
+    @Test
+    void "compact documents parse back to the same document"() {
+        def document = new Parser().parseDocument("""
+            mutation AddFoo(\$input: FooInput!) @traced {
+                add1: addFoo(input: \$input, text: "line\\nbreak\\ttab \\\\ \\u0001") {
+                    id
+                    ... @skip(if: false) {
+                        name
+                    }
+                }
+            }
+            subscription { onFoo { id } }
+            { anonymous }
+        """)
+
+        assertThat(printNode(new Parser().parseDocument(printCompactNode(document)))).isEqualTo(printNode(document))
+    }
+}
@@ -0,0 +1,128 @@
+package com.atlassian.braid.graphql.language
+
+import com.atlassian.braid.FieldTransformationContext
+import com.atlassian.braid.SchemaNamespace
+import com.atlassian.braid.TypeRename
+import com.atlassian.braid.source.QueryExecutorSchemaSource
+import com.atlassian.braid.source.SchemaLoader
+import com.atlassian.braid.source.StringSchemaLoader
+import graphql.language.OperationDefinition
+import graphql.schema.GraphQLObjectType
+import org.junit.Test
+
+import static com.atlassian.braid.TestUtil.parseQuery
+import static com.atlassian.braid.graphql.language.GraphQLNodes.printCompactNode
+import static graphql.Scalars.GraphQLString
+import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition
+import static graphql.schema.GraphQLObjectType.newObject
+import static org.assertj.core.api.Java6Assertions.assertThat
+
+class SourceDocumentRewriterTest {
+
+    static final String SOURCE_SCHEMA = """
+            type Query {
+                foo(id: ID): SourceFoo
+            }
+            type SourceFoo {
+                name: String
+                bar: Bar
+            }
+            type Bar {
+                title: String
+            }
+        """
+
+    static final String QUERY = """
+            query Bulk {
+                foo100: foo(id: "1") {
+                    name
+                    extra
+                    __typename
+                    ...fooFields
+                    ... on Foo {
+                        bar {
+                            title
+                        }
+                        extra
+                    }
+                    bar {
+                        title
+                    }
+                }
+            }
+            fragment fooFields on Foo {
+                name
+                extra
+            }
+        """
+
+    @Test
+    void documentsWithNothingToRewriteAreReturnedAsIs() {
+        def schemaSource = schemaSource("""
+            type Query {
+                foo(id: ID): Foo
+            }
+            type Foo {
+                name: String
+                extra: String
+            }
+        """, [])
+        def document = parseQuery("""
+            query Bulk {
+                foo100: foo(id: "1") {
+                    name
+                    extra
+                }
+            }
+        """)
+        def context = newContext(schemaSource)
+
+        def rewritten = new SourceDocumentRewriter(schemaSource.braidSchemaSource, braidFoo()).rewrite(context, document)
+
+        assertThat(rewritten).isSameAs(document)
+        assertThat(context.missingFields).isEmpty()
+    }
+
+    @Test
+    void typesAreRenamedAndUnknownFieldsRemovedAsByDocumentTransformations() {
+        def schemaSource = schemaSource(SOURCE_SCHEMA, [TypeRename.from("SourceFoo", "Foo")])
+        def document = parseQuery(QUERY)
+        def context = newContext(schemaSource)
+        def expectedContext = newContext(schemaSource)
+
+        def rewritten = new SourceDocumentRewriter(schemaSource.braidSchemaSource, braidFoo()).rewrite(context, document)
+        def expected = DocumentTransformations.removeMissingFieldsIfBraidAndSourceTypeFieldsDiffer(expectedContext,
+                DocumentTransformations.renameTypesToSourceNames(schemaSource.braidSchemaSource, parseQuery(QUERY)),
+                braidFoo())
+
+        assertThat(printCompactNode(rewritten)).isEqualTo(printCompactNode(expected))
+        assertThat(printCompactNode(rewritten)).contains('on SourceFoo').doesNotContain('extra').contains('__typename')
+        assertThat(context.missingFields*.name).isEqualTo(expectedContext.missingFields*.name).isEqualTo(['extra'])
+        assertThat(printCompactNode(document)).isEqualTo(printCompactNode(parseQuery(QUERY)))
+    }
+
+    private static QueryExecutorSchemaSource schemaSource(String schema, List<TypeRename> typeRenames) {
+        QueryExecutorSchemaSource.builder()
+                .namespace(SchemaNamespace.of("foo"))
+                .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL, schema))
+                .typeRenames(typeRenames)
+                .localRetriever({ query -> [:] })
+                .build()
+    }
+
+    private static FieldTransformationContext newContext(QueryExecutorSchemaSource schemaSource) {
+        new FieldTransformationContext(schemaSource,
+                OperationDefinition.newOperationDefinition().operation(OperationDefinition.Operation.QUERY).build())
+    }
+
+    /**
+     * @return the Braid type of the {@code foo} field, with a field unknown to the source
+     */
+    private static GraphQLObjectType braidFoo() {
+        newObject()
+                .name("Foo")
+                .field(newFieldDefinition().name("name").type(GraphQLString))
+                .field(newFieldDefinition().name("extra").type(GraphQLString))
+                .build()
+    }
+}
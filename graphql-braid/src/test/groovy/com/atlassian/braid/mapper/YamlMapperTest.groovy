@@ -85,6 +85,29 @@ class YamlMapperTest {
         testYamlMapper(yaml, input, output)
     }
 
+    @Test
+    void copyListInParallel() {
+        def yaml = '''
+- key: "foo"
+  op: "copyList"
+  target: "fooz"
+  parallelThreshold: 2
+  mapper:
+    - key: "bar"
+      op: "copy"
+      target: "baz"
+'''
+        def input = [
+                "foo": (0..<100).collect { ["bar": it] }
+        ]
+
+        def output = [
+                "fooz": (0..<100).collect { ["baz": it] }
+        ]
+
+        testYamlMapper(yaml, input, output)
+    }
+
     @Test
     void nestedList() {
         def yaml = '''
@@ -1,5 +1,6 @@
 package com.atlassian.braid.source.yaml
 
+import com.atlassian.braid.BraidContext
 import com.atlassian.braid.SchemaNamespace
 import com.atlassian.braid.source.SchemaLoader
 import com.atlassian.braid.source.StringSchemaLoader
@@ -9,6 +10,8 @@ import okhttp3.mockwebserver.MockResponse
 import okhttp3.mockwebserver.MockWebServer
 import org.junit.Test
 
+import java.util.concurrent.Executors
+
 import static groovy.json.JsonOutput.toJson
 import static org.mockito.Mockito.mock
 import static org.mockito.Mockito.when
@@ -60,4 +63,54 @@ schema {
         def result = restSchemaSource.newBatchLoader(restSchemaSource, null, null).load([de])
         assert result.get().data == [["jim": "bar"]]
     }
+
+    @Test
+    void restRemoteWithHttpRetrieverEncodesParameters() {
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setBody(toJson(["foo": "bar"])))
+        server.start()
+
+        def schema = """
+  type Query {
+    foo(id: String) : Foo
+  }
+  type Foo {
+      jim: String
+  }
+"""
+
+        def fooRootField = new RestRemoteSchemaSource.RootField("foo", "${server.url("/foo")}/{id}",
+                { sourceMap -> ["jim": sourceMap.get("foo")] })
+        def executor = Executors.newSingleThreadExecutor()
+        def remoteRetriever = com.atlassian.braid.source.http.HttpRestRemoteRetriever.builder()
+                .headers({ context -> ["X-Tenant": context] })
+                .executor(executor)
+                .build()
+        def restSchemaSource = new RestRemoteSchemaSource(SchemaNamespace.of("rr"),
+                new StringSchemaLoader(SchemaLoader.Type.IDL, schema),
+                remoteRetriever,
+                ["foo": fooRootField],
+                [],
+                [],
+                "foo"
+        )
+
+        def de = mock(DataFetchingEnvironment.class)
+        def fd = mock(GraphQLFieldDefinition.class)
+        def context = mock(BraidContext.class)
+        when(fd.getName()).thenReturn("foo")
+        when(context.getContext()).thenReturn("acme")
+        when(de.getFieldDefinition()).thenReturn(fd)
+        when(de.getArguments()).thenReturn(['id': 'a b/c'])
+        when(de.getContext()).thenReturn(context)
+
+        def result = restSchemaSource.newBatchLoader(restSchemaSource, null, null).load([de])
+        assert result.get().data == [["jim": "bar"]]
+
+        def request = server.takeRequest()
+        assert request.path == "/foo/a%20b%2Fc"
+        assert request.getHeader("X-Tenant") == "acme"
+        executor.shutdown()
+        server.shutdown()
+    }
 }
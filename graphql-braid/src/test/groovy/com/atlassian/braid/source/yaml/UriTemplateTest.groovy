@@ -0,0 +1,42 @@
+package com.atlassian.braid.source.yaml
+
+import org.junit.Test
+
+class UriTemplateTest {
+
+    @Test
+    void expandsParametersBetweenLiterals() {
+        def template = UriTemplate.parse("http://foo.com/{type}/{id}?expand=true")
+
+        assert template.expand(["type": "bar", "id": 42]) == "http://foo.com/bar/42?expand=true"
+    }
+
+    @Test
+    void encodesParameterValues() {
+        def template = UriTemplate.parse("http://foo.com/{id}")
+
+        assert template.expand(["id": "a b/c?d&\u00e9"]) == "http://foo.com/a%20b%2Fc%3Fd%26%C3%A9"
+    }
+
+    @Test
+    void keepsReservedCharactersOfReservedExpansions() {
+        def template = UriTemplate.parse("{+base}/foo/{id}")
+
+        assert template.expand(["base": "http://foo.com/api", "id": "a b"]) == "http://foo.com/api/foo/a%20b"
+    }
+
+    @Test
+    void expandsMissingParametersToNothing() {
+        def template = UriTemplate.parse("http://foo.com/{id}/bar")
+
+        assert template.expand(["id": null]) == "http://foo.com//bar"
+        assert template.expand([:]) == "http://foo.com//bar"
+    }
+
+    @Test
+    void keepsBracesThatAreNotParameters() {
+        def template = UriTemplate.parse("http://foo.com/{}/{a{id}/{")
+
+        assert template.expand(["id": "1"]) == "http://foo.com/{}/{a1/{"
+    }
+}
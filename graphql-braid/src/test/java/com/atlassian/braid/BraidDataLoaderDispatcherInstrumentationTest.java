@@ -0,0 +1,132 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.source.QueryExecutorSchemaSource;
+import com.atlassian.braid.source.SchemaLoader;
+import com.atlassian.braid.source.StringSchemaLoader;
+import com.google.common.collect.ImmutableMap;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.Instrumentation;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BraidDataLoaderDispatcherInstrumentationTest {
+
+    private static final SchemaNamespace SLOW = SchemaNamespace.of("slow");
+    private static final SchemaNamespace FOO = SchemaNamespace.of("foo");
+    private static final SchemaNamespace BAR = SchemaNamespace.of("bar");
+
+    private static final String QUERY = "{ slow foo(id: \"fooid\") { name bar { title } } }";
+
+    private final CompletableFuture<Map<String, Object>> slowResponse = new CompletableFuture<>();
+    private final AtomicInteger barCalls = new AtomicInteger();
+
+    @Test
+    public void linksAreDispatchedWithoutWaitingForSlowerFieldsOfTheirLevel() {
+        final Braid braid = newBraid(BraidDataLoaderDispatcherInstrumentation::new);
+
+        final CompletableFuture<ExecutionResult> result = braid.getGraphQL().execute(newExecutionInput(QUERY).build());
+
+        assertEquals(1, barCalls.get());
+        assertFalse(result.isDone());
+
+        slowResponse.complete(singletonMap("data", singletonMap("slow100", "Slow")));
+        assertResult(result.join());
+        assertEquals(1, barCalls.get());
+    }
+
+    @Test
+    public void linksAreDispatchedAfterTheBatchingWindow() {
+        final Braid braid = newBraid(() -> new BraidDataLoaderDispatcherInstrumentation(Duration.ofMillis(10)));
+        slowResponse.complete(singletonMap("data", singletonMap("slow100", "Slow")));
+
+        assertResult(braid.getGraphQL().execute(newExecutionInput(QUERY).build()).join());
+        assertEquals(1, barCalls.get());
+    }
+
+    @Test
+    public void linksAreDispatchedByTheDispatchExecutorAfterTheBatchingWindow() {
+        final AtomicInteger dispatches = new AtomicInteger();
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final Braid braid = newBraid(() -> BraidDataLoaderDispatcherInstrumentation.builder()
+                    .batchingWindow(Duration.ofMillis(10))
+                    .scheduler(scheduler)
+                    .dispatchExecutor(command -> {
+                        dispatches.incrementAndGet();
+                        ForkJoinPool.commonPool().execute(command);
+                    })
+                    .build());
+            slowResponse.complete(singletonMap("data", singletonMap("slow100", "Slow")));
+
+            assertResult(braid.getGraphQL().execute(newExecutionInput(QUERY).build()).join());
+            assertEquals(1, barCalls.get());
+            assertTrue(dispatches.get() > 0);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchingWindowCannotBeNegative() {
+        new BraidDataLoaderDispatcherInstrumentation(Duration.ofMillis(-1));
+    }
+
+    private static void assertResult(ExecutionResult result) {
+        assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+        assertEquals(ImmutableMap.of(
+                "slow", "Slow",
+                "foo", ImmutableMap.of("name", "Foo", "bar", singletonMap("title", "Bar"))),
+                result.getData());
+    }
+
+    private Braid newBraid(Supplier<Instrumentation> dataLoaderInstrumentationFactory) {
+        return Braid.builder()
+                .dataLoaderInstrumentationFactory(dataLoaderInstrumentationFactory)
+                .schemaSource(QueryExecutorSchemaSource.builder()
+                        .namespace(SLOW)
+                        .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL, "type Query { slow: String }"))
+                        .remoteRetriever((query, context) -> slowResponse)
+                        .build())
+                .schemaSource(QueryExecutorSchemaSource.builder()
+                        .namespace(FOO)
+                        .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL,
+                                "type Query { foo(id: String): Foo } type Foo { name: String barid: String }"))
+                        .links(singletonList(Link.newSimpleLink()
+                                .sourceNamespace(FOO)
+                                .sourceType("Foo")
+                                .newFieldName("bar")
+                                .sourceInputFieldName("barid")
+                                .targetNamespace(BAR)
+                                .targetType("Bar")
+                                .topLevelQueryField("bar")
+                                .argument("id")
+                                .build()))
+                        .localRetriever(query -> singletonMap("foo100", ImmutableMap.of("name", "Foo", "barid", "barid")))
+                        .build())
+                .schemaSource(QueryExecutorSchemaSource.builder()
+                        .namespace(BAR)
+                        .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL,
+                                "type Query { bar(id: String): Bar } type Bar { id: String title: String }"))
+                        .localRetriever(query -> {
+                            barCalls.incrementAndGet();
+                            return singletonMap("bar100", singletonMap("title", "Bar"));
+                        })
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package com.atlassian.braid;
+
+import com.atlassian.braid.cache.CacheStats;
+import com.atlassian.braid.source.Query;
+import com.atlassian.braid.source.QueryExecutorSchemaSource;
+import com.atlassian.braid.source.SchemaLoader;
+import com.atlassian.braid.source.StringSchemaLoader;
+import com.atlassian.braid.source.jackson.JacksonGraphQLResponseParser;
+import com.google.common.collect.ImmutableMap;
+import graphql.ExecutionResult;
+import graphql.language.AstPrinter;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static graphql.ExecutionInput.newExecutionInput;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BraidGraphQLTest {
+
+    private static final SchemaNamespace FOO = SchemaNamespace.of("foo");
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final QueryExecutorSchemaSource<Object> schemaSource = newSchemaSource();
+
+    @Test
+    public void sharedGraphQLCreatesNewDataLoadersForEachExecution() {
+        final Braid braid = newBraidBuilder().build();
+
+        assertSame(braid.getGraphQL(), braid.getGraphQL());
+
+        final Map<String, Object> expected = singletonMap("foo", ImmutableMap.of("id", "fooid", "name", "Foo"));
+        for (int i = 1; i <= 3; i++) {
+            final ExecutionResult result = braid.getGraphQL()
+                    .execute(newExecutionInput().query("{ foo(id: \"fooid\") { id name } }").build())
+                    .join();
+
+            assertTrue(result.getErrors().isEmpty());
+            assertEquals(expected, result.getData());
+            assertEquals(i, calls.get());
+        }
+    }
+
+    @Test
+    public void preparsedDocumentCacheIsHitForSameQueryAndOperation() {
+        final Braid braid = newBraidBuilder().preparsedDocumentCache().build();
+
+        execute(braid, "query Foo { foo(id: \"fooid\") { id name } }");
+        execute(braid, "query Foo { foo(id: \"fooid\") { id name } }");
+        execute(braid, "query Foo { foo(id: \"fooid\") { id } }");
+
+        final CacheStats stats = braid.getPreparsedDocumentCache()
+                .orElseThrow(IllegalStateException::new)
+                .stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+
+    @Test
+    public void persistedQueriesAreRegisteredThenExecutedFromTheirHash() {
+        final Braid braid = newBraidBuilder().preparsedDocumentCache().persistedQueries().build();
+        final String query = "{ foo(id: \"fooid\") { id name } }";
+        final Map<String, Object> extensions = singletonMap("persistedQuery",
+                ImmutableMap.of("version", 1, "sha256Hash", PersistedQueries.sha256Hex(query)));
+
+        final ExecutionResult notFound = braid.getGraphQL().execute(newExecutionInput("").build(), extensions).join();
+        assertEquals("PersistedQueryNotFound", notFound.getErrors().get(0).getMessage());
+
+        final ExecutionResult registered = braid.getGraphQL().execute(newExecutionInput(query).build(), extensions).join();
+        assertTrue(registered.getErrors().isEmpty());
+
+        final ExecutionResult persisted = braid.getGraphQL().execute(newExecutionInput("").build(), extensions).join();
+        assertTrue(persisted.getErrors().isEmpty());
+        assertEquals(registered.<Object>getData(), persisted.getData());
+        assertEquals(1, braid.getPreparsedDocumentCache().orElseThrow(IllegalStateException::new).stats().getHitCount());
+    }
+
+    @Test
+    public void persistedQueriesAreFoundWhateverTheCaseOfTheirHash() {
+        final Braid braid = newBraidBuilder().preparsedDocumentCache().persistedQueries().build();
+        final String query = "{ foo(id: \"fooid\") { id name } }";
+        final String hash = PersistedQueries.sha256Hex(query);
+
+        final ExecutionResult registered = braid.getGraphQL().execute(newExecutionInput(query).build(),
+                singletonMap("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", hash.toUpperCase(Locale.ROOT)))).join();
+        assertTrue(registered.getErrors().isEmpty());
+
+        final ExecutionResult persisted = braid.getGraphQL().execute(newExecutionInput("").build(),
+                singletonMap("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", hash))).join();
+        assertTrue(persisted.getErrors().isEmpty());
+        assertEquals(registered.<Object>getData(), persisted.getData());
+    }
+
+    @Test
+    public void persistedQueryWithMismatchingHashIsRejected() {
+        final Braid braid = newBraidBuilder().persistedQueries().build();
+        final Map<String, Object> extensions = singletonMap("persistedQuery",
+                ImmutableMap.of("version", 1, "sha256Hash", PersistedQueries.sha256Hex("{ foo { id } }")));
+
+        final ExecutionResult result = braid.getGraphQL()
+                .execute(newExecutionInput("{ foo(id: \"fooid\") { id } }").build(), extensions)
+                .join();
+
+        assertEquals("provided sha does not match query", result.getErrors().get(0).getMessage());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void cachedDocumentsAreTransformedTheSameWayForEachExecution() {
+        final Braid braid = newBraidBuilder().preparsedDocumentCache().build();
+        final String query = "query Foo($id: String, $withName: Boolean!) { foo(id: $id) { id name @include(if: $withName) } }";
+
+        for (boolean withName : new boolean[]{true, false, true, false, true}) {
+            final ExecutionResult result = braid.getGraphQL()
+                    .execute(newExecutionInput(query).variables(ImmutableMap.of("id", "fooid", "withName", withName)).build())
+                    .join();
+            assertTrue(result.getErrors().isEmpty());
+        }
+
+        assertEquals(5, queries.size());
+        assertEquals(queries.get(0), queries.get(1));
+        assertEquals(queries.get(0), queries.get(2));
+        assertEquals(queries.get(0), queries.get(4));
+        assertTrue(queries.get(0), queries.get(0).contains("@include(if: $withName100)"));
+
+        // each field and variable values are cached the second time they're trimmed, then hit
+        final CacheStats stats = schemaSource.getBraidSchemaSource().getTrimmedFieldCacheStats()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(1, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+    }
+
+    @Test
+    public void fieldsOfDocumentsParsedForEachExecutionAreTrimmedOnce() {
+        final Braid braid = newBraidBuilder().build();
+        final String query = "query Foo($id: String) { foo(id: $id) { id name } }";
+
+        for (int i = 0; i < 3; i++) {
+            final ExecutionResult result = braid.getGraphQL()
+                    .execute(newExecutionInput(query).variables(singletonMap("id", "fooid")).build())
+                    .join();
+            assertTrue(result.getErrors().isEmpty());
+        }
+
+        // without a document cache each execution has its own field, still the same field cached by the second one
+        final CacheStats stats = schemaSource.getBraidSchemaSource().getTrimmedFieldCacheStats()
+                .orElseThrow(IllegalStateException::new);
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+
+    @Test
+    public void streamingRemoteRetrieverResponsesAreParsedByTopLevelField() {
+        final Braid braid = Braid.builder()
+                .schemaSource(QueryExecutorSchemaSource.builder()
+                        .namespace(FOO)
+                        .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL,
+                                "type Query { foo(id: String): Foo } type Foo { id: String name: String }"))
+                        .streamingRemoteRetriever((query, context) -> {
+                            queries.add(query.getPrintedQuery());
+                            return completedFuture(new ByteArrayInputStream(("{\"data\": {\"foo100\": " +
+                                    "{\"id\": \"fooid\", \"name\": \"Foo\"}}}").getBytes(UTF_8)));
+                        }, new JacksonGraphQLResponseParser())
+                        .build())
+                .build();
+
+        final ExecutionResult result = braid.getGraphQL()
+                .execute(newExecutionInput().query("{ foo(id: \"fooid\") { id name } }").build())
+                .join();
+
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(singletonMap("foo", ImmutableMap.of("id", "fooid", "name", "Foo")), result.getData());
+        assertEquals(singletonList("query Bulk_Foo{foo100:foo(id:\"fooid\"){id name}}"), queries);
+    }
+
+    private static void execute(Braid braid, String query) {
+        assertTrue(braid.getGraphQL().execute(newExecutionInput().query(query).build()).join().getErrors().isEmpty());
+    }
+
+    private Braid.BraidBuilder newBraidBuilder() {
+        return Braid.builder().schemaSource(schemaSource);
+    }
+
+    private QueryExecutorSchemaSource<Object> newSchemaSource() {
+        final Function<Query, Object> localRetriever = query -> {
+            calls.incrementAndGet();
+            queries.add(AstPrinter.printAst(query.getQuery()));
+            return singletonMap("foo100", ImmutableMap.of("id", "fooid", "name", "Foo"));
+        };
+
+        return QueryExecutorSchemaSource.builder()
+                .namespace(FOO)
+                .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL,
+                        "type Query { foo(id: String): Foo } type Foo { id: String name: String }"))
+                .localRetriever(localRetriever)
+                .build();
+    }
+}
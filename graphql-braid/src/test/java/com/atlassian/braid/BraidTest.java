@@ -90,6 +90,25 @@ public class BraidTest {
     public void testBraidBatchingWithLink() {
     }
 
+    @Test
+    public void testBraidWithLinkDataLoaderOptions() {
+    }
+
+    @Test
+    public void testBraidWithListArgumentLink() {
+    }
+
+    @Test
+    public void testBraidWithDeduplicatedLinkTargets() {
+        LinkTargetStats stats = braidRule.braid.getLinkTargetStats().orElseThrow(IllegalStateException::new);
+        assertThat(stats.getFetchCount()).isEqualTo(2);
+        assertThat(stats.getDeduplicatedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testBraidWithCoalescedQueries() {
+    }
+
     @Test
     public void testBraidWithLinkOfIds() {
     }
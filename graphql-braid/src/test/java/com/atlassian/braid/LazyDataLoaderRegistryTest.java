@@ -0,0 +1,47 @@
+package com.atlassian.braid;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LazyDataLoaderRegistryTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    public void dataLoadersAreOnlyCreatedOnFirstUse() {
+        final BatchLoader<String, String> loader = keys -> CompletableFuture.completedFuture(keys);
+        final LazyDataLoaderRegistry registry = new LazyDataLoaderRegistry(
+                ImmutableMap.of("Query.foo", loader, "Query.bar", loader), this::newDataLoader);
+
+        assertEquals(ImmutableSet.of("Query.foo", "Query.bar"), registry.getKeys());
+        assertEquals(0, registry.getCreatedCount());
+
+        final DataLoader<String, String> foo = registry.getDataLoader("Query.foo");
+        assertSame(foo, registry.getDataLoader("Query.foo"));
+        assertEquals(1, created.get());
+        assertEquals(1, registry.getCreatedCount());
+
+        final CompletableFuture<String> value = foo.load("fooid");
+        registry.dispatchAll();
+        assertEquals("fooid", value.join());
+        assertEquals(1, registry.getCreatedCount());
+
+        assertNull(registry.getDataLoader("Query.unknown"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataLoader newDataLoader(String key, BatchLoader loader) {
+        created.incrementAndGet();
+        return new DataLoader(loader);
+    }
+}
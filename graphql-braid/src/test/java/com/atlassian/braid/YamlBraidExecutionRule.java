@@ -10,6 +10,7 @@ import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buil
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildQueryFieldRenames;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildSchemaLoader;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildSchemaNamespace;
+import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildTopLevelDataLoaderOptions;
 import static com.atlassian.braid.source.yaml.YamlRemoteSchemaSourceBuilder.buildTypeRenames;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Suppliers.memoize;
@@ -68,14 +69,20 @@ public class YamlBraidExecutionRule implements MethodRule {
                 try {
                     TestConfiguration config = loadFromYaml(getYamlPath(method));
 
-                    braid = Braid.builder()
+                    final Braid.BraidBuilder braidBuilder = Braid.builder()
                             .withRuntimeWiring(rwb -> {
                                 rwb.type("Fooable", wiring -> wiring.typeResolver(__ -> null));
                                 rwb.type("FooNamed", wiring -> wiring.typeResolver(__ -> null));
                                 rwb.type("BarNamed", wiring -> wiring.typeResolver(__ -> null));
                             })
-                            .schemaSources(config.getSchemaSources())
-                            .build();
+                            .schemaSources(config.getSchemaSources());
+                    if (config.isDeduplicateLinkTargets()) {
+                        braidBuilder.deduplicateLinkTargets();
+                    }
+                    if (config.isCoalesceQueries()) {
+                        braidBuilder.coalesceQueries();
+                    }
+                    braid = braidBuilder.build();
 
                     final TestQuery request = config.getRequest();
 
@@ -180,11 +187,24 @@ public class YamlBraidExecutionRule implements MethodRule {
                                     .mutationFieldRenames(buildMutationAliases(m))
                                     .typeRenames(buildTypeRenames(m))
                                     .documentMapperFactory(buildDocumentMapperFactory(m))
+                                    .topLevelDataLoaderOptions(buildTopLevelDataLoaderOptions(m))
                                     .build())
                             .collect(Collectors.<SchemaSource>toList()))
                     .orElse(emptyList());
         }
 
+        boolean isDeduplicateLinkTargets() {
+            return BraidMaps.get(configMap, "deduplicateLinkTargets")
+                    .map(Boolean.class::cast)
+                    .orElse(false);
+        }
+
+        boolean isCoalesceQueries() {
+            return BraidMaps.get(configMap, "coalesceQueries")
+                    .map(Boolean.class::cast)
+                    .orElse(false);
+        }
+
         Map<String, Object> getResponse() {
             return BraidMaps.get(configMap, "response")
                     .map(BraidObjects::<Map<String, Object>>cast)
@@ -0,0 +1,84 @@
+package com.atlassian.braid.benchmark;
+
+import com.atlassian.braid.Braid;
+import com.atlassian.braid.SchemaNamespace;
+import com.atlassian.braid.source.QueryExecutorSchemaSource;
+import com.atlassian.braid.source.SchemaLoader;
+import com.atlassian.braid.source.StringSchemaLoader;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Compares executing queries with a new {@link com.atlassian.braid.BraidGraphQL} per query against the
+ * {@link Braid#getGraphQL() shared} one.
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atlassian.braid.benchmark.BraidGraphQLBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BraidGraphQLBenchmark {
+
+    private static final String SCHEMA = "type Query { foo(id: String): Foo } type Foo { id: String name: String }";
+
+    private Braid braid;
+    private ExecutionInput executionInput;
+
+    @Setup
+    public void setUp() {
+        final Map<String, Object> foo = new HashMap<>();
+        foo.put("id", "fooid");
+        foo.put("name", "Foo");
+
+        braid = Braid.builder()
+                .schemaSource(QueryExecutorSchemaSource.builder()
+                        .namespace(SchemaNamespace.of("foo"))
+                        .schemaLoader(new StringSchemaLoader(SchemaLoader.Type.IDL, SCHEMA))
+                        .localRetriever(query -> singletonMap("foo100", foo))
+                        .build())
+                .build();
+
+        executionInput = ExecutionInput.newExecutionInput()
+                .query("{ foo(id: \"fooid\") { id name } }")
+                .build();
+    }
+
+    @Benchmark
+    public ExecutionResult newGraphQLPerQuery() {
+        return braid.newGraphQL().execute(executionInput).join();
+    }
+
+    @Benchmark
+    public ExecutionResult sharedGraphQL() {
+        return braid.getGraphQL().execute(executionInput).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BraidGraphQLBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
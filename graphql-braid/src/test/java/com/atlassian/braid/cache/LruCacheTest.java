@@ -0,0 +1,60 @@
+package com.atlassian.braid.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LruCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedEntryWhenFull() {
+        final LruCache<String, String> cache = LruCache.ofSize(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+        assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    public void evictsEntriesWhenTooHeavy() {
+        final LruCache<String, String> cache = new LruCache<>(10, 5, (k, v) -> v.length());
+        cache.put("a", "AAA");
+        cache.put("b", "BB");
+        assertEquals(5, cache.weight());
+
+        cache.put("c", "C");
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(3, cache.weight());
+
+        cache.put("d", "DDDDDD");
+        assertNull(cache.getIfPresent("d"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void putIfAbsentKeepsTheCachedValue() {
+        final LruCache<String, String> cache = LruCache.ofSize(10);
+        assertNull(cache.putIfAbsent("a", "A"));
+        assertEquals("A", cache.putIfAbsent("a", "other"));
+        assertEquals("A", cache.getIfPresent("a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void recordsHitsAndMisses() {
+        final LruCache<String, String> cache = LruCache.ofSize(10);
+        assertEquals("A", cache.get("a", k -> "A"));
+        assertEquals("A", cache.get("a", k -> "other"));
+        assertNull(cache.getIfPresent("b"));
+
+        final CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.atlassian.braid.document;
+
+import com.atlassian.braid.document.DocumentMapper.MappedDocument;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares mapping batches of the same shape, as Braid sends for each request, with and without the cache of mapped
+ * documents of {@link TypedDocumentMapper}. Each batch has its own aliases and variable names, as numbered by Braid,
+ * and is mapped along with its results.
+ * <p>Lives in the document package to access its internals. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.atlassian.braid.document.TypedDocumentMapperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedDocumentMapperBenchmark {
+
+    private static final String SCHEMA = "" +
+            "type Query { foo(id: ID): Foo }\n" +
+            "type Foo { name: String description: String bar: Bar }\n" +
+            "type Bar { title: String }\n";
+
+    private static final int BATCHES = 16;
+
+    @Param({"1", "20"})
+    public int fields;
+
+    private TypedDocumentMapper<Object> cached;
+    private TypedDocumentMapper<Object> uncached;
+    private Document[] documents;
+    private Map<String, Object>[] results;
+    private int batch;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final TypeDefinitionRegistry schema = new SchemaParser().parse(SCHEMA);
+        final List<TypeMapper> typeMappers = asList(
+                TypeMappers.typeNamed("Foo").copy("name", "fullName").copyRemaining(),
+                TypeMappers.typeNamed("Bar").copy("title", "label"));
+        cached = new TypedDocumentMapper<>(schema, typeMappers);
+        uncached = new TypedDocumentMapper<>(schema, typeMappers, 0, TypedDocumentMapper.DEFAULT_MAXIMUM_WEIGHT);
+
+        documents = new Document[BATCHES];
+        results = new Map[BATCHES];
+        for (int i = 0; i < BATCHES; i++) {
+            documents[i] = batch(i * fields + 100);
+            results[i] = result(i * fields + 100);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> cachedMapping() {
+        return map(cached);
+    }
+
+    @Benchmark
+    public Map<String, Object> uncachedMapping() {
+        return map(uncached);
+    }
+
+    private Map<String, Object> map(TypedDocumentMapper<Object> mapper) {
+        final int i = batch++ & (BATCHES - 1);
+        final MappedDocument mapped = mapper.apply(null, documents[i]);
+        return mapped.getResultMapper().apply(results[i]);
+    }
+
+    private Document batch(int counter) {
+        final StringBuilder variables = new StringBuilder();
+        final StringBuilder selections = new StringBuilder();
+        for (int i = counter; i < counter + fields; i++) {
+            variables.append(" $id").append(i).append(": ID");
+            selections.append(" foo").append(i).append(": foo(id: $id").append(i)
+                    .append(") { name description bar { title } }");
+        }
+        return new Parser().parseDocument("query Bulk(" + variables + ") {" + selections + " }");
+    }
+
+    private Map<String, Object> result(int counter) {
+        final Map<String, Object> result = new HashMap<>();
+        for (int i = counter; i < counter + fields; i++) {
+            final Map<String, Object> bar = new HashMap<>();
+            bar.put("label", "Bar " + i);
+            final Map<String, Object> foo = new HashMap<>();
+            foo.put("fullName", "Foo " + i);
+            foo.put("description", "The foo " + i);
+            foo.put("bar", bar);
+            result.put("foo" + i, foo);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TypedDocumentMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.atlassian.braid.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.atlassian.braid.mapper.Mappers.fromYaml;
+import static java.util.Arrays.asList;
+
+/**
+ * Compares getting mapper keys with {@link MapperPath}s against SpEL, compiled once warmed up as by
+ * {@link SpringExpressions} or interpreted, and measures the mapping of the nested lists fixture of
+ * {@code YamlMapperTest}.
+ * <p>Lives in the mapper package to access its internals. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.atlassian.braid.mapper.MapperPathBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperPathBenchmark {
+
+    private static final String NESTED_LIST = "" +
+            "- key: \"foo\"\n" +
+            "  op: \"copyList\"\n" +
+            "  mapper:\n" +
+            "    - key: \"bar\"\n" +
+            "      op: \"copyList\"\n" +
+            "      mapper:\n" +
+            "        - baz: \"copy\"\n" +
+            "    - key: \"jim\"\n" +
+            "      op: \"copyList\"\n" +
+            "      mapper:\n" +
+            "        - sara: \"copy\"\n";
+
+    @Param({"foo", "['foo'][0]['bar'][0]['baz']"})
+    public String key;
+
+    private final SpringExpressions springExpressions = new SpringExpressions();
+    private Map<String, Object> input;
+    private Mapper nestedList;
+    private MapperPath path;
+    private Expression interpreted;
+
+    @Setup
+    public void setUp() {
+        // the nested list input of YamlMapperTest, as a JSON parser would create it
+        input = map("foo", list(
+                map("bar", list(map("baz", "blah2")), "jim", list(map("sara", "b"))),
+                map("bar", list(map("baz", "blah3")), "jim", list(map("sara", "c")))));
+        path = MapperPath.of(key);
+        interpreted = new SpelExpressionParser().parseExpression(!key.contains("[") ? "['" + key + "']" : key);
+        nestedList = fromYaml(() -> new StringReader(NESTED_LIST));
+    }
+
+    @Benchmark
+    public Optional<Object> mapperPath() {
+        return MapperMaps.get(input, path);
+    }
+
+    @Benchmark
+    public Optional<Object> springExpression() {
+        return springExpressions.get(input, key);
+    }
+
+    @Benchmark
+    public Object springExpressionInterpreted() {
+        return interpreted.getValue(input);
+    }
+
+    @Benchmark
+    public Map<String, Object> nestedListMapper() {
+        return nestedList.apply(input);
+    }
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static List<Object> list(Object... values) {
+        return new ArrayList<>(asList(values));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperPathBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
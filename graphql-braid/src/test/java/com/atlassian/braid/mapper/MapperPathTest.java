@@ -0,0 +1,68 @@
+package com.atlassian.braid.mapper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MapperPathTest {
+
+    @Test
+    public void resolvesPlainKeys() {
+        assertThat(resolve("foo", singletonMap("foo", "bar"))).isEqualTo("bar");
+        assertThat(resolve("foo.bar", singletonMap("foo.bar", "baz"))).isEqualTo("baz");
+        assertThat(resolve("foo", singletonMap("bar", "baz"))).isNull();
+    }
+
+    @Test
+    public void resolvesPathsOfMapKeysAndListIndexes() {
+        final Map<String, Object> input = singletonMap("items",
+                asList(singletonMap("id", "a"), singletonMap("id", "b")));
+
+        assertThat(resolve("['items'][1]['id']", input)).isEqualTo("b");
+        assertThat(resolve("[\"items\"][0][\"id\"]", input)).isEqualTo("a");
+        assertThat(resolve("['items'][0]['name']", input)).isNull();
+    }
+
+    @Test
+    public void leavesPathsThatCantBeResolvedDirectlyUnresolved() {
+        final Map<String, Object> input = new HashMap<>();
+        input.put("items", singletonList("a"));
+        input.put("foo", null);
+
+        assertThat(resolve("['items'][1]", input)).isSameAs(MapperPath.UNRESOLVED);
+        assertThat(resolve("['items']['id']", input)).isSameAs(MapperPath.UNRESOLVED);
+        assertThat(resolve("['foo']['bar']", input)).isSameAs(MapperPath.UNRESOLVED);
+    }
+
+    @Test
+    public void leavesOtherExpressionsUnresolved() {
+        assertThat(MapperPath.of("['foo']").isSimple()).isTrue();
+        assertThat(MapperPath.of("['foo'].bar").isSimple()).isFalse();
+        assertThat(MapperPath.of("['foo']['bar'").isSimple()).isFalse();
+        assertThat(MapperPath.of("['it''s']").isSimple()).isFalse();
+        assertThat(MapperPath.of("[ 'foo' ]").isSimple()).isFalse();
+        assertThat(MapperPath.of("['foo'][-1]").isSimple()).isFalse();
+        assertThat(MapperPath.of("['foo'][#index]").isSimple()).isFalse();
+        assertThat(resolve("['foo'].bar", singletonMap("foo", "bar"))).isSameAs(MapperPath.UNRESOLVED);
+    }
+
+    @Test
+    public void mapperMapsFallBackForUnresolvedPaths() {
+        final Map<String, Object> input = singletonMap("foo", singletonMap("bar", new ArrayList<>(asList("a", "b"))));
+
+        assertThat(MapperMaps.<String>get(input, "['foo']['bar'][1]")).contains("b");
+        assertThat(MapperMaps.<Object>get(input, "['foo']['bar'].size()")).contains(2);
+    }
+
+    private static Object resolve(String key, Map<String, ?> input) {
+        @SuppressWarnings("unchecked") final Map<String, Object> map = (Map<String, Object>) input;
+        return MapperPath.of(key).resolve(map);
+    }
+}
@@ -5,12 +5,20 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.atlassian.braid.mapper.Mappers.mapper;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class MapperTest {
@@ -192,6 +200,46 @@ public class MapperTest {
                 .apply(data).get("foz"))).contains(singletonMap("embedded", singletonList(singletonMap("boz", "baz"))));
     }
 
+    @Test
+    public void copyLargeListInParallelKeepsOrder() {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Map<String, Object>> list = IntStream.range(0, 1000)
+                    .mapToObj(i -> singletonMap("bar", (Object) i))
+                    .collect(toList());
+            final Mapper mapper = mapper()
+                    .copyList("foo", "foz", mapper().copy("bar", "boz"), ParallelListMapping.aboveSize(100, executor, 3));
+
+            assertThat(BraidObjects.<List<Map<String, Object>>>cast(mapper.apply(singletonMap("foo", list)).get("foz")))
+                    .extracting(element -> element.get("boz"))
+                    .containsExactlyElementsOf(IntStream.range(0, 1000).boxed().collect(toList()));
+            assertThat(BraidObjects.<List<Map<String, Object>>>cast(mapper.apply(singletonMap("foo", list.subList(0, 2))).get("foz")))
+                    .containsExactly(singletonMap("boz", 0), singletonMap("boz", 1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void defaultCopyListMapsLargeListsInParallel() {
+        final AtomicInteger tasks = new AtomicInteger();
+        final Executor executor = task -> {
+            tasks.incrementAndGet();
+            task.run();
+        };
+        final List<Map<String, Object>> list = IntStream.range(0, 100)
+                .mapToObj(i -> singletonMap("bar", (Object) i))
+                .collect(toList());
+        final Mapper mapper = new ForwardingMapper(mapper())
+                .copyList("foo", "foz", mapper().copy("bar", "boz"), ParallelListMapping.aboveSize(10, executor, 2));
+
+        assertThat(BraidObjects.<List<Map<String, Object>>>cast(mapper.apply(singletonMap("foo", list)).get("foz")))
+                .extracting(element -> element.get("boz"))
+                .containsExactlyElementsOf(IntStream.range(0, 100).boxed().collect(toList()));
+        assertThat(tasks.get()).isEqualTo(2);
+        assertThat(mapper.apply(emptyMap())).doesNotContainKey("foz");
+    }
+
     @Test
     public void mapAndPut() {
         assertThat(BraidObjects.<Map<String, String>>cast(mapper()
@@ -231,4 +279,75 @@ public class MapperTest {
                 .apply(singletonMap("foo", singletonMap("biz", singletonMap("bar", "baz")))))
                 .isEqualTo(singletonMap("faz", singletonMap("barn", "baz")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void composedOperationsAreAppliedInOrder() {
+        final Mapper mapper = Mappers.mapper(MapperOperations.composed(
+                MapperOperations.put("foo", "bar"),
+                MapperOperations.composed(MapperOperations.noop(), MapperOperations.copy("foo", "faz"))))
+                .put("faz", () -> "baz", inout -> inout.getOutput().containsKey("faz"));
+
+        assertThat(mapper.apply(singletonMap("foo", "fuz")))
+                .containsEntry("foo", "bar")
+                .containsEntry("faz", "baz");
+        assertThat(mapper.apply(emptyMap()))
+                .containsEntry("foo", "bar")
+                .doesNotContainKey("faz");
+    }
+
+    /**
+     * A mapper implementing only the abstract methods of {@link Mapper}, to test its default methods
+     */
+    private static final class ForwardingMapper implements Mapper {
+        private final Mapper delegate;
+
+        private ForwardingMapper(Mapper delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Map<String, Object> apply(Map<String, Object> input) {
+            return delegate.apply(input);
+        }
+
+        @Override
+        public <T, R> Mapper copy(String sourceKey, String targetKey, Supplier<R> defaultValue, Function<T, R> transform) {
+            return new ForwardingMapper(delegate.copy(sourceKey, targetKey, defaultValue, transform));
+        }
+
+        @Override
+        public <T, R> Mapper copy(String sourceKey, String targetKey, Supplier<R> defaultValue, Function<T, R> transform, Predicate<MapperInputOutput> predicate) {
+            return new ForwardingMapper(delegate.copy(sourceKey, targetKey, defaultValue, transform, predicate));
+        }
+
+        @Override
+        public <V> Mapper put(String key, V value) {
+            return new ForwardingMapper(delegate.put(key, value));
+        }
+
+        @Override
+        public <V> Mapper put(String key, Supplier<V> value, Predicate<MapperInputOutput> predicate) {
+            return new ForwardingMapper(delegate.put(key, value, predicate));
+        }
+
+        @Override
+        public Mapper copyList(String sourceKey, String targetKey, Mapper mapper) {
+            return new ForwardingMapper(delegate.copyList(sourceKey, targetKey, mapper));
+        }
+
+        @Override
+        public Mapper list(String key, Predicate<MapperInputOutput> predicate, Mapper mapper) {
+            return new ForwardingMapper(delegate.list(key, predicate, mapper));
+        }
+
+        @Override
+        public Mapper map(String key, Predicate<MapperInputOutput> predicate, Function<Map<String, Object>, Map<String, Object>> mapper) {
+            return new ForwardingMapper(delegate.map(key, predicate, mapper));
+        }
+
+        @Override
+        public Mapper copyMap(String sourceKey, String targetKey, Mapper mapper) {
+            return new ForwardingMapper(delegate.copyMap(sourceKey, targetKey, mapper));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.atlassian.braid.mapper;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpringExpressionsTest {
+
+    // more than the number of interpreted evaluations after which SpEL compiles an expression
+    private static final int EVALUATIONS = 500;
+
+    private final SpringExpressions expressions = new SpringExpressions();
+
+    @Test
+    public void getsValuesOnceCompiled() {
+        for (int i = 0; i < EVALUATIONS; i++) {
+            assertThat(get(singletonMap("foo", "bar" + i), "foo")).contains("bar" + i);
+            assertThat(get(singletonMap("foo", singletonMap("bar", i)), "['foo']['bar']")).contains(i);
+        }
+    }
+
+    @Test
+    public void compiledExpressionsFallBackForMissingIntermediateValuesAndOtherTypes() {
+        for (int i = 0; i < EVALUATIONS; i++) {
+            assertThat(get(singletonMap("foo", singletonMap("bar", "baz")), "['foo']['bar']")).contains("baz");
+        }
+
+        assertThat(get(singletonMap("foo", emptyMap()), "['foo']['bar']")).isEmpty();
+        assertThat(get(singletonMap("foo", singletonMap("bar", singletonList("baz"))), "['foo']['bar']"))
+                .contains(singletonList("baz"));
+        assertThat(get(singletonMap("foo", singletonMap("bar", "baz")), "['foo']['bar']")).contains("baz");
+    }
+
+    private Optional<Object> get(Map<String, ?> map, String key) {
+        @SuppressWarnings("unchecked") final Map<String, Object> source = (Map<String, Object>) map;
+        return expressions.get(source, key);
+    }
+}
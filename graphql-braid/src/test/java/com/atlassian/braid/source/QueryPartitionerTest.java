@@ -0,0 +1,128 @@
+package com.atlassian.braid.source;
+
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static graphql.schema.DataFetchingEnvironmentImpl.newDataFetchingEnvironment;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryPartitionerTest {
+
+    private final List<List<Object>> partitions = new ArrayList<>();
+
+    @Test
+    public void partitionsByMaxAliasesInBatchOrder() {
+        final List<Object> results = load(QueryPartitioner.byMaxAliases(2), "a", "b", "c", "d", "e");
+
+        assertEquals(asList(asList("a", "b"), asList("c", "d"), asList("e")), partitions);
+        assertEquals(asList("a", "b", "c", "d", "e"), results);
+    }
+
+    @Test
+    public void partitionsByEstimatedResponseSize() {
+        final List<Object> results = load(QueryPartitioner.byEstimatedResponseSize(5,
+                env -> env.<String>getArgument("id").length()), "aa", "bbb", "cccccc", "d");
+
+        assertEquals(asList(asList("aa", "bbb"), asList("cccccc"), asList("d")), partitions);
+        assertEquals(asList("aa", "bbb", "cccccc", "d"), results);
+    }
+
+    @Test
+    public void partitionsByKeyAreMergedBackInBatchOrder() {
+        final List<Object> results = load(QueryPartitioner.byKey(env -> env.<String>getArgument("id").charAt(0)),
+                "a1", "b1", "a2", "c1", "b2");
+
+        assertEquals(asList(asList("a1", "a2"), asList("b1", "b2"), asList("c1")), partitions);
+        assertEquals(asList("a1", "b1", "a2", "c1", "b2"), results);
+    }
+
+    @Test
+    public void partitionsAreQueriedUpToTheMaxConcurrency() {
+        final List<CompletableFuture<List<DataFetcherResult<Object>>>> queries = new ArrayList<>();
+        final CompletableFuture<List<DataFetcherResult<Object>>> result = QueryPartitioner.byMaxAliases(1)
+                .withMaxConcurrency(2)
+                .apply(environments("a", "b", "c"), partition -> {
+                    final CompletableFuture<List<DataFetcherResult<Object>>> query = new CompletableFuture<>();
+                    queries.add(query);
+                    return query;
+                }).toCompletableFuture();
+
+        assertEquals(2, queries.size());
+
+        queries.get(1).complete(singletonList(new DataFetcherResult<>("b", emptyList())));
+        assertEquals(3, queries.size());
+
+        queries.get(0).complete(singletonList(new DataFetcherResult<>("a", emptyList())));
+        assertFalse(result.isDone());
+
+        queries.get(2).complete(singletonList(new DataFetcherResult<>("c", emptyList())));
+        assertTrue(result.isDone());
+        assertEquals(asList("a", "b", "c"), result.join().stream().map(DataFetcherResult::getData).collect(toList()));
+    }
+
+    @Test
+    public void waitingPartitionsCompletingSynchronouslyDoNotGrowTheStack() {
+        final String[] ids = IntStream.range(0, 50_000).mapToObj(String::valueOf).toArray(String[]::new);
+        final CompletableFuture<List<DataFetcherResult<Object>>> first = new CompletableFuture<>();
+        final CompletableFuture<List<DataFetcherResult<Object>>> result = QueryPartitioner.byMaxAliases(1)
+                .withMaxConcurrency(1)
+                .apply(environments(ids), partition -> partition.get(0).getArgument("id").equals("0")
+                        ? first
+                        : completedFuture(singletonList(new DataFetcherResult<>(partition.get(0).getArgument("id"), emptyList()))))
+                .toCompletableFuture();
+
+        first.complete(singletonList(new DataFetcherResult<>("0", emptyList())));
+
+        assertTrue(result.isDone());
+        assertEquals(asList(ids), result.join().stream().map(DataFetcherResult::getData).collect(toList()));
+    }
+
+    @Test
+    public void failedPartitionsFailTheBatch() {
+        final CompletionStage<List<DataFetcherResult<Object>>> result = QueryPartitioner.byMaxAliases(1)
+                .apply(environments("a", "b"), partition -> {
+                    throw new IllegalStateException("failed");
+                });
+
+        assertTrue(result.toCompletableFuture().isCompletedExceptionally());
+    }
+
+    private List<Object> load(QueryPartitionFunction partitionFunction, String... ids) {
+        final Function<List<DataFetchingEnvironment>, CompletionStage<List<DataFetcherResult<Object>>>> loader =
+                partition -> {
+                    partitions.add(ids(partition));
+                    return completedFuture(partition.stream()
+                            .map(env -> new DataFetcherResult<Object>(env.getArgument("id"), emptyList()))
+                            .collect(toList()));
+                };
+        return partitionFunction.apply(environments(ids), loader).toCompletableFuture().join().stream()
+                .map(DataFetcherResult::getData)
+                .collect(toList());
+    }
+
+    private static List<Object> ids(List<DataFetchingEnvironment> environments) {
+        return environments.stream().map(env -> env.getArgument("id")).collect(toList());
+    }
+
+    private static List<DataFetchingEnvironment> environments(String... ids) {
+        return asList(ids).stream()
+                .map(id -> newDataFetchingEnvironment().arguments(singletonMap("id", id)).build())
+                .collect(toList());
+    }
+}
@@ -0,0 +1,55 @@
+package com.atlassian.braid.source.jackson;
+
+import com.google.common.collect.ImmutableMap;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JacksonGraphQLResponseParserTest {
+
+    private final JacksonGraphQLResponseParser parser = new JacksonGraphQLResponseParser();
+
+    @Test
+    public void dataIsReadByTopLevelAlias() throws IOException {
+        final DataFetcherResult<Map<String, Object>> result = parse("{\"extensions\": {\"cost\": [1, 2]}, " +
+                "\"data\": {\"foo100\": {\"name\": \"Foo\", \"ids\": [1, 2]}, \"foo101\": null}}");
+
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("foo100", ImmutableMap.of("name", "Foo", "ids", Arrays.asList(1, 2)));
+        expected.put("foo101", null);
+        assertEquals(expected, result.getData());
+        assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    public void errorsAreReadWithTheirPath() throws IOException {
+        final DataFetcherResult<Map<String, Object>> result = parse("{\"errors\": [{\"message\": \"Oops\", " +
+                "\"path\": [\"foo100\", \"name\"]}], \"data\": null}");
+
+        assertTrue(result.getData().isEmpty());
+        assertEquals(1, result.getErrors().size());
+        final GraphQLError error = result.getErrors().get(0);
+        assertEquals("Oops", error.getMessage());
+        assertEquals(Arrays.asList("foo100", "name"), error.getPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidResponsesAreRejected() throws IOException {
+        parse("[" + singletonMap("data", null) + "]");
+    }
+
+    private DataFetcherResult<Map<String, Object>> parse(String body) throws IOException {
+        return parser.parse(new ByteArrayInputStream(body.getBytes(UTF_8)));
+    }
+}